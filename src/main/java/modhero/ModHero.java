@@ -59,9 +59,10 @@ public class ModHero {
     }
 
     /**
-     * Prints the goodbye message and exits.
+     * Saves any pending changes, prints the goodbye message and exits.
      */
     private void exit() {
+        dataManager.getAutoSaveService().close();
         ui.showBye();
         ui.close();
     }
@@ -95,6 +96,9 @@ public class ModHero {
                     dataManager.getAllMajorsData(),
                     dataManager.getExemptedModules()
             );
+            command.setAutoSaveService(dataManager.getAutoSaveService());
+            command.setPlanHistory(dataManager.getPlanHistory());
+            command.setPlanBranches(dataManager.getPlanBranches());
             CommandResult result = command.execute();
             logger.log(Level.INFO, "Command execution completed");
             return result;
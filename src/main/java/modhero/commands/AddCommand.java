@@ -7,6 +7,7 @@ import modhero.data.nusmods.ModuleRetriever;
 import modhero.data.timetable.Timetable;
 import modhero.exceptions.ModHeroException;
 import modhero.exceptions.ModuleNotFoundException;
+import modhero.storage.TimetableJournal;
 
 import java.util.List;
 import java.util.Map;
@@ -25,9 +26,16 @@ public class AddCommand extends Command {
     private final int year;
     private final int semester;
 
+    /**
+     * Creates an AddCommand.
+     *
+     * @param moduleCode the code of the module to add
+     * @param year the year to add to (1-based)
+     * @param semester the semester to add to (1-based)
+     */
     public AddCommand(String moduleCode, int year, int semester) {
-        assert year >= 0 && year < AcademicConstants.NUM_YEARS : "addModule year out of bounds";
-        assert semester >= 0 && semester < AcademicConstants.NUM_TERMS : "addModule term out of bounds";
+        assert year >= 1 && year <= AcademicConstants.NUM_YEARS : "addModule year out of bounds";
+        assert semester >= 1 && semester <= AcademicConstants.NUM_TERMS : "addModule term out of bounds";
 
         this.moduleCode = moduleCode.toUpperCase();
         this.year = year;
@@ -40,6 +48,7 @@ public class AddCommand extends Command {
             logger.log(Level.INFO, () -> String.format("Adding module %s to Y%dS%d", moduleCode, year, semester));
 
             addModule(timetable, allModulesData, moduleCode, year, semester, exemptedModules);
+            recordChange(TimetableJournal.Record.add(moduleCode, year - 1, semester - 1));
 
             return new CommandResult(String.format("%s added successfully to Y%dS%d!", moduleCode, year, semester));
         } catch (ModHeroException e) {
@@ -0,0 +1,114 @@
+package modhero.commands;
+
+import modhero.common.Constants.AcademicConstants;
+import modhero.data.modules.Module;
+import modhero.data.nusmods.ModuleRetriever;
+import modhero.data.timetable.Slot;
+import modhero.exceptions.ModHeroException;
+import modhero.exceptions.ModuleNotFoundException;
+import modhero.storage.TimetableJournal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Adds several modules to the timetable as one change, each to its own year and semester.
+ * The modules may be given in any order, and either all of them are added or none are.
+ */
+public class BatchAddCommand extends Command {
+    public static final Logger logger = Logger.getLogger(BatchAddCommand.class.getName());
+
+    private static final long MODULES_FETCH_TIMEOUT_MILLIS = 15_000;
+
+    private final Map<String, Slot> slotsByCode;
+    private final ModuleRetriever moduleRetriever;
+
+    /**
+     * Creates a BatchAddCommand.
+     *
+     * @param slotsByCode the slot each module code is added to, in the order given by the user.
+     *                    As with every {@link Slot}, the year and term are 0-based.
+     */
+    public BatchAddCommand(Map<String, Slot> slotsByCode) {
+        this(slotsByCode, new ModuleRetriever());
+    }
+
+    /**
+     * Creates a BatchAddCommand that fetches modules missing from local data with the given retriever.
+     *
+     * @param slotsByCode the slot each module code is added to, in the order given by the user
+     * @param moduleRetriever the retriever used for modules missing from local data
+     */
+    public BatchAddCommand(Map<String, Slot> slotsByCode, ModuleRetriever moduleRetriever) {
+        assert slotsByCode != null && !slotsByCode.isEmpty() : "BatchAddCommand needs at least one module";
+        assert slotsByCode.values().stream().allMatch(slot -> slot.getYear() >= 0
+                && slot.getYear() < AcademicConstants.NUM_YEARS && slot.getTerm() >= 0
+                && slot.getTerm() < AcademicConstants.NUM_TERMS) : "BatchAddCommand slot out of bounds";
+
+        this.moduleRetriever = moduleRetriever;
+        this.slotsByCode = new LinkedHashMap<>();
+        slotsByCode.forEach((code, slot) -> this.slotsByCode.put(code.toUpperCase(), slot));
+    }
+
+    @Override
+    public CommandResult execute() {
+        try {
+            logger.log(Level.INFO, () -> "Adding modules " + slotsByCode.keySet());
+
+            Map<Module, Slot> placements = new LinkedHashMap<>();
+            Map<String, Module> modules = getModules();
+            slotsByCode.forEach((code, slot) -> placements.put(modules.get(code), slot));
+            timetable.addModules(placements, exemptedModules);
+            recordChange(TimetableJournal.Record.addAll(timetable, slotsByCode.keySet()));
+
+            List<String> added = new ArrayList<>();
+            slotsByCode.forEach((code, slot) -> added.add(String.format("%s to Y%dS%d", code,
+                    slot.getYear() + 1, slot.getTerm() + 1)));
+            return new CommandResult(String.join(", ", added) + " added successfully!");
+        } catch (ModHeroException e) {
+            return new CommandResult(e.getMessage());
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Unexpected error while adding modules", e);
+            return new CommandResult("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Looks up every module of the batch, fetching those missing from local data concurrently.
+     *
+     * @return the modules keyed by module code
+     * @throws ModuleNotFoundException if any module cannot be found
+     */
+    private Map<String, Module> getModules() throws ModuleNotFoundException {
+        Map<String, Module> modules = new LinkedHashMap<>();
+        List<String> missingCodes = new ArrayList<>();
+        for (String code : slotsByCode.keySet()) {
+            Module module = allModulesData.get(code);
+            if (module == null) {
+                missingCodes.add(code);
+            } else {
+                modules.put(code, module);
+            }
+        }
+        if (missingCodes.isEmpty()) {
+            return modules;
+        }
+
+        logger.log(Level.INFO, "Modules " + missingCodes + " not in local data, trying API fetch...");
+        Map<String, Module> fetched = moduleRetriever.getModulesAsync(AcademicConstants.ACAD_YEAR,
+                missingCodes, MODULES_FETCH_TIMEOUT_MILLIS).join();
+        for (String code : missingCodes) {
+            Module module = fetched.get(code);
+            if (module == null) {
+                throw new ModuleNotFoundException(code, "NUSMODS\nPlease ensure you are connected to the internet and provide valid module code");
+            }
+            allModulesData.put(module.getCode(), module);
+            modules.put(code, module);
+        }
+        return modules;
+    }
+}
@@ -1,5 +1,7 @@
 package modhero.commands;
 
+import modhero.storage.TimetableJournal;
+
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -20,6 +22,7 @@ public class ClearCommand extends Command {
 
         timetable.clearTimetable();
         exemptedModules.clear();
+        recordChange(TimetableJournal.Record.clear());
         return new CommandResult("Reset the timetable.");
     }
 }
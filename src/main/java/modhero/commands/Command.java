@@ -4,6 +4,10 @@ import modhero.data.timetable.Timetable;
 import modhero.data.major.Major;
 import modhero.data.modules.Module;
 import modhero.data.modules.ModuleList;
+import modhero.data.timetable.PlanBranches;
+import modhero.data.timetable.PlanHistory;
+import modhero.storage.AutoSaveService;
+import modhero.storage.TimetableJournal;
 
 import java.util.List;
 import java.util.Map;
@@ -22,6 +26,9 @@ public abstract class Command {
     protected Map<String, Module> allModulesData;
     protected Map<String, Major> allMajorsData;
     protected List<String> exemptedModules;
+    protected AutoSaveService autoSaveService;
+    protected PlanHistory planHistory;
+    protected PlanBranches planBranches;
 
     /**
      * Sets the data context for the command, including the timetable
@@ -53,6 +60,61 @@ public abstract class Command {
     }
     public void setTimetable(Timetable timetable) { this.timetable = timetable; }
 
+    /**
+     * Sets the autosave service notified when the command changes the plan.
+     *
+     * @param autoSaveService the autosave service, or null to disable autosaving
+     */
+    public void setAutoSaveService(AutoSaveService autoSaveService) {
+        this.autoSaveService = autoSaveService;
+    }
+
+    /**
+     * Sets the history that changes made by the command are committed to, so they can be undone.
+     *
+     * @param planHistory the plan history, or null to make changes impossible to undo
+     */
+    public void setPlanHistory(PlanHistory planHistory) {
+        this.planHistory = planHistory;
+    }
+
+    /**
+     * Sets the branches of the plan. Only changes made on the main branch are saved.
+     *
+     * @param planBranches the plan branches, or null if the plan is not branched
+     */
+    public void setPlanBranches(PlanBranches planBranches) {
+        this.planBranches = planBranches;
+    }
+
+    /**
+     * Commits a change to the plan history and saves it in the background.
+     * Call after the plan has changed.
+     *
+     * @param record the change made
+     */
+    protected void recordChange(TimetableJournal.Record record) {
+        if (planHistory != null) {
+            planHistory.commit(timetable, exemptedModules);
+        }
+        saveChange(record);
+    }
+
+    /**
+     * Saves a change in the background without committing it to the plan history.
+     * Changes made on a branch other than the main one are not saved.
+     *
+     * @param record the change made
+     */
+    protected void saveChange(TimetableJournal.Record record) {
+        if (planBranches != null && !planBranches.isOnMainBranch()) {
+            return;
+        }
+        if (autoSaveService != null) {
+            autoSaveService.record(record, timetable, exemptedModules);
+        }
+    }
+
     /**
      * Executes the command.
      *
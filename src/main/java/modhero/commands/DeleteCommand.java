@@ -1,6 +1,7 @@
 package modhero.commands;
 
 import modhero.exceptions.ModHeroException;
+import modhero.storage.TimetableJournal;
 
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -45,6 +46,7 @@ public class DeleteCommand extends Command {
             logger.log(Level.INFO, () -> String.format("Attempting to delete module: %s", moduleCode));
 
             timetable.deleteModule(moduleCode, exemptedModules);
+            recordChange(TimetableJournal.Record.delete(moduleCode));
 
             return new CommandResult(String.format("%s deleted successfully!", moduleCode));
 
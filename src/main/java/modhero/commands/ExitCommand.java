@@ -17,6 +17,9 @@ public class ExitCommand extends Command {
     @Override
     public CommandResult execute() {
         logger.log(Level.INFO, "Executing Exit Command");
+        if (autoSaveService != null) {
+            autoSaveService.flush();
+        }
         return new CommandResult("Hold on while we exit the application");
     }
 
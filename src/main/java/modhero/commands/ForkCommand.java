@@ -0,0 +1,46 @@
+package modhero.commands;
+
+import modhero.exceptions.ModHeroException;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Copies the plan into a new branch, where changes can be tried out without touching the main plan.
+ */
+public class ForkCommand extends Command {
+    public static final Logger logger = Logger.getLogger(ForkCommand.class.getName());
+
+    public static final String COMMAND_WORD = "fork";
+
+    public static final String MESSAGE_USAGE = COMMAND_WORD + ": Copies your plan into a new branch to try changes on.\n"
+            + "  Parameters: BRANCH_NAME\n"
+            + "  Example: " + COMMAND_WORD + " whatif";
+
+    private final String branchName;
+
+    /**
+     * Creates a ForkCommand for a new branch.
+     *
+     * @param branchName the name of the new branch
+     */
+    public ForkCommand(String branchName) {
+        this.branchName = branchName.trim().toLowerCase();
+    }
+
+    @Override
+    public CommandResult execute() {
+        logger.log(Level.INFO, () -> "Forking branch " + branchName);
+
+        if (planBranches == null) {
+            return new CommandResult("Branches are not available.");
+        }
+        try {
+            planBranches.fork(branchName, timetable, exemptedModules);
+            return new CommandResult(String.format("Forked your plan into branch %s. Changes made here are not "
+                    + "saved until you merge them into your main plan.", branchName));
+        } catch (ModHeroException e) {
+            return new CommandResult(e.getMessage());
+        }
+    }
+}
@@ -4,6 +4,7 @@ import modhero.common.Constants;
 import modhero.data.major.Major;
 import modhero.data.timetable.TimetableData;
 import modhero.data.modules.Module;
+import modhero.storage.TimetableJournal;
 
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -66,6 +67,7 @@ public class MajorCommand extends Command {
                 Module m = allModulesData.get(mm.getCode());
                 timetable.addModuleDirect(mm.getYear() - 1, mm.getTerm() - 1, m);
             }
+        recordChange(TimetableJournal.Record.reset(timetable, exemptedModules));
         logger.log(Level.INFO, () -> "Major successfully set to " + major);
 
         return new CommandResult("Reset to default Timetable for Major in " + major + ". Type 'schedule' to view your 4-year plan!");
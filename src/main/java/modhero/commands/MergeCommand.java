@@ -0,0 +1,68 @@
+package modhero.commands;
+
+import modhero.exceptions.ModHeroException;
+import modhero.storage.TimetableJournal;
+
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Applies the changes made on another branch to the plan of the current branch.
+ */
+public class MergeCommand extends Command {
+    public static final Logger logger = Logger.getLogger(MergeCommand.class.getName());
+
+    public static final String COMMAND_WORD = "merge";
+
+    public static final String MESSAGE_USAGE = COMMAND_WORD + ": Applies the changes made on a branch to your current plan.\n"
+            + "  Parameters: BRANCH_NAME\n"
+            + "  Example: " + COMMAND_WORD + " whatif";
+
+    private final String branchName;
+
+    /**
+     * Creates a MergeCommand for a branch.
+     *
+     * @param branchName the name of the branch to merge
+     */
+    public MergeCommand(String branchName) {
+        this.branchName = branchName.trim().toLowerCase();
+    }
+
+    @Override
+    public CommandResult execute() {
+        logger.log(Level.INFO, () -> "Merging branch " + branchName);
+
+        if (planBranches == null) {
+            return new CommandResult("Branches are not available.");
+        }
+        if (branchName.equals(planBranches.getCurrentName())) {
+            return new CommandResult("You are already on branch " + branchName + ".");
+        }
+
+        List<String> conflicts;
+        try {
+            conflicts = planBranches.merge(branchName, timetable, exemptedModules);
+        } catch (ModHeroException e) {
+            return new CommandResult(e.getMessage());
+        }
+        recordChange(TimetableJournal.Record.reset(timetable, exemptedModules));
+
+        StringBuilder message = new StringBuilder(String.format("Merged branch %s into %s.", branchName,
+                planBranches.getCurrentName()));
+        appendIssues(message, "conflict", conflicts);
+        appendIssues(message, "issue", planBranches.validate(timetable, exemptedModules));
+        return new CommandResult(message.toString());
+    }
+
+    private static void appendIssues(StringBuilder message, String kind, List<String> issues) {
+        if (issues.isEmpty()) {
+            return;
+        }
+        message.append("\n").append(issues.size()).append(" ").append(kind).append("(s):");
+        for (String issue : issues) {
+            message.append("\n  - ").append(issue);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package modhero.commands;
+
+import modhero.common.Constants.AcademicConstants;
+import modhero.exceptions.ModHeroException;
+import modhero.storage.TimetableJournal;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Moves a module in the timetable to another year and semester in one step.
+ */
+public class MoveCommand extends Command {
+    public static final Logger logger = Logger.getLogger(MoveCommand.class.getName());
+    public static final String COMMAND_WORD = "move";
+
+    public static final String MESSAGE_USAGE = COMMAND_WORD + ": Moves a module to another year and semester.\n"
+            + "  Format: move MODULE_CODE to YxSy\n"
+            + "  Example: move CS2103T to Y3S1";
+
+    private final String moduleCode;
+    private final int year;
+    private final int semester;
+
+    /**
+     * Creates a MoveCommand.
+     *
+     * @param moduleCode the code of the module to move
+     * @param year the year to move to (1-based)
+     * @param semester the semester to move to (1-based)
+     */
+    public MoveCommand(String moduleCode, int year, int semester) {
+        assert year >= 1 && year <= AcademicConstants.NUM_YEARS : "moveModule year out of bounds";
+        assert semester >= 1 && semester <= AcademicConstants.NUM_TERMS : "moveModule term out of bounds";
+
+        this.moduleCode = moduleCode.toUpperCase();
+        this.year = year;
+        this.semester = semester;
+    }
+
+    @Override
+    public CommandResult execute() {
+        try {
+            logger.log(Level.INFO, () -> String.format("Moving module %s to Y%dS%d", moduleCode, year, semester));
+
+            if (!timetable.moveModule(moduleCode, year, semester, exemptedModules)) {
+                return new CommandResult(String.format("%s is already in Y%dS%d.", moduleCode, year, semester));
+            }
+            recordChange(TimetableJournal.Record.move(moduleCode, year - 1, semester - 1));
+
+            return new CommandResult(String.format("%s moved successfully to Y%dS%d!", moduleCode, year, semester));
+        } catch (ModHeroException e) {
+            return new CommandResult(e.getMessage());
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Unexpected error while moving module", e);
+            return new CommandResult("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package modhero.commands;
+
+import modhero.storage.TimetableJournal;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Redoes the change undone last.
+ */
+public class RedoCommand extends Command {
+    public static final Logger logger = Logger.getLogger(RedoCommand.class.getName());
+
+    public static final String COMMAND_WORD = "redo";
+
+    public static final String MESSAGE_USAGE = COMMAND_WORD + ": Redoes the change you undid last.\n"
+            + "  Example: " + COMMAND_WORD;
+
+    @Override
+    public CommandResult execute() {
+        logger.log(Level.INFO, "Executing Redo Command");
+
+        if (planHistory == null || !planHistory.redo(timetable, exemptedModules)) {
+            return new CommandResult("There is nothing to redo.");
+        }
+        saveChange(TimetableJournal.Record.reset(timetable, exemptedModules));
+        return new CommandResult("Redid your last undone change. Type 'schedule' to view your plan!");
+    }
+}
@@ -1,12 +1,8 @@
 package modhero.commands;
 
-import modhero.storage.SaveStorage;
-
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import static modhero.common.Constants.FilePathConstants.TIMETABLE_FILE_PATH;
-
 /**
  * Displays the current 4-year study plan (already populated when a major is set).
  */
@@ -22,9 +18,6 @@ public class ScheduleCommand extends Command {
         // Just display the timetable; don’t rebuild or print module codes
         timetable.printTimetable();
 
-        SaveStorage ts = new SaveStorage(TIMETABLE_FILE_PATH);
-        ts.save(timetable, exemptedModules);
-
         return new CommandResult("Here's your recommended 4-year schedule above!");
     }
 }
@@ -0,0 +1,55 @@
+package modhero.commands;
+
+import modhero.exceptions.ModHeroException;
+
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Switches to the plan of another branch.
+ */
+public class SwitchCommand extends Command {
+    public static final Logger logger = Logger.getLogger(SwitchCommand.class.getName());
+
+    public static final String COMMAND_WORD = "switch";
+
+    public static final String MESSAGE_USAGE = COMMAND_WORD + ": Switches to the plan of another branch.\n"
+            + "  Parameters: BRANCH_NAME\n"
+            + "  Example: " + COMMAND_WORD + " main";
+
+    private final String branchName;
+
+    /**
+     * Creates a SwitchCommand for a branch.
+     *
+     * @param branchName the name of the branch to switch to
+     */
+    public SwitchCommand(String branchName) {
+        this.branchName = branchName.trim().toLowerCase();
+    }
+
+    @Override
+    public CommandResult execute() {
+        logger.log(Level.INFO, () -> "Switching to branch " + branchName);
+
+        if (planBranches == null) {
+            return new CommandResult("Branches are not available.");
+        }
+        try {
+            planBranches.switchTo(branchName, timetable, exemptedModules);
+        } catch (ModHeroException e) {
+            return new CommandResult(e.getMessage() + " Branches: " + String.join(", ", planBranches.getNames()));
+        }
+
+        StringBuilder message = new StringBuilder("Switched to branch " + branchName + ".");
+        List<String> violations = planBranches.validate(timetable, exemptedModules);
+        if (!violations.isEmpty()) {
+            message.append("\nThis plan has ").append(violations.size()).append(" issue(s):");
+            for (String violation : violations) {
+                message.append("\n  - ").append(violation);
+            }
+        }
+        return new CommandResult(message.toString());
+    }
+}
@@ -0,0 +1,29 @@
+package modhero.commands;
+
+import modhero.storage.TimetableJournal;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Undoes the last change made to the plan.
+ */
+public class UndoCommand extends Command {
+    public static final Logger logger = Logger.getLogger(UndoCommand.class.getName());
+
+    public static final String COMMAND_WORD = "undo";
+
+    public static final String MESSAGE_USAGE = COMMAND_WORD + ": Undoes your last change to the plan.\n"
+            + "  Example: " + COMMAND_WORD;
+
+    @Override
+    public CommandResult execute() {
+        logger.log(Level.INFO, "Executing Undo Command");
+
+        if (planHistory == null || !planHistory.undo(timetable, exemptedModules)) {
+            return new CommandResult("There is nothing to undo.");
+        }
+        saveChange(TimetableJournal.Record.reset(timetable, exemptedModules));
+        return new CommandResult("Undid your last change. Type 'schedule' to view your plan!");
+    }
+}
@@ -55,11 +55,16 @@ public final class Constants {
             │ add        │ Add elective modules to specific Year & Semester  │
             │            │ Format: add MODULE_CODE to Y_S_                   │
             │            │ Example: add CS3240 to Y2S2                       │
+            │            │ Many: add CS3230 CS3203 to Y3S1 CS4231 to Y3S2    │
             ├────────────┼───────────────────────────────────────────────────┤
             │ delete     │ Remove elective modules                           │
             │            │ Format: delete MODULE_CODE                        │
             │            │ Example: delete CS2109S                           │
             ├────────────┼───────────────────────────────────────────────────┤
+            │ move       │ Move a module to another Year & Semester          │
+            │            │ Format: move MODULE_CODE to Y_S_                  │
+            │            │ Example: move CS2103T to Y3S1                     │
+            ├────────────┼───────────────────────────────────────────────────┤
             │ schedule   │ Generate your recommended 4-Year Study Plan       │
             │            │ Format: schedule                                  │
             │            │ Example: schedule                                 │
@@ -68,6 +73,26 @@ public final class Constants {
             │            │ Format: clear                                     │
             │            │ Example: clear                                    │
             ├────────────┼───────────────────────────────────────────────────┤
+            │ undo       │ Undo your last change to the plan                 │
+            │            │ Format: undo                                      │
+            │            │ Example: undo                                     │
+            ├────────────┼───────────────────────────────────────────────────┤
+            │ redo       │ Redo the change you undid last                    │
+            │            │ Format: redo                                      │
+            │            │ Example: redo                                     │
+            ├────────────┼───────────────────────────────────────────────────┤
+            │ fork       │ Copy your plan into a branch to try changes on    │
+            │            │ Format: fork BRANCH_NAME                          │
+            │            │ Example: fork whatif                              │
+            ├────────────┼───────────────────────────────────────────────────┤
+            │ switch     │ Switch to the plan of another branch              │
+            │            │ Format: switch BRANCH_NAME                        │
+            │            │ Example: switch main                              │
+            ├────────────┼───────────────────────────────────────────────────┤
+            │ merge      │ Apply the changes made on a branch to your plan   │
+            │            │ Format: merge BRANCH_NAME                         │
+            │            │ Example: merge whatif                             │
+            ├────────────┼───────────────────────────────────────────────────┤
             │ exit       │ Exit the program                                  │
             │            │ Format: exit                                      │
             │            │ Example: exit                                     │
@@ -82,10 +107,29 @@ public final class Constants {
         public static final int MAX_MODULES_PER_SEM = 5;
     }
 
+    public static final class ModuleCacheConstants {
+        public static final int MAX_ENTRIES = 500;
+        public static final long TTL_MILLIS = 7L * 24 * 60 * 60 * 1000;
+    }
+
+    public static final class AutoSaveConstants {
+        public static final long QUIET_PERIOD_MILLIS = 500;
+        public static final long JOURNAL_COMPACTION_THRESHOLD_CHARS = 16 * 1024;
+    }
+
+    public static final class HistoryConstants {
+        public static final int MAX_UNDO_STEPS = 200;
+        public static final String MAIN_BRANCH_NAME = "main";
+        public static final int MAX_CACHED_TERM_RESULTS = 512;
+    }
+
     public static final class FilePathConstants {
         public static final String MODULES_FILE_PATH = "data/modules.txt";
+        public static final String MODULES_CATALOG_FILE_PATH = "data/modules.bin";
         public static final String MAJOR_FILE_PATH = "data/major.txt";
         public static final String TIMETABLE_FILE_PATH = "data/save.txt";
+        public static final String MODULE_CACHE_FILE_PATH = "data/module_cache.txt";
+        public static final String RESPONSE_CACHE_DIR_PATH = "data/nusmods_cache";
     }
 
     public static final class FormatConstants {
@@ -2,28 +2,43 @@ package modhero.common.config;
 
 import modhero.ModHero;
 import modhero.commands.AddCommand;
+import modhero.commands.BatchAddCommand;
 import modhero.commands.ClearCommand;
 import modhero.commands.Command;
 import modhero.commands.DeleteCommand;
 import modhero.commands.ExitCommand;
+import modhero.commands.ForkCommand;
 import modhero.commands.HelpCommand;
 import modhero.commands.MajorCommand;
+import modhero.commands.MergeCommand;
+import modhero.commands.MoveCommand;
+import modhero.commands.RedoCommand;
 import modhero.commands.ScheduleCommand;
+import modhero.commands.SwitchCommand;
+import modhero.commands.UndoCommand;
 import modhero.common.util.DeserialisationUtil;
-import modhero.common.util.JsonUtil;
 import modhero.common.util.SerialisationUtil;
+import modhero.common.util.SerialisedReader;
 import modhero.data.DataManager;
 import modhero.data.major.Major;
 import modhero.data.modules.Module;
 import modhero.data.modules.ModuleList;
 import modhero.data.nusmods.NusmodsAPIClient;
+import modhero.data.timetable.PlanBranches;
+import modhero.data.timetable.PlanHistory;
 import modhero.data.timetable.Timetable;
 import modhero.parser.ModuleParser;
 import modhero.parser.Parser;
+import modhero.storage.AutoSaveService;
+import modhero.storage.BinaryModuleCatalog;
 import modhero.storage.MajorStorage;
+import modhero.storage.ModuleCache;
+import modhero.storage.ModuleCatalogView;
 import modhero.storage.ModuleStorage;
+import modhero.storage.ResponseCache;
 import modhero.storage.SaveStorage;
 import modhero.storage.Storage;
+import modhero.storage.TimetableJournal;
 
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -44,9 +59,16 @@ public class LoggerConfig {
         setLoggerLevel(Command.class, level);
         setLoggerLevel(MajorCommand.class, level);
         setLoggerLevel(AddCommand.class, level);
+        setLoggerLevel(BatchAddCommand.class, level);
         setLoggerLevel(DeleteCommand.class, level);
+        setLoggerLevel(MoveCommand.class, level);
         setLoggerLevel(ScheduleCommand.class, level);
         setLoggerLevel(ClearCommand.class, level);
+        setLoggerLevel(UndoCommand.class, level);
+        setLoggerLevel(RedoCommand.class, level);
+        setLoggerLevel(ForkCommand.class, level);
+        setLoggerLevel(SwitchCommand.class, level);
+        setLoggerLevel(MergeCommand.class, level);
         setLoggerLevel(HelpCommand.class, level);
         setLoggerLevel(ExitCommand.class, level);
         setLoggerLevel(DataManager.class, level);
@@ -55,14 +77,22 @@ public class LoggerConfig {
         setLoggerLevel(ModuleParser.class, level);
         setLoggerLevel(ModuleList.class, level);
         setLoggerLevel(Timetable.class, level);
+        setLoggerLevel(PlanHistory.class, level);
+        setLoggerLevel(PlanBranches.class, level);
         setLoggerLevel(NusmodsAPIClient.class, level);
         setLoggerLevel(SerialisationUtil.class, level);
+        setLoggerLevel(SerialisedReader.class, level);
         setLoggerLevel(DeserialisationUtil.class, level);
-        setLoggerLevel(JsonUtil.class, level);
         setLoggerLevel(Storage.class, level);
         setLoggerLevel(MajorStorage.class, level);
         setLoggerLevel(ModuleStorage.class, level);
+        setLoggerLevel(BinaryModuleCatalog.class, level);
+        setLoggerLevel(ModuleCatalogView.class, level);
+        setLoggerLevel(ModuleCache.class, level);
+        setLoggerLevel(ResponseCache.class, level);
         setLoggerLevel(SaveStorage.class, level);
+        setLoggerLevel(AutoSaveService.class, level);
+        setLoggerLevel(TimetableJournal.class, level);
     }
 
     private static void setLoggerLevel(Class<?> clazz, Level level) {
@@ -1,72 +1,401 @@
 package modhero.common.predata;
 
 import static modhero.common.Constants.FilePathConstants.MAJOR_FILE_PATH;
+import static modhero.common.Constants.FilePathConstants.MODULES_CATALOG_FILE_PATH;
 import static modhero.common.Constants.FilePathConstants.MODULES_FILE_PATH;
+import static modhero.common.Constants.FilePathConstants.RESPONSE_CACHE_DIR_PATH;
 
+import modhero.common.util.DeserialisationUtil;
+import modhero.common.util.JsonReader;
 import modhero.common.util.SerialisationUtil;
+import modhero.common.util.SerialisationWriter;
 import modhero.data.nusmods.NusmodsAPIClient;
+import modhero.data.nusmods.NusmodsResponse;
 import modhero.parser.ModuleParser;
+import modhero.storage.BinaryModuleCatalog;
 import modhero.storage.MajorStorage;
-import modhero.storage.ModuleStorage;
+import modhero.storage.ResponseCache;
 import modhero.data.modules.Module;
 import modhero.data.modules.Prerequisites;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Generates the text file content for modules.txt and majors.txt.
  *
- * REQUIRES: An active internet connection.
+ * REQUIRES: An active internet connection, unless a local NUSMods moduleInfo.json dump
+ * is passed as the first argument, in which case modules.txt is built from that file offline.
+ * With {@code --incremental}, the existing modules.txt is patched in place and only changed
+ * records are rewritten; progress is kept in a checkpoint file so an interrupted run resumes.
  */
 public class DataGenerator {
 
     private static final String ACAD_YEAR = "2025-2026";
+    private static final String INCREMENTAL_FLAG = "--incremental";
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    private static final int EXPECTED_MODULE_ARGS = 6;
+
+    private static final List<String> CATALOG_MODULES = Arrays.asList(
+            // Computer Science
+            "CS1101S", "MA1522", "CS1231S", "ES2660",
+            "CS2030S", "CS2040S", "MA1521",
+            "CS2100", "CS2101", "CS2103T", "CS2109S", "IS1108",
+            "CS2106", "CS3230", "ST2334",
+            // Computer Engineering
+            "CG1111A", "EG1311", "MA1511", "MA1512", "CS1010",
+            "CG2111A", "DTK1234", "MA1508E", "EE2026", "CS2040C",
+            "CS2107", "CG2023", "CS2113", "CS1231", "EE2211", "ST2334",
+            "CG2027", "CG2028", "CG2271", "CG3201", "EE4204", "CG3207"
+    );
 
     public static void main(String[] args) {
         // Generate Module Data
-        System.out.println("Fetching live module data from NUSMods API...");
-        String moduleFileContent = generateModulesTxt();
-        if (moduleFileContent != null) {
-            ModuleStorage moduleStorage = new ModuleStorage(MODULES_FILE_PATH);
-            moduleStorage.saveToTextFile(moduleFileContent);
-            System.out.println("Successfully saved to " + MODULES_FILE_PATH);
+        if (args.length > 0 && args[0].equals(INCREMENTAL_FLAG)) {
+            System.out.println("Updating module data from NUSMods API...");
+            try {
+                int changed = updateModulesTxt(Paths.get(MODULES_FILE_PATH));
+                System.out.println("Updated " + changed + " modules in " + MODULES_FILE_PATH);
+            } catch (IOException e) {
+                System.err.println("Failed to update module data: " + e.getMessage());
+            }
+        } else if (args.length > 0) {
+            System.out.println("Reading module data from " + args[0] + "...");
+            try {
+                int count = generateModulesTxtFromDump(Paths.get(args[0]), Paths.get(MODULES_FILE_PATH));
+                System.out.println("Successfully saved " + count + " modules to " + MODULES_FILE_PATH);
+            } catch (IOException e) {
+                System.err.println("Failed to read module dump: " + e.getMessage() + ". File not saved.");
+            }
         } else {
-            System.err.println("Failed to generate module data. File not saved.");
+            generateModulesTxtFromApi();
         }
 
+        compileModuleCatalog();
+
         // Generate Major Data
         System.out.println("\nGenerating major data...");
         String majorFileContent = generateMajorsTxt();
+        if (isFileContentEqual(Paths.get(MAJOR_FILE_PATH), majorFileContent)) {
+            System.out.println("Major data unchanged, " + MAJOR_FILE_PATH + " not rewritten");
+            return;
+        }
         MajorStorage majorStorage = new MajorStorage(MAJOR_FILE_PATH);
 
         majorStorage.saveToTextFile(majorFileContent);
         System.out.println("Successfully saved to " + MAJOR_FILE_PATH);
     }
 
-    private static String generateModulesTxt() {
-        NusmodsAPIClient client = new NusmodsAPIClient();
+    /**
+     * Compiles modules.txt into the binary catalog that the app maps at startup.
+     */
+    private static void compileModuleCatalog() {
+        Path modulesFile = Paths.get(MODULES_FILE_PATH);
+        if (!Files.exists(modulesFile)) {
+            return;
+        }
+        try {
+            int count = BinaryModuleCatalog.compile(modulesFile, Paths.get(MODULES_CATALOG_FILE_PATH));
+            System.out.println("Compiled " + count + " modules to " + MODULES_CATALOG_FILE_PATH);
+        } catch (IOException e) {
+            System.err.println("Failed to compile module catalog: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Patches an existing modules file with fresh NUSMods data for the catalog modules.
+     *
+     * @param modulesFile the modules file to patch
+     * @return the number of records added or changed
+     * @throws IOException if the checkpoint or modules file cannot be written
+     */
+    static int updateModulesTxt(Path modulesFile) throws IOException {
+        NusmodsAPIClient client = new NusmodsAPIClient(NusmodsAPIClient.DEFAULT_BASE_URL,
+                new ResponseCache(RESPONSE_CACHE_DIR_PATH));
+        return updateModulesTxt(modulesFile, client, CATALOG_MODULES);
+    }
+
+    /**
+     * Patches an existing modules file with fresh data for the given modules.
+     * Each fetched record is appended to a checkpoint file as soon as it is ready, and records already
+     * in the checkpoint are not fetched again, so a failed or interrupted run resumes where it stopped.
+     * Modules that fail to fetch or parse keep their existing record. Only records that changed are
+     * replaced; every other line of the modules file is kept as it is, and the file is not written at
+     * all if nothing changed. The checkpoint is removed once every module succeeded.
+     *
+     * @param modulesFile the modules file to patch
+     * @param client the client to fetch modules with
+     * @param codes the codes of the modules to refresh
+     * @return the number of records added or changed
+     * @throws IOException if the checkpoint or modules file cannot be written
+     */
+    static int updateModulesTxt(Path modulesFile, NusmodsAPIClient client, Collection<String> codes)
+            throws IOException {
+        Path checkpointFile = Paths.get(modulesFile + CHECKPOINT_SUFFIX);
+        Map<String, String> catalog = loadModuleLines(modulesFile);
+        Set<String> doneCodes = loadModuleLines(checkpointFile).keySet();
+        if (!doneCodes.isEmpty()) {
+            System.out.println("Resuming from checkpoint with " + doneCodes.size() + " modules done.");
+        }
+
+        List<String> pendingCodes = new ArrayList<>();
+        for (String code : codes) {
+            if (!doneCodes.contains(code) && !pendingCodes.contains(code)) {
+                pendingCodes.add(code);
+            }
+        }
+
         ModuleParser parser = new ModuleParser();
-        StringBuilder fileContent = new StringBuilder();
+        Map<String, CompletableFuture<NusmodsResponse>> fetches = client.fetchAllResponses(ACAD_YEAR, pendingCodes);
+        int failedCount = 0;
+        Path parent = checkpointFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        boolean isCheckpointCutOff = endsWithIncompleteLine(checkpointFile);
+        try (BufferedWriter checkpointOut = Files.newBufferedWriter(checkpointFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            SerialisationWriter checkpoint = new SerialisationWriter(checkpointOut);
+            if (isCheckpointCutOff) {
+                // Close the line an interrupted run left unfinished, so the next record starts on its own
+                checkpoint.endLine();
+            }
+            for (String code : pendingCodes) {
+                if (!writeFreshModule(checkpoint, code, fetchedOrNull(code, fetches.get(code)), parser,
+                        catalog.get(code))) {
+                    failedCount++;
+                    continue;
+                }
+                checkpoint.flush();
+            }
+        }
 
-        List<String> allModules = Arrays.asList(
-                // Computer Science
-                "CS1101S", "MA1522", "CS1231S", "ES2660",
-                "CS2030S", "CS2040S", "MA1521",
-                "CS2100", "CS2101", "CS2103T", "CS2109S", "IS1108",
-                "CS2106", "CS3230", "ST2334",
-                // Computer Engineering
-                "CG1111A", "EG1311", "MA1511", "MA1512", "CS1010",
-                "CG2111A", "DTK1234", "MA1508E", "EE2026", "CS2040C",
-                "CS2107", "CG2023", "CS2113", "CS1231", "EE2211", "ST2334",
-                "CG2027", "CG2028", "CG2271", "CG3201", "EE4204", "CG3207"
-        );
+        Map<String, String> changedLines = new LinkedHashMap<>();
+        for (Map.Entry<String, String> fresh : loadModuleLines(checkpointFile).entrySet()) {
+            if (!fresh.getValue().equals(catalog.get(fresh.getKey()))) {
+                changedLines.put(fresh.getKey(), fresh.getValue());
+            }
+        }
+        if (!changedLines.isEmpty()) {
+            patchModuleLines(modulesFile, changedLines);
+        }
+        if (failedCount > 0) {
+            System.err.println(failedCount + " modules kept their old data. Rerun to retry them.");
+        } else {
+            Files.deleteIfExists(checkpointFile);
+        }
+        return changedLines.size();
+    }
+
+    /**
+     * Writes the fresh modules file record for one fetched module.
+     *
+     * @param out the writer to write the record to
+     * @param code the module code
+     * @param response the fetched response, or null if the fetch failed
+     * @param parser the parser for the module JSON
+     * @param previousLine the module's current line, or null if it is new
+     * @return true if a record was written, false if the module could not be fetched or parsed
+     * @throws IOException if the destination cannot be written
+     */
+    private static boolean writeFreshModule(SerialisationWriter out, String code, NusmodsResponse response,
+                                            ModuleParser parser, String previousLine) throws IOException {
+        if (response == null) {
+            return false;
+        }
+        if (response.isUnchanged() && previousLine != null) {
+            out.append(previousLine).endLine();
+            return true;
+        }
+        Module module = parser.parseModule(response.getBody());
+        if (module == null) {
+            System.err.println("ModuleParser failed to parse " + code + ".");
+            return false;
+        }
+        module.writeFormatted(out);
+        out.endLine();
+        return true;
+    }
+
+    /**
+     * Replaces the changed records of a modules file where they stand and appends the new ones.
+     * Every other line is copied as it is, including lines this generator cannot read.
+     * The patched file is written to a temporary file first, so a failed write leaves it untouched.
+     *
+     * @param modulesFile the modules file to patch
+     * @param changedLines the new or changed lines keyed by module code
+     * @throws IOException if the file cannot be written
+     */
+    private static void patchModuleLines(Path modulesFile, Map<String, String> changedLines) throws IOException {
+        Path tempFile = Paths.get(modulesFile + ".tmp");
+        Set<String> replacedCodes = new HashSet<>();
+        try (BufferedWriter out = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            SerialisationWriter writer = new SerialisationWriter(out);
+            if (Files.exists(modulesFile)) {
+                try (BufferedReader in = Files.newBufferedReader(modulesFile, StandardCharsets.UTF_8)) {
+                    for (String line = in.readLine(); line != null; line = in.readLine()) {
+                        String code = codeOf(line);
+                        String changedLine = code == null ? null : changedLines.get(code);
+                        if (changedLine != null) {
+                            replacedCodes.add(code);
+                        }
+                        writer.append(changedLine == null ? line : changedLine).endLine();
+                    }
+                }
+            }
+            for (Map.Entry<String, String> changed : changedLines.entrySet()) {
+                if (!replacedCodes.contains(changed.getKey())) {
+                    writer.append(changed.getValue()).endLine();
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        Files.move(tempFile, modulesFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Checks whether a file ends part way through a line, as a checkpoint does after an interrupted write.
+     */
+    private static boolean endsWithIncompleteLine(Path file) throws IOException {
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            return false;
+        }
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            ByteBuffer lastByte = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1).read(lastByte);
+            return lastByte.get(0) != '\n';
+        }
+    }
+
+    private static boolean isFileContentEqual(Path file, String content) {
+        try {
+            return Files.exists(file) && Files.readString(file, StandardCharsets.UTF_8).equals(content);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void generateModulesTxtFromApi() {
+        System.out.println("Fetching live module data from NUSMods API...");
+        Path modulesFile = Paths.get(MODULES_FILE_PATH);
+        Path tempFile = Paths.get(MODULES_FILE_PATH + ".tmp");
+        try {
+            Path parent = modulesFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            boolean isGenerated;
+            try (BufferedWriter out = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                isGenerated = generateModulesTxt(new SerialisationWriter(out));
+            }
+            if (isGenerated) {
+                Files.move(tempFile, modulesFile, StandardCopyOption.REPLACE_EXISTING);
+                System.out.println("Successfully saved to " + MODULES_FILE_PATH);
+            } else {
+                Files.deleteIfExists(tempFile);
+                System.err.println("Failed to generate module data. File not saved.");
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write module data: " + e.getMessage() + ". File not saved.");
+        }
+    }
 
-        for (String code : allModules) {
+    /**
+     * Builds modules.txt from a bulk NUSMods dump such as {@code moduleInfo.json}, a JSON array of
+     * module objects. The dump is streamed one module at a time and each line is written as soon as
+     * it is parsed, so neither the dump nor the output is held in memory and no network is needed.
+     * Entries missing a code, title or module credit are skipped. The output is written to a
+     * temporary file first, so a malformed dump leaves the existing modules file untouched.
+     *
+     * @param dumpFile the local JSON dump to read
+     * @param outputFile the modules file to write
+     * @return the number of modules written
+     * @throws IOException if the dump cannot be read or is malformed, or the output cannot be written
+     */
+    static int generateModulesTxtFromDump(Path dumpFile, Path outputFile) throws IOException {
+        ModuleParser parser = new ModuleParser();
+        Path parent = outputFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        Path tempFile = Paths.get(outputFile + ".tmp");
+        int written = 0;
+        int skipped = 0;
+        try (BufferedReader in = Files.newBufferedReader(dumpFile, StandardCharsets.UTF_8);
+                JsonReader reader = new JsonReader(in);
+                BufferedWriter out = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            SerialisationWriter writer = new SerialisationWriter(out);
+            reader.beginArray();
+            while (reader.hasNext()) {
+                Module module = parser.readModule(reader);
+                if (module == null) {
+                    skipped++;
+                    continue;
+                }
+                module.writeFormatted(writer);
+                writer.endLine();
+                written++;
+            }
+            reader.endArray();
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        Files.move(tempFile, outputFile, StandardCopyOption.REPLACE_EXISTING);
+        if (skipped > 0) {
+            System.err.println("Skipped " + skipped + " modules with missing or invalid data.");
+        }
+        return written;
+    }
+
+    /**
+     * Fetches every catalog module and writes its modules.txt line as soon as it is ready.
+     *
+     * @param out the writer for the modules file content
+     * @return true if every module was written
+     * @throws IOException if the output cannot be written
+     */
+    private static boolean generateModulesTxt(SerialisationWriter out) throws IOException {
+        NusmodsAPIClient client = new NusmodsAPIClient(NusmodsAPIClient.DEFAULT_BASE_URL,
+                new ResponseCache(RESPONSE_CACHE_DIR_PATH));
+        ModuleParser parser = new ModuleParser();
+        Map<String, String> previousLines = loadModuleLines(Paths.get(MODULES_FILE_PATH));
+        int reusedCount = 0;
+
+        Map<String, CompletableFuture<NusmodsResponse>> fetches = client.fetchAllResponses(ACAD_YEAR, CATALOG_MODULES);
+        for (String code : CATALOG_MODULES) {
             try {
-                String json = client.fetchModuleDataSafely(ACAD_YEAR, code);
+                NusmodsResponse response = fetchedOrNull(code, fetches.get(code));
+                if (response != null && response.isUnchanged() && previousLines.containsKey(code)) {
+                    // Same JSON as the last run, so the previous line is still correct
+                    out.append(previousLines.get(code)).endLine();
+                    reusedCount++;
+                    continue;
+                }
+
+                String json = response == null ? null : response.getBody();
                 String moduleCode = code;
                 String moduleName;
                 String moduleMc;
@@ -78,7 +407,7 @@ public class DataGenerator {
                     moduleName = code;
                     moduleMc = "4";
                     preclude = "";
-                    serialisedPrereqsBlob = serializePrereqList(new ArrayList<>()); // Empty prerequisites
+                    serialisedPrereqsBlob = ""; // Empty prerequisites
                 } else {
                     Module module = parser.parseModule(json);
 
@@ -87,7 +416,7 @@ public class DataGenerator {
                         moduleName = code;
                         moduleMc = "4";
                         preclude = "";
-                        serialisedPrereqsBlob = serializePrereqList(new ArrayList<>());
+                        serialisedPrereqsBlob = "";
                     } else {
                         moduleName = module.getName();
                         moduleMc = String.valueOf(module.getMc());
@@ -100,54 +429,93 @@ public class DataGenerator {
                     }
                 }
 
-                String desc = "core";
-
-                // Build the module line with triple-serialized prerequisites
-                String line = SerialisationUtil.serialiseMessage(moduleCode)
-                        + SerialisationUtil.serialiseMessage(moduleName)
-                        + SerialisationUtil.serialiseMessage(moduleMc)
-                        + SerialisationUtil.serialiseMessage(desc)
-                        + SerialisationUtil.serialiseMessage(preclude)
-                        + SerialisationUtil.serialiseMessage(serialisedPrereqsBlob);
-
-                fileContent.append(line).append(System.lineSeparator());
+                writeModuleLine(out, moduleCode, moduleName, moduleMc, preclude, serialisedPrereqsBlob);
 
+            } catch (IOException e) {
+                throw e;
             } catch (Exception e) {
                 System.err.println("Failed to generate data for " + code + ": " + e.getMessage());
                 e.printStackTrace();
-                return null;
+                return false;
             }
         }
-        return fileContent.toString();
+        System.out.println("Reused " + reusedCount + " unchanged modules.");
+        return true;
     }
 
     /**
-     * Serializes the complex List<List<String>> prerequisite structure.
+     * Reads an existing modules file into its lines keyed by module code, in file order.
+     * Incomplete lines, such as one cut off when a run was interrupted, are skipped.
      *
-     * @param prereqCombinations the prerequisite combinations structure
-     * @return doubly-serialized prerequisites blob (to be wrapped once more)
+     * @param modulesFile the modules file from a previous run
+     * @return the lines keyed by module code, empty if the file does not exist or cannot be read
      */
-    private static String serializePrereqList(List<List<String>> prereqCombinations) {
-        if (prereqCombinations == null || prereqCombinations.isEmpty()) {
-            return ""; // Empty string for no prerequisites
+    private static Map<String, String> loadModuleLines(Path modulesFile) {
+        Map<String, String> lines = new LinkedHashMap<>();
+        if (!Files.exists(modulesFile)) {
+            return lines;
         }
-
-        StringBuilder prereqBlobBuilder = new StringBuilder();
-
-        // For each combination (OR group)
-        for (List<String> combo : prereqCombinations) {
-            // WRAP 1: Serialize each module code
-            StringBuilder comboBuilder = new StringBuilder();
-            for (String moduleCode : combo) {
-                comboBuilder.append(SerialisationUtil.serialiseMessage(moduleCode));
+        try {
+            for (String line : Files.readAllLines(modulesFile, StandardCharsets.UTF_8)) {
+                String code = codeOf(line);
+                if (code != null) {
+                    lines.put(code, line);
+                }
             }
+        } catch (IOException e) {
+            System.err.println("Unable to read existing " + modulesFile + ": " + e.getMessage());
+        }
+        return lines;
+    }
+
+    /**
+     * Returns the module code of a modules file line.
+     *
+     * @param line the line to read
+     * @return the module code, or null if the line is not a complete module record
+     */
+    private static String codeOf(String line) {
+        List<String> moduleArgs = line.isEmpty() ? null : DeserialisationUtil.deserialiseMessage(line);
+        return moduleArgs != null && moduleArgs.size() == EXPECTED_MODULE_ARGS ? moduleArgs.get(0) : null;
+    }
 
-            // WRAP 2: Serialize the entire combination
-            prereqBlobBuilder.append(SerialisationUtil.serialiseMessage(comboBuilder.toString()));
+    /**
+     * Waits for a module fetch and returns its response, reporting a failed fetch as null.
+     *
+     * @param code the module code being fetched
+     * @param fetch the pending fetch
+     * @return the response, or null if the fetch failed
+     */
+    private static NusmodsResponse fetchedOrNull(String code, CompletableFuture<NusmodsResponse> fetch) {
+        try {
+            return fetch.join();
+        } catch (CompletionException e) {
+            System.err.println("Failed to fetch " + code + ": " + e.getCause());
+            return null;
         }
+    }
 
-        // Return the doubly-serialized blob
-        return prereqBlobBuilder.toString();
+    /**
+     * Writes one serialised module line in the modules.txt format.
+     *
+     * @param out the writer to write to
+     * @param code the module code
+     * @param name the module title
+     * @param mc the module credit
+     * @param preclude the preclusion text
+     * @param serialisedPrereqs the serialised prerequisites
+     * @throws IOException if the destination cannot be written
+     */
+    private static void writeModuleLine(SerialisationWriter out, String code, String name, String mc,
+                                        String preclude, String serialisedPrereqs) throws IOException {
+        String desc = "core";
+        out.writeMessage(code)
+                .writeMessage(name)
+                .writeMessage(mc)
+                .writeMessage(desc)
+                .writeMessage(preclude)
+                .writeMessage(serialisedPrereqs)
+                .endLine();
     }
 
     private static String generateMajorsTxt() {
@@ -0,0 +1,396 @@
+package modhero.common.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+
+/**
+ * A small pull tokenizer that reads a JSON document once, front to back.
+ * <p>
+ * Values are consumed in document order with {@link #peek()} and the {@code next*}
+ * methods; values the caller does not need are passed over with {@link #skipValue()}
+ * without building strings. Input is read through a fixed buffer, so documents of any
+ * size can be streamed from a {@link Reader}. Reading stops at the end of the first
+ * top-level value, so trailing content is ignored.
+ * </p>
+ */
+public class JsonReader implements Closeable {
+
+    /** The kinds of token that {@link #peek()} can report. */
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // What the enclosing scope expects next
+    private static final int SCOPE_DOCUMENT = 0;
+    private static final int SCOPE_OBJECT_NAME = 1;
+    private static final int SCOPE_OBJECT_VALUE = 2;
+    private static final int SCOPE_ARRAY = 3;
+    private static final int SCOPE_DONE = 4;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int pos = 0;
+    private int limit = 0;
+
+    private int[] scopes = new int[16];
+    private int depth = 1;
+    private Token peeked = null;
+
+    private final StringBuilder scratch = new StringBuilder();
+
+    /**
+     * Creates a reader over a character stream.
+     *
+     * @param in the JSON input
+     */
+    public JsonReader(Reader in) {
+        this.in = in;
+        scopes[0] = SCOPE_DOCUMENT;
+    }
+
+    /**
+     * Creates a reader over a JSON string.
+     *
+     * @param json the JSON input
+     */
+    public JsonReader(String json) {
+        this(new StringReader(json));
+    }
+
+    /**
+     * Returns the kind of the next token without consuming it.
+     *
+     * @return the next token
+     * @throws IOException if the input cannot be read or is not valid JSON
+     */
+    public Token peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+        int scope = scopes[depth - 1];
+        if (scope == SCOPE_DONE) {
+            return peeked = Token.END_DOCUMENT;
+        }
+
+        int c = nextNonSeparator();
+        if (c == -1) {
+            if (scope == SCOPE_DOCUMENT) {
+                return peeked = Token.END_DOCUMENT;
+            }
+            throw syntaxError("Unexpected end of input");
+        }
+        switch (c) {
+        case '{':
+            return peeked = Token.BEGIN_OBJECT;
+        case '[':
+            return peeked = Token.BEGIN_ARRAY;
+        case '}':
+            return peeked = Token.END_OBJECT;
+        case ']':
+            return peeked = Token.END_ARRAY;
+        case '"':
+            return peeked = scope == SCOPE_OBJECT_NAME ? Token.NAME : Token.STRING;
+        case 't':
+        case 'f':
+            return peeked = Token.BOOLEAN;
+        case 'n':
+            return peeked = Token.NULL;
+        default:
+            if (c == '-' || (c >= '0' && c <= '9')) {
+                return peeked = Token.NUMBER;
+            }
+            throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    /**
+     * Checks whether the current object or array has another element.
+     *
+     * @return true if the next token is not the end of the enclosing object or array
+     * @throws IOException if the input cannot be read or is not valid JSON
+     */
+    public boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    public void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        push(SCOPE_OBJECT_NAME);
+    }
+
+    public void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        depth--;
+        afterValue();
+    }
+
+    public void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        push(SCOPE_ARRAY);
+    }
+
+    public void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        depth--;
+        afterValue();
+    }
+
+    /**
+     * Consumes the next property name.
+     *
+     * @return the property name
+     * @throws IOException if the next token is not a name
+     */
+    public String nextName() throws IOException {
+        expect(Token.NAME);
+        String name = readString();
+        scopes[depth - 1] = SCOPE_OBJECT_VALUE;
+        return name;
+    }
+
+    /**
+     * Consumes the next string, number or boolean and returns its text.
+     *
+     * @return the value as a string
+     * @throws IOException if the next token is not a scalar value
+     */
+    public String nextString() throws IOException {
+        Token token = peek();
+        String value;
+        if (token == Token.STRING) {
+            peeked = null;
+            value = readString();
+        } else if (token == Token.NUMBER || token == Token.BOOLEAN) {
+            peeked = null;
+            value = readLiteral();
+        } else {
+            throw syntaxError("Expected a string but was " + token);
+        }
+        afterValue();
+        return value;
+    }
+
+    /**
+     * Consumes a {@code null} literal.
+     *
+     * @throws IOException if the next token is not null
+     */
+    public void nextNull() throws IOException {
+        expect(Token.NULL);
+        readLiteral();
+        afterValue();
+    }
+
+    /**
+     * Consumes the next value, including any nested objects and arrays, without building it.
+     *
+     * @throws IOException if the input cannot be read or is not valid JSON
+     */
+    public void skipValue() throws IOException {
+        int nesting = 0;
+        do {
+            Token token = peek();
+            peeked = null;
+            switch (token) {
+            case BEGIN_OBJECT:
+                push(SCOPE_OBJECT_NAME);
+                nesting++;
+                break;
+            case BEGIN_ARRAY:
+                push(SCOPE_ARRAY);
+                nesting++;
+                break;
+            case END_OBJECT:
+            case END_ARRAY:
+                depth--;
+                nesting--;
+                afterValue();
+                break;
+            case NAME:
+                skipString();
+                scopes[depth - 1] = SCOPE_OBJECT_VALUE;
+                break;
+            case STRING:
+                skipString();
+                afterValue();
+                break;
+            case END_DOCUMENT:
+                throw syntaxError("Unexpected end of document");
+            default:
+                skipLiteral();
+                afterValue();
+                break;
+            }
+        } while (nesting > 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void expect(Token expected) throws IOException {
+        Token token = peek();
+        if (token != expected) {
+            throw syntaxError("Expected " + expected + " but was " + token);
+        }
+        peeked = null;
+    }
+
+    private void push(int scope) {
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        }
+        scopes[depth++] = scope;
+    }
+
+    /**
+     * Updates the enclosing scope once a complete value has been consumed.
+     */
+    private void afterValue() {
+        int scope = scopes[depth - 1];
+        if (scope == SCOPE_OBJECT_VALUE) {
+            scopes[depth - 1] = SCOPE_OBJECT_NAME;
+        } else if (scope == SCOPE_DOCUMENT) {
+            scopes[depth - 1] = SCOPE_DONE;
+        }
+    }
+
+    /**
+     * Skips whitespace, commas and colons and returns the next character, consuming it
+     * only if it is one of the single-character tokens or the opening quote.
+     */
+    private int nextNonSeparator() throws IOException {
+        while (pos < limit || fill()) {
+            char c = buffer[pos];
+            if (c == ',' || c == ':' || Character.isWhitespace(c)) {
+                pos++;
+                continue;
+            }
+            if (c == '{' || c == '[' || c == '}' || c == ']' || c == '"') {
+                pos++;
+            }
+            return c;
+        }
+        return -1;
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        pos = 0;
+        limit = read;
+        return true;
+    }
+
+    private int read() throws IOException {
+        if (pos < limit || fill()) {
+            return buffer[pos++];
+        }
+        return -1;
+    }
+
+    /** Reads the rest of a string whose opening quote has been consumed. */
+    private String readString() throws IOException {
+        scratch.setLength(0);
+        while (true) {
+            int start = pos;
+            while (pos < limit) {
+                char c = buffer[pos];
+                if (c == '"' || c == '\\') {
+                    break;
+                }
+                pos++;
+            }
+            scratch.append(buffer, start, pos - start);
+            int c = read();
+            if (c == '"') {
+                return scratch.toString();
+            } else if (c == '\\') {
+                scratch.append(readEscape());
+            } else if (c == -1) {
+                throw syntaxError("Unterminated string");
+            } else {
+                scratch.append((char) c);
+            }
+        }
+    }
+
+    /** Skips the rest of a string whose opening quote has been consumed. */
+    private void skipString() throws IOException {
+        int c;
+        while ((c = read()) != '"') {
+            if (c == '\\') {
+                readEscape();
+            } else if (c == -1) {
+                throw syntaxError("Unterminated string");
+            }
+        }
+    }
+
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+        case 'n':
+            return '\n';
+        case 't':
+            return '\t';
+        case 'r':
+            return '\r';
+        case 'b':
+            return '\b';
+        case 'f':
+            return '\f';
+        case 'u':
+            int code = 0;
+            for (int i = 0; i < 4; i++) {
+                int digit = Character.digit(read(), 16);
+                if (digit == -1) {
+                    throw syntaxError("Invalid unicode escape");
+                }
+                code = code * 16 + digit;
+            }
+            return (char) code;
+        case -1:
+            throw syntaxError("Unterminated escape");
+        default:
+            return (char) c; // \" \\ \/
+        }
+    }
+
+    /** Reads a number, boolean or null literal. */
+    private String readLiteral() throws IOException {
+        scratch.setLength(0);
+        while (pos < limit || fill()) {
+            char c = buffer[pos];
+            if (isLiteralEnd(c)) {
+                break;
+            }
+            scratch.append(c);
+            pos++;
+        }
+        return scratch.toString();
+    }
+
+    private void skipLiteral() throws IOException {
+        while ((pos < limit || fill()) && !isLiteralEnd(buffer[pos])) {
+            pos++;
+        }
+    }
+
+    private static boolean isLiteralEnd(char c) {
+        return c == ',' || c == ':' || c == '}' || c == ']' || c == '"' || Character.isWhitespace(c);
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException(message + " in JSON document");
+    }
+}
@@ -1,9 +1,15 @@
 package modhero.common.util;
 
 import modhero.data.modules.Module;
+import modhero.data.modules.PreclusionIndex;
 import modhero.exceptions.ModulePreclusionConflictException;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Utility class for handling module preclusion logic.
@@ -11,11 +17,34 @@ import java.util.List;
  */
 public final class PreclusionUtil {
 
+    // An NUS module code: 2-4 letter prefix, 4 digits and an optional 1-2 letter suffix
+    private static final Pattern MODULE_CODE_PATTERN = Pattern.compile("\\b[A-Z]{2,4}\\d{4}[A-Z]{0,2}\\b");
+
     private PreclusionUtil() { }
 
+    /**
+     * Extracts the module codes named in a free-text preclusion string.
+     * Only whole codes are matched, so {@code CS1010} does not match {@code CS1010E}.
+     *
+     * @param preclusions the preclusion string, may be null
+     * @return a read-only set of upper-cased module codes
+     */
+    public static Set<String> parsePreclusionCodes(String preclusions) {
+        if (preclusions == null || preclusions.isBlank()) {
+            return Collections.emptySet();
+        }
+
+        Set<String> codes = new HashSet<>();
+        Matcher matcher = MODULE_CODE_PATTERN.matcher(preclusions.toUpperCase());
+        while (matcher.find()) {
+            codes.add(matcher.group());
+        }
+        return Collections.unmodifiableSet(codes);
+    }
+
     /**
      * Validates that a module to be added does not have any preclusion conflicts
-     * with modules already in the timetable.
+     * with modules already in the timetable, in either direction.
      *
      * @param moduleToAdd        The new module to be added.
      * @param allExistingModules A list of all modules currently in the timetable.
@@ -23,19 +52,38 @@ public final class PreclusionUtil {
      */
     public static void validatePreclusions(Module moduleToAdd, List<Module> allExistingModules)
             throws ModulePreclusionConflictException {
-        String newModuleCode = moduleToAdd.getCode();
-        String newModulePreclusions = moduleToAdd.getPreclude();
-
-        if (newModulePreclusions == null || newModulePreclusions.isBlank()) {
-            return;
-        }
+        String newModuleCode = moduleToAdd.getCode().toUpperCase();
+        Set<String> newModulePreclusions = moduleToAdd.getPrecludedCodes();
 
         for (Module existingModule : allExistingModules) {
             String existingCode = existingModule.getCode();
+            if (newModulePreclusions.contains(existingCode.toUpperCase())
+                    || existingModule.getPrecludedCodes().contains(newModuleCode)) {
+                throw new ModulePreclusionConflictException(moduleToAdd.getCode(), existingCode);
+            }
+        }
+    }
+
+    /**
+     * Validates that a module to be added does not conflict with the given module codes,
+     * by intersecting its entry in the preclusion index with the codes.
+     *
+     * @param moduleToAdd   The new module to be added.
+     * @param index         The symmetric preclusion index; the module is registered in it first.
+     * @param existingCodes The upper-cased codes of all modules currently in the timetable.
+     * @throws ModulePreclusionConflictException if a preclusion conflict is found.
+     */
+    public static void validatePreclusions(Module moduleToAdd, PreclusionIndex index, Set<String> existingCodes)
+            throws ModulePreclusionConflictException {
+        index.register(moduleToAdd);
+        Set<String> conflicts = index.getConflicts(moduleToAdd.getCode());
 
-            // Just check if the preclusion string of the new module mentions the existing one
-            if (newModulePreclusions.toUpperCase().contains(existingCode.toUpperCase())) {
-                throw new ModulePreclusionConflictException(newModuleCode, existingCode);
+        // Probe the smaller of the two sets against the larger one
+        Set<String> smaller = conflicts.size() <= existingCodes.size() ? conflicts : existingCodes;
+        Set<String> larger = smaller == conflicts ? existingCodes : conflicts;
+        for (String code : smaller) {
+            if (larger.contains(code)) {
+                throw new ModulePreclusionConflictException(moduleToAdd.getCode(), code);
             }
         }
     }
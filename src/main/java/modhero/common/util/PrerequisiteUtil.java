@@ -1,5 +1,6 @@
 package modhero.common.util;
 
+import modhero.data.modules.ModuleIdSet;
 import modhero.data.modules.Prerequisites;
 import modhero.exceptions.ModuleAdditionBlockedException;
 import modhero.exceptions.ModuleDeletionBlockedException;
@@ -11,28 +12,21 @@ public final class PrerequisiteUtil {
 
     private PrerequisiteUtil() {} // prevent instantiation
 
-    private static boolean isPrerequisiteSatisfied(String prereqCode, List<String> completedCodes, List<String> exemptedModules) {
-        if (prereqCode.endsWith("%") && prereqCode.length() > 1) {
-            String prefix = prereqCode.substring(0, prereqCode.length() - 1);
-            return completedCodes.stream().anyMatch(c -> c.startsWith(prefix));
-        }
-        return (completedCodes.contains(prereqCode) || exemptedModules.contains(prereqCode));
-    }
-
     public static boolean arePrerequisitesMet(List<List<String>> prereqSets, List<String> completedCodes, List <String> exemptedModules) {
         if (prereqSets == null || prereqSets.isEmpty()) return true;
-        return prereqSets.stream().anyMatch(
-                option -> option.stream().allMatch(code -> isPrerequisiteSatisfied(code, completedCodes, exemptedModules))
-        );
+        return new Prerequisites(prereqSets).isSatisfiedBy(ModuleIdSet.of(completedCodes), ModuleIdSet.of(exemptedModules));
     }
 
     public static void validatePrerequisites(String moduleCode, Prerequisites prereqs, List<String> completedCodes, List<String> exemptedModules)
             throws ModuleAdditionBlockedException{
-        if (prereqs == null || prereqs.getPrereq() == null || prereqs.getPrereq().isEmpty()) return;
+        validatePrerequisites(moduleCode, prereqs, ModuleIdSet.of(completedCodes), ModuleIdSet.of(exemptedModules));
+    }
 
-        boolean satisfied = arePrerequisitesMet(prereqs.getPrereq(), completedCodes, exemptedModules);
+    public static void validatePrerequisites(String moduleCode, Prerequisites prereqs, ModuleIdSet completed, ModuleIdSet exempted)
+            throws ModuleAdditionBlockedException {
+        if (prereqs == null || prereqs.isEmpty()) return;
 
-        if (!satisfied) {
+        if (!prereqs.isSatisfiedBy(completed, exempted)) {
             throw new ModuleAdditionBlockedException(moduleCode, prereqs.toString());
         }
     }
@@ -40,13 +34,20 @@ public final class PrerequisiteUtil {
     public static void validateFutureDependencies(String moduleCodeToDelete, List<Module> futureModules,
                                                   List<String> completedCodes, List<String> exemptedModules)
             throws ModuleDeletionBlockedException {
+        validateFutureDependencies(moduleCodeToDelete, futureModules,
+                ModuleIdSet.of(completedCodes), ModuleIdSet.of(exemptedModules));
+    }
+
+    public static void validateFutureDependencies(String moduleCodeToDelete, List<Module> futureModules,
+                                                  ModuleIdSet completed, ModuleIdSet exempted)
+            throws ModuleDeletionBlockedException {
         for (Module futureModule : futureModules) {
             try {
                 PrerequisiteUtil.validatePrerequisites(
                         futureModule.getCode(),
                         futureModule.getPrerequisites(),
-                        completedCodes,
-                        exemptedModules
+                        completed,
+                        exempted
                 );
             } catch (ModuleAdditionBlockedException e) {
                 throw new ModuleDeletionBlockedException(moduleCodeToDelete, futureModule.getCode());
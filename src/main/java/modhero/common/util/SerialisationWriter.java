@@ -0,0 +1,188 @@
+package modhero.common.util;
+
+import modhero.common.Constants.FormatConstants;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Writes length-prefixed serialised data straight to an {@link Appendable}.
+ * <p>
+ * Produces the same format as {@link SerialisationUtil} without building a String per field.
+ * A nested message is written by giving its content length up front to
+ * {@link #beginMessage(int)}, then writing the content through this writer, which is itself
+ * an {@link Appendable}, and closing it with {@link #endMessage()}. Content lengths can be
+ * computed with {@link #messageLength(int)} instead of building the content first.
+ * </p>
+ */
+public class SerialisationWriter implements Appendable, Flushable {
+    private final Appendable out;
+    private final Deque<Long> openMessageEnds = new ArrayDeque<>();
+    private long charsWritten = 0;
+
+    /**
+     * Creates a writer appending to the given destination.
+     *
+     * @param out the destination, such as a StringBuilder or Writer
+     */
+    public SerialisationWriter(Appendable out) {
+        assert out != null : "SerialisationWriter out must not be null";
+        this.out = out;
+    }
+
+    /**
+     * Creates a writer encoding to UTF-8 on the given stream.
+     * Call {@link #flush()} once done.
+     *
+     * @param out the destination stream
+     */
+    public SerialisationWriter(OutputStream out) {
+        this(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Returns the serialised length of a message with content of the given length.
+     *
+     * @param contentLength the number of chars in the content
+     * @return the number of chars the serialised message takes
+     */
+    public static int messageLength(int contentLength) {
+        return digitCount(contentLength) + FormatConstants.START_DELIMITER.length() + contentLength
+                + FormatConstants.END_DELIMITER.length();
+    }
+
+    /**
+     * Returns the number of decimal digits of a non-negative number.
+     *
+     * @param value the number
+     * @return the number of digits
+     */
+    public static int digitCount(long value) {
+        assert value >= 0 : "digitCount value must not be negative";
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * Writes one message.
+     *
+     * @param message the content
+     * @return this writer
+     * @throws IOException if the destination cannot be written
+     */
+    public SerialisationWriter writeMessage(CharSequence message) throws IOException {
+        assert message != null : "writeMessage message must not be null";
+        beginMessage(message.length());
+        append(message);
+        return endMessage();
+    }
+
+    /**
+     * Writes one message holding a number, without converting it to a String unless it is negative.
+     *
+     * @param value the number
+     * @return this writer
+     * @throws IOException if the destination cannot be written
+     */
+    public SerialisationWriter writeMessage(long value) throws IOException {
+        if (value < 0) {
+            return writeMessage(Long.toString(value));
+        }
+        beginMessage(digitCount(value));
+        appendNumber(value);
+        return endMessage();
+    }
+
+    /**
+     * Writes the header of a message whose content is written next.
+     *
+     * @param contentLength the exact number of chars that will be written before {@link #endMessage()}
+     * @return this writer
+     * @throws IOException if the destination cannot be written
+     */
+    public SerialisationWriter beginMessage(int contentLength) throws IOException {
+        assert contentLength >= 0 : "beginMessage contentLength must not be negative";
+        appendNumber(contentLength);
+        append(FormatConstants.START_DELIMITER);
+        openMessageEnds.push(charsWritten + contentLength);
+        return this;
+    }
+
+    /**
+     * Closes the innermost message started with {@link #beginMessage(int)}.
+     *
+     * @return this writer
+     * @throws IOException if the destination cannot be written
+     */
+    public SerialisationWriter endMessage() throws IOException {
+        assert !openMessageEnds.isEmpty() : "endMessage called without beginMessage";
+        long expectedEnd = openMessageEnds.pop();
+        if (expectedEnd != charsWritten) {
+            throw new IllegalStateException("Message content length mismatch: expected "
+                    + expectedEnd + " chars written but was " + charsWritten);
+        }
+        append(FormatConstants.END_DELIMITER);
+        return this;
+    }
+
+    /**
+     * Ends a record line.
+     *
+     * @return this writer
+     * @throws IOException if the destination cannot be written
+     */
+    public SerialisationWriter endLine() throws IOException {
+        assert openMessageEnds.isEmpty() : "endLine called inside a message";
+        append(System.lineSeparator());
+        return this;
+    }
+
+    @Override
+    public SerialisationWriter append(CharSequence csq) throws IOException {
+        out.append(csq);
+        charsWritten += csq.length();
+        return this;
+    }
+
+    @Override
+    public SerialisationWriter append(CharSequence csq, int start, int end) throws IOException {
+        out.append(csq, start, end);
+        charsWritten += end - start;
+        return this;
+    }
+
+    @Override
+    public SerialisationWriter append(char c) throws IOException {
+        out.append(c);
+        charsWritten++;
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (out instanceof Flushable) {
+            ((Flushable) out).flush();
+        }
+    }
+
+    private void appendNumber(long value) throws IOException {
+        long divisor = 1;
+        int digits = digitCount(value);
+        for (int i = 1; i < digits; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            append((char) ('0' + (value / divisor) % 10));
+        }
+    }
+}
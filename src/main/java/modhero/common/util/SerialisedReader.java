@@ -0,0 +1,236 @@
+package modhero.common.util;
+
+import modhero.common.Constants.FormatConstants;
+import modhero.exceptions.CorruptedDataFileException;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A cursor over length-prefixed serialised data that parses fields in place.
+ * <p>
+ * Reads the format written by {@link SerialisationUtil}, one field per {@link #next()} call,
+ * over either a {@link CharSequence} or a UTF-8 {@link ByteBuffer}. Only the offsets of the
+ * current field are recorded; a String is created only when {@link #fieldAsString()} is called,
+ * and {@link #nested()} reads a field's own fields without copying it. Lengths are counted in
+ * UTF-16 chars in both cases, as they are written.
+ * </p>
+ */
+public final class SerialisedReader {
+    private static final Logger logger = Logger.getLogger(SerialisedReader.class.getName());
+    private static final char START_DELIMITER = FormatConstants.START_DELIMITER.charAt(0);
+    private static final int END_DELIMITER_LENGTH = FormatConstants.END_DELIMITER.length();
+
+    private final CharSequence chars;
+    private final ByteBuffer bytes;
+    private final int end;
+    private int position;
+    private int fieldStart = -1;
+    private int fieldEnd = -1;
+
+    private SerialisedReader(CharSequence chars, ByteBuffer bytes, int start, int end) {
+        this.chars = chars;
+        this.bytes = bytes;
+        this.position = start;
+        this.end = end;
+    }
+
+    /**
+     * Creates a reader over serialised characters.
+     *
+     * @param serialised the serialised data
+     * @return a reader positioned before the first field
+     */
+    public static SerialisedReader of(CharSequence serialised) {
+        assert serialised != null : "SerialisedReader serialised must not be null";
+        return new SerialisedReader(serialised, null, 0, serialised.length());
+    }
+
+    /**
+     * Creates a reader over UTF-8 encoded serialised data, from the buffer's position to its limit.
+     * The buffer's position is left unchanged.
+     *
+     * @param serialised the UTF-8 encoded serialised data
+     * @return a reader positioned before the first field
+     */
+    public static SerialisedReader of(ByteBuffer serialised) {
+        assert serialised != null : "SerialisedReader serialised must not be null";
+        return new SerialisedReader(null, serialised, serialised.position(), serialised.limit());
+    }
+
+    /**
+     * Reads every field as a String, as {@link DeserialisationUtil#deserialiseMessage(String)} does.
+     *
+     * @param serialised the serialised data
+     * @return the fields, or null if the data is corrupted
+     */
+    public static List<String> readAll(CharSequence serialised) {
+        SerialisedReader reader = of(serialised);
+        List<String> fields = new ArrayList<>();
+        try {
+            while (reader.hasNext()) {
+                reader.next();
+                fields.add(reader.fieldAsString());
+            }
+        } catch (CorruptedDataFileException e) {
+            logger.log(Level.WARNING, e.getMessage());
+            return null;
+        }
+        return fields;
+    }
+
+    /** @return true if there is another field to read */
+    public boolean hasNext() {
+        return position < end;
+    }
+
+    /**
+     * Moves to the next field.
+     *
+     * @throws CorruptedDataFileException if the length header is missing or invalid, or the field is truncated
+     */
+    public void next() throws CorruptedDataFileException {
+        if (!hasNext()) {
+            throw new CorruptedDataFileException("No more serialised fields");
+        }
+        int length = 0;
+        int index = position;
+        while (index < end && charAt(index) != START_DELIMITER) {
+            char digit = charAt(index);
+            if (digit < '0' || digit > '9' || length > (Integer.MAX_VALUE - 9) / 10) {
+                throw new CorruptedDataFileException("Invalid argument length at offset " + position);
+            }
+            length = length * 10 + (digit - '0');
+            index++;
+        }
+        if (index >= end) {
+            throw new CorruptedDataFileException("Delimiter missing at offset " + position);
+        }
+        if (index == position) {
+            throw new CorruptedDataFileException("Invalid argument length at offset " + position);
+        }
+
+        fieldStart = index + 1;
+        fieldEnd = advance(fieldStart, length);
+        position = fieldEnd + END_DELIMITER_LENGTH;
+    }
+
+    /** @return the offset of the current field in the source, in chars or bytes */
+    public int fieldStart() {
+        return fieldStart;
+    }
+
+    /** @return the offset just after the current field in the source, in chars or bytes */
+    public int fieldEnd() {
+        return fieldEnd;
+    }
+
+    /** @return true if the current field is empty */
+    public boolean isFieldEmpty() {
+        return fieldStart == fieldEnd;
+    }
+
+    /**
+     * Returns the current field without copying it when reading characters.
+     * Fields read from bytes are decoded.
+     *
+     * @return the current field
+     */
+    public CharSequence field() {
+        assert fieldStart >= 0 : "field called before next";
+        if (chars != null) {
+            return CharBuffer.wrap(chars, fieldStart, fieldEnd);
+        }
+        return fieldAsString();
+    }
+
+    /** @return the current field as a new String */
+    public String fieldAsString() {
+        assert fieldStart >= 0 : "fieldAsString called before next";
+        if (chars != null) {
+            return chars.subSequence(fieldStart, fieldEnd).toString();
+        }
+        byte[] encoded = new byte[fieldEnd - fieldStart];
+        bytes.get(fieldStart, encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses the current field as a non-negative integer without creating a String.
+     *
+     * @return the parsed integer
+     * @throws CorruptedDataFileException if the field is empty or not a number
+     */
+    public int fieldAsInt() throws CorruptedDataFileException {
+        assert fieldStart >= 0 : "fieldAsInt called before next";
+        if (isFieldEmpty()) {
+            throw new CorruptedDataFileException("Empty integer field at offset " + fieldStart);
+        }
+        int value = 0;
+        for (int i = fieldStart; i < fieldEnd; i++) {
+            char digit = charAt(i);
+            if (digit < '0' || digit > '9' || value > (Integer.MAX_VALUE - 9) / 10) {
+                throw new CorruptedDataFileException("Invalid integer field at offset " + fieldStart);
+            }
+            value = value * 10 + (digit - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Returns a reader over the fields serialised inside the current field, sharing the same source.
+     *
+     * @return a reader positioned before the first nested field
+     */
+    public SerialisedReader nested() {
+        assert fieldStart >= 0 : "nested called before next";
+        return new SerialisedReader(chars, bytes, fieldStart, fieldEnd);
+    }
+
+    private char charAt(int index) {
+        return chars != null ? chars.charAt(index) : (char) (bytes.get(index) & 0xFF);
+    }
+
+    /**
+     * Returns the offset reached after skipping a number of UTF-16 chars from the given offset.
+     */
+    private int advance(int from, int charCount) throws CorruptedDataFileException {
+        if (chars != null) {
+            if (charCount > end - from) {
+                throw new CorruptedDataFileException("Argument length exceeds message size at offset " + from);
+            }
+            return from + charCount;
+        }
+        int index = from;
+        int remaining = charCount;
+        while (remaining > 0) {
+            if (index >= end) {
+                throw new CorruptedDataFileException("Argument length exceeds message size at offset " + from);
+            }
+            int lead = bytes.get(index) & 0xFF;
+            if (lead < 0x80) {
+                index += 1;
+                remaining -= 1;
+            } else if (lead < 0xE0) {
+                index += 2;
+                remaining -= 1;
+            } else if (lead < 0xF0) {
+                index += 3;
+                remaining -= 1;
+            } else {
+                // Supplementary characters take two UTF-16 chars
+                index += 4;
+                remaining -= 2;
+            }
+        }
+        if (remaining < 0 || index > end) {
+            throw new CorruptedDataFileException("Argument length splits a character at offset " + from);
+        }
+        return index;
+    }
+}
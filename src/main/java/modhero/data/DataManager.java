@@ -1,10 +1,18 @@
 package modhero.data;
 
+import modhero.common.Constants.AutoSaveConstants;
+import modhero.common.Constants.FilePathConstants;
+import modhero.common.Constants.HistoryConstants;
 import modhero.exceptions.CorruptedDataFileException;
 import modhero.data.major.Major;
 import modhero.data.modules.Module;
+import modhero.data.modules.PreclusionIndex;
+import modhero.storage.AutoSaveService;
 import modhero.storage.MajorStorage;
+import modhero.storage.ModuleCatalogView;
 import modhero.storage.ModuleStorage;
+import modhero.data.timetable.PlanBranches;
+import modhero.data.timetable.PlanHistory;
 import modhero.data.timetable.Timetable;
 import modhero.storage.SaveStorage;
 
@@ -22,9 +30,13 @@ public class DataManager {
     private static final Logger logger = Logger.getLogger(DataManager.class.getName());
 
     private final Timetable timetable;
-    private final Map<String, Module> allModulesData;
+    private final ModuleCatalogView allModulesData;
     private final Map<String, Major> allMajorsData;
     private final List<String> exemptedModules;
+    private final PreclusionIndex preclusionIndex;
+    private final SaveStorage saveStorage;
+    private final AutoSaveService autoSaveService;
+    private final PlanBranches planBranches;
 
     /**
      * Creates a new DataManager with specified storage paths.
@@ -34,25 +46,34 @@ public class DataManager {
      */
     public DataManager(String modulesPath, String majorPath, String timetablePath) {
         this.timetable = new Timetable();
-        this.allModulesData = new HashMap<>();
+        this.allModulesData = new ModuleCatalogView();
         this.allMajorsData = new HashMap<>();
         this.exemptedModules = new ArrayList<>();
-        initializeData(modulesPath, majorPath, timetablePath);
+        this.preclusionIndex = new PreclusionIndex();
+        this.timetable.setPreclusionIndex(preclusionIndex);
+        this.saveStorage = new SaveStorage(timetablePath);
+        initializeData(modulesPath, majorPath);
+        this.autoSaveService = new AutoSaveService(saveStorage, AutoSaveConstants.QUIET_PERIOD_MILLIS,
+                AutoSaveConstants.JOURNAL_COMPACTION_THRESHOLD_CHARS);
+        this.planBranches = new PlanBranches(HistoryConstants.MAIN_BRANCH_NAME, HistoryConstants.MAX_UNDO_STEPS,
+                HistoryConstants.MAX_CACHED_TERM_RESULTS);
+        planBranches.reset(timetable, exemptedModules);
     }
 
     /**
      * Loads all data from storage files.
      */
-    private void initializeData(String modulesPath, String majorPath, String timetablePath) {
+    private void initializeData(String modulesPath, String majorPath) {
         try {
-            ModuleStorage moduleStorage = new ModuleStorage(modulesPath);
+            ModuleStorage moduleStorage = new ModuleStorage(modulesPath, FilePathConstants.MODULES_CATALOG_FILE_PATH);
             MajorStorage majorStorage = new MajorStorage(majorPath);
             moduleStorage.load(allModulesData);
             majorStorage.load(allModulesData, allMajorsData);
+            allModulesData.setPreclusionIndex(preclusionIndex);
             logger.log(Level.INFO, "Data loaded successfully");
-            SaveStorage saveStorage = new SaveStorage(timetablePath);
             saveStorage.setLoadData(allModulesData, exemptedModules);
             saveStorage.load(timetable);
+            reportLoadViolations(saveStorage.getLoadViolations());
         } catch (CorruptedDataFileException e) {
             timetable.clearTimetable();
             exemptedModules.clear();
@@ -61,6 +82,19 @@ public class DataManager {
         }
     }
 
+    /**
+     * Tells the user about problems in the saved timetable, which is otherwise loaded as saved.
+     */
+    private void reportLoadViolations(List<String> violations) {
+        if (violations.isEmpty()) {
+            return;
+        }
+        System.out.println("Your saved timetable was loaded with " + violations.size() + " issue(s):");
+        for (String violation : violations) {
+            System.out.println("  - " + violation);
+        }
+    }
+
     // Getters
     public Timetable getTimetable() {
         return timetable;
@@ -74,7 +108,24 @@ public class DataManager {
         return allMajorsData;
     }
 
+    public PreclusionIndex getPreclusionIndex() {
+        return preclusionIndex;
+    }
+
     public List<String> getExemptedModules() {
         return exemptedModules;
     }
+
+    public AutoSaveService getAutoSaveService() {
+        return autoSaveService;
+    }
+
+    public PlanBranches getPlanBranches() {
+        return planBranches;
+    }
+
+    /** @return the history of the current branch */
+    public PlanHistory getPlanHistory() {
+        return planBranches.getHistory();
+    }
 }
@@ -1,8 +1,12 @@
 package modhero.data.modules;
 
-import modhero.common.util.SerialisationUtil;
+import modhero.common.util.PreclusionUtil;
+import modhero.common.util.SerialisationWriter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -17,7 +21,8 @@ public class Module {
     private String name;    // e.g. Software Engineering
     private int mc;         // e.g. modular credits
     private String type;    // e.g. core, elective, etc.
-    private String preclude;    // e.g. core, elective, etc.
+    private String preclude;    // e.g. CS1010 or its equivalent
+    private Set<String> precludedCodes; // e.g. [CS1010, CS1010E], parsed from preclude
     private Prerequisites prerequisites; // e.g. ["CS1010", "CS1231"]
 
     /**
@@ -42,26 +47,14 @@ public class Module {
         this.mc = mc;
         this.type = type;
         this.preclude = preclude;
+        this.precludedCodes = PreclusionUtil.parsePreclusionCodes(preclude);
         this.prerequisites = prerequisites;
 
         logger.log(Level.FINEST, "Module created: " + name + " (" + code + ")");
     }
 
     public Module(String code, String name, int mc, String type, Prerequisites prerequisites) {
-        assert code != null && !code.isEmpty() : "Module code must not be empty";
-        assert name != null && !name.isEmpty() : "Module name must not be empty";
-        assert type != null && !type.isEmpty() : "Module type must not be empty";
-        assert preclude != null : "Module preclusion must not be empty";
-        assert prerequisites != null : "Prerequisites list must not be null";
-
-        this.code = code;
-        this.name = name;
-        this.mc = mc;
-        this.type = type;
-        this.preclude = "";
-        this.prerequisites = prerequisites;
-
-        logger.log(Level.FINEST, "Module created: " + name + " (" + code + ")");
+        this(code, name, mc, type, "", prerequisites);
     }
 
     /** @return the module code */
@@ -89,6 +82,11 @@ public class Module {
         return preclude;
     }
 
+    /** @return the upper-cased module codes named in the preclusion string */
+    public Set<String> getPrecludedCodes() {
+        return precludedCodes;
+    }
+
     /** @return the list of prerequisite module codes */
     public Prerequisites getPrerequisites() {
         return prerequisites;
@@ -100,17 +98,45 @@ public class Module {
      * @return the serialized module string
      */
     public String toFormatedString() {
+        StringBuilder builder = new StringBuilder(formattedLength());
+        try {
+            writeFormatted(new SerialisationWriter(builder));
+        } catch (IOException e) {
+            throw new UncheckedIOException("StringBuilder does not throw", e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes the storage representation of the module, as returned by {@link #toFormatedString()},
+     * field by field without building intermediate strings.
+     *
+     * @param writer the writer to write the fields to
+     * @throws IOException if the writer's destination cannot be written
+     */
+    public void writeFormatted(SerialisationWriter writer) throws IOException {
         logger.log(Level.FINEST, "Serialising module: " + code);
 
-        String formattedString = SerialisationUtil.serialiseMessage(code)
-                + SerialisationUtil.serialiseMessage(name)
-                + SerialisationUtil.serialiseMessage(Integer.toString(mc))
-                + SerialisationUtil.serialiseMessage(type)
-                + SerialisationUtil.serialiseMessage(preclude)
-                + SerialisationUtil.serialiseMessage(prerequisites.toFormatedString());
+        writer.writeMessage(code)
+                .writeMessage(name)
+                .writeMessage(mc)
+                .writeMessage(type)
+                .writeMessage(preclude)
+                .beginMessage(prerequisites.formattedLength());
+        prerequisites.writeFormatted(writer);
+        writer.endMessage();
 
         logger.log(Level.FINEST, "Successful serialising module: " + code);
-        return formattedString;
+    }
+
+    /** @return the number of chars {@link #toFormatedString()} returns, computed without building it */
+    public int formattedLength() {
+        return SerialisationWriter.messageLength(code.length())
+                + SerialisationWriter.messageLength(name.length())
+                + SerialisationWriter.messageLength(Integer.toString(mc).length())
+                + SerialisationWriter.messageLength(type.length())
+                + SerialisationWriter.messageLength(preclude.length())
+                + SerialisationWriter.messageLength(prerequisites.formattedLength());
     }
 
     @Override
@@ -124,4 +150,9 @@ public class Module {
         Module module = (Module) obj;
         return code.equals(module.code);
     }
+
+    @Override
+    public int hashCode() {
+        return code.hashCode();
+    }
 }
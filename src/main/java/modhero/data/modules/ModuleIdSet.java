@@ -0,0 +1,187 @@
+package modhero.data.modules;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A growable bitset of module IDs from {@link ModuleSymbolTable}.
+ * <p>
+ * Checking whether a prerequisite option is satisfied reduces to a word-wise
+ * AND and compare between the option mask and this set.
+ * </p>
+ */
+public class ModuleIdSet {
+    private static final int WORD_BITS = 64;
+
+    private long[] words;
+
+    /**
+     * Creates an empty set sized for every module code interned so far.
+     */
+    public ModuleIdSet() {
+        this.words = new long[wordIndex(Math.max(ModuleSymbolTable.size(), 1) - 1) + 1];
+    }
+
+    private ModuleIdSet(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Creates a set holding the IDs of the given module codes.
+     *
+     * @param codes the module codes to add
+     * @return the populated set
+     */
+    public static ModuleIdSet of(Collection<String> codes) {
+        ModuleIdSet set = new ModuleIdSet();
+        for (String code : codes) {
+            set.add(code);
+        }
+        return set;
+    }
+
+    /**
+     * Adds a module code, interning it if needed.
+     *
+     * @param code the module code to add
+     */
+    public void add(String code) {
+        add(ModuleSymbolTable.intern(code));
+    }
+
+    /**
+     * Adds a module ID.
+     *
+     * @param id the module ID to add
+     */
+    public void add(int id) {
+        assert id >= 0 : "add id must not be negative";
+        int index = wordIndex(id);
+        ensureCapacity(index + 1);
+        words[index] |= 1L << id;
+    }
+
+    /**
+     * Removes a module ID.
+     *
+     * @param id the module ID to remove
+     */
+    public void remove(int id) {
+        int index = wordIndex(id);
+        if (id >= 0 && index < words.length) {
+            words[index] &= ~(1L << id);
+        }
+    }
+
+    /**
+     * Returns a copy of this set without the given module ID, leaving this set unchanged.
+     *
+     * @param id the module ID to leave out
+     * @return the new set
+     */
+    public ModuleIdSet without(int id) {
+        ModuleIdSet copy = new ModuleIdSet(Arrays.copyOf(words, words.length));
+        copy.remove(id);
+        return copy;
+    }
+
+    /**
+     * Removes every module ID.
+     */
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    /**
+     * Checks whether a module ID is in the set.
+     *
+     * @param id the module ID to check
+     * @return true if the ID is present
+     */
+    public boolean contains(int id) {
+        int index = wordIndex(id);
+        return id >= 0 && index < words.length && (words[index] & (1L << id)) != 0;
+    }
+
+    /**
+     * Checks whether a module code is in the set.
+     *
+     * @param code the module code to check
+     * @return true if the code is present
+     */
+    public boolean contains(String code) {
+        return contains(ModuleSymbolTable.idOf(code));
+    }
+
+    /**
+     * Checks whether every bit of the mask is present in this set or in {@code other}.
+     *
+     * @param mask the compiled mask of required module IDs
+     * @param other an additional set to treat as present, may be null
+     * @return true if the mask is fully covered
+     */
+    public boolean coversAll(long[] mask, ModuleIdSet other) {
+        for (int i = 0; i < mask.length; i++) {
+            long present = wordAt(i) | (other == null ? 0L : other.wordAt(i));
+            if ((mask[i] & present) != mask[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the next set bit at or after {@code fromId}.
+     *
+     * @param fromId the ID to start searching from
+     * @return the next present ID, or -1 if there is none
+     */
+    public int nextId(int fromId) {
+        int index = wordIndex(fromId);
+        if (index >= words.length) {
+            return -1;
+        }
+        long word = words[index] & (-1L << fromId);
+        while (true) {
+            if (word != 0) {
+                return index * WORD_BITS + Long.numberOfTrailingZeros(word);
+            }
+            if (++index == words.length) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    /**
+     * Builds a mask with the bits of the given IDs set.
+     *
+     * @param ids the module IDs to set
+     * @return the mask words
+     */
+    public static long[] maskOf(int[] ids) {
+        int maxId = 0;
+        for (int id : ids) {
+            maxId = Math.max(maxId, id);
+        }
+        long[] mask = new long[wordIndex(maxId) + 1];
+        for (int id : ids) {
+            mask[wordIndex(id)] |= 1L << id;
+        }
+        return mask;
+    }
+
+    private long wordAt(int index) {
+        return index < words.length ? words[index] : 0L;
+    }
+
+    private void ensureCapacity(int wordsRequired) {
+        if (words.length < wordsRequired) {
+            words = Arrays.copyOf(words, Math.max(wordsRequired, words.length * 2));
+        }
+    }
+
+    private static int wordIndex(int id) {
+        return id / WORD_BITS;
+    }
+}
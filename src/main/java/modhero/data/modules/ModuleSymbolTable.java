@@ -0,0 +1,77 @@
+package modhero.data.modules;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Interns module codes into dense integer IDs.
+ * <p>
+ * IDs are handed out in first-seen order, so registering the catalog first keeps
+ * every catalog module in the lowest IDs and the bitsets built over them small.
+ * Codes are normalised to upper case before interning.
+ * </p>
+ */
+public final class ModuleSymbolTable {
+    private static final Logger logger = Logger.getLogger(ModuleSymbolTable.class.getName());
+
+    private static final Map<String, Integer> codeToId = new HashMap<>();
+    private static final List<String> idToCode = new ArrayList<>();
+
+    private ModuleSymbolTable() {} // prevent instantiation
+
+    /**
+     * Returns the ID of the given module code, assigning a new one if the code is unseen.
+     *
+     * @param code the module code
+     * @return the dense integer ID of the code
+     */
+    public static synchronized int intern(String code) {
+        assert code != null && !code.isEmpty() : "intern code must not be empty";
+
+        String normalisedCode = code.toUpperCase();
+        Integer id = codeToId.get(normalisedCode);
+        if (id != null) {
+            return id;
+        }
+
+        int newId = idToCode.size();
+        codeToId.put(normalisedCode, newId);
+        idToCode.add(normalisedCode);
+        logger.log(Level.FINEST, () -> "Interned module code " + normalisedCode + " as " + newId);
+        return newId;
+    }
+
+    /**
+     * Returns the ID of the given module code without interning it.
+     *
+     * @param code the module code
+     * @return the ID of the code, or -1 if the code has never been interned
+     */
+    public static synchronized int idOf(String code) {
+        if (code == null) {
+            return -1;
+        }
+        Integer id = codeToId.get(code.toUpperCase());
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the module code interned under the given ID.
+     *
+     * @param id the module ID
+     * @return the normalised module code
+     */
+    public static synchronized String codeOf(int id) {
+        assert id >= 0 && id < idToCode.size() : "codeOf id out of bounds";
+        return idToCode.get(id);
+    }
+
+    /** @return the number of interned module codes */
+    public static synchronized int size() {
+        return idToCode.size();
+    }
+}
@@ -0,0 +1,71 @@
+package modhero.data.modules;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A symmetric index of preclusion conflicts between module codes.
+ * <p>
+ * NUSMods only lists a preclusion on one side for many module pairs, so every rule
+ * {@code A precludes B} is stored in both directions. All codes are upper case.
+ * </p>
+ */
+public class PreclusionIndex {
+    private static final Logger logger = Logger.getLogger(PreclusionIndex.class.getName());
+
+    private final Map<String, Set<String>> conflictsByCode = new HashMap<>();
+
+    /**
+     * Records the preclusion rules of a module. Registering a module again has no effect.
+     *
+     * @param module the module whose preclusions are recorded
+     */
+    public synchronized void register(Module module) {
+        register(module.getCode(), module.getPrecludedCodes());
+    }
+
+    /**
+     * Records the preclusion rules of a module without needing the module itself.
+     *
+     * @param moduleCode the module code, in any case
+     * @param precludedCodes the upper case codes the module precludes
+     */
+    public synchronized void register(String moduleCode, Set<String> precludedCodes) {
+        String code = moduleCode.toUpperCase();
+        for (String precludedCode : precludedCodes) {
+            if (precludedCode.equals(code)) {
+                continue;
+            }
+            conflictsByCode.computeIfAbsent(code, k -> new HashSet<>()).add(precludedCode);
+            conflictsByCode.computeIfAbsent(precludedCode, k -> new HashSet<>()).add(code);
+        }
+    }
+
+    /**
+     * Records the preclusion rules of every given module.
+     *
+     * @param modules the modules whose preclusions are recorded
+     */
+    public synchronized void registerAll(Collection<Module> modules) {
+        for (Module module : modules) {
+            register(module);
+        }
+        logger.log(Level.FINE, () -> String.format("Preclusion index holds %d codes", conflictsByCode.size()));
+    }
+
+    /**
+     * Returns the codes that cannot be taken together with the given code.
+     *
+     * @param moduleCode the module code, in any case
+     * @return a read-only set of conflicting codes, empty if there are none
+     */
+    public synchronized Set<String> getConflicts(String moduleCode) {
+        Set<String> conflicts = conflictsByCode.get(moduleCode.toUpperCase());
+        return conflicts == null ? Set.of() : Set.copyOf(conflicts);
+    }
+}
@@ -0,0 +1,507 @@
+package modhero.data.modules;
+
+import modhero.exceptions.ParsePrerequisitesException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A node of a prerequisite tree, mirroring the NUSMods {@code prereqTree} structure.
+ * <p>
+ * Nodes are immutable and hash-consed through the static factories, so identical
+ * subtrees are shared across every module in the catalog. The tree is evaluated
+ * directly with short-circuit logic instead of being expanded into every combination.
+ * </p>
+ * Persisted encoding: {@code and(CS2030,or(CS2040,CS2040S),MA1%)}.
+ */
+public abstract class PrereqNode {
+    private static final String WILDCARD = "%";
+    private static final Map<PrereqNode, PrereqNode> internedNodes = new HashMap<>();
+
+    /**
+     * Checks whether this node is satisfied.
+     *
+     * @param completed IDs of modules taken before the module in question
+     * @param exempted IDs of exempted modules
+     * @return true if the requirement represented by this node is met
+     */
+    public abstract boolean isSatisfiedBy(ModuleIdSet completed, ModuleIdSet exempted);
+
+    /**
+     * Expands this node into the equivalent list of options, each a list of codes
+     * that must all be taken. The result can grow exponentially with the tree.
+     *
+     * @return the expanded options
+     */
+    public abstract List<List<String>> toOptions();
+
+    /**
+     * Adds every module code and wildcard referenced by this node to the given set.
+     *
+     * @param codes the set to add to
+     */
+    public abstract void collectCodes(Set<String> codes);
+
+    /**
+     * Appends the persisted encoding of this node.
+     *
+     * @param out the destination to append to
+     * @throws IOException if the destination cannot be written
+     */
+    public abstract void encode(Appendable out) throws IOException;
+
+    /** @return the number of chars {@link #encode(Appendable)} appends */
+    public abstract int encodedLength();
+
+    /** @return the persisted encoding of this node */
+    public String encode() {
+        StringBuilder builder = new StringBuilder(encodedLength());
+        try {
+            encode(builder);
+        } catch (IOException e) {
+            throw new UncheckedIOException("StringBuilder does not throw", e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the shared leaf node for a module code, or a wildcard node if the code ends with {@code %}.
+     *
+     * @param code the module code
+     * @return the interned node
+     */
+    public static PrereqNode leaf(String code) {
+        assert code != null && !code.isEmpty() : "leaf code must not be empty";
+        if (code.endsWith(WILDCARD)) {
+            return intern(new Wildcard(code.substring(0, code.length() - 1).toUpperCase()));
+        }
+        return intern(new Leaf(code.toUpperCase()));
+    }
+
+    /**
+     * Returns the shared node requiring all children. A single child is returned as is.
+     *
+     * @param children the child nodes
+     * @return the interned node
+     */
+    public static PrereqNode and(List<PrereqNode> children) {
+        return combine(children, true);
+    }
+
+    /**
+     * Returns the shared node requiring any child. A single child is returned as is.
+     *
+     * @param children the child nodes
+     * @return the interned node
+     */
+    public static PrereqNode or(List<PrereqNode> children) {
+        return combine(children, false);
+    }
+
+    /**
+     * Builds the equivalent tree of a list of options.
+     *
+     * @param options options in which every code must be taken
+     * @return the interned node, or null if there are no options
+     */
+    public static PrereqNode fromOptions(List<List<String>> options) {
+        if (options == null || options.isEmpty()) {
+            return null;
+        }
+        List<PrereqNode> optionNodes = new ArrayList<>();
+        for (List<String> option : options) {
+            List<PrereqNode> leaves = new ArrayList<>();
+            for (String code : option) {
+                leaves.add(leaf(code));
+            }
+            optionNodes.add(and(leaves));
+        }
+        return or(optionNodes);
+    }
+
+    /**
+     * Parses the persisted encoding produced by {@link #encode()}.
+     *
+     * @param encoded the encoded tree
+     * @return the interned node
+     * @throws ParsePrerequisitesException if the encoding is malformed
+     */
+    public static PrereqNode decode(String encoded) throws ParsePrerequisitesException {
+        int[] position = {0};
+        PrereqNode node = decode(encoded, position);
+        if (position[0] != encoded.length()) {
+            throw new ParsePrerequisitesException("Unexpected trailing prerequisite data: " + encoded);
+        }
+        return node;
+    }
+
+    private static PrereqNode decode(String encoded, int[] position) throws ParsePrerequisitesException {
+        int start = position[0];
+        while (position[0] < encoded.length() && "(),".indexOf(encoded.charAt(position[0])) == -1) {
+            position[0]++;
+        }
+        String token = encoded.substring(start, position[0]);
+        if (token.isEmpty()) {
+            throw new ParsePrerequisitesException("Missing prerequisite token in: " + encoded);
+        }
+        if (position[0] == encoded.length() || encoded.charAt(position[0]) != '(') {
+            return leaf(token);
+        }
+
+        boolean isAnd = token.equals(And.NAME);
+        if (!isAnd && !token.equals(Or.NAME)) {
+            throw new ParsePrerequisitesException("Unknown prerequisite operator: " + token);
+        }
+        List<PrereqNode> children = new ArrayList<>();
+        do {
+            position[0]++; // skip '(' or ','
+            children.add(decode(encoded, position));
+        } while (position[0] < encoded.length() && encoded.charAt(position[0]) == ',');
+
+        if (position[0] == encoded.length() || encoded.charAt(position[0]) != ')') {
+            throw new ParsePrerequisitesException("Unclosed prerequisite group in: " + encoded);
+        }
+        position[0]++;
+        return isAnd ? and(children) : or(children);
+    }
+
+    private static PrereqNode combine(List<PrereqNode> children, boolean isAnd) {
+        assert children != null && !children.isEmpty() : "combine children must not be empty";
+
+        // Flatten nested groups of the same kind; the expansion order is unchanged
+        List<PrereqNode> flattened = new ArrayList<>();
+        for (PrereqNode child : children) {
+            if (isAnd && child instanceof And) {
+                flattened.addAll(Arrays.asList(((And) child).children));
+            } else if (!isAnd && child instanceof Or) {
+                flattened.addAll(Arrays.asList(((Or) child).children));
+            } else {
+                flattened.add(child);
+            }
+        }
+        if (flattened.size() == 1) {
+            return flattened.get(0);
+        }
+
+        PrereqNode[] childArray = flattened.toArray(new PrereqNode[0]);
+        return intern(isAnd ? new And(childArray) : new Or(childArray));
+    }
+
+    private static synchronized PrereqNode intern(PrereqNode node) {
+        PrereqNode existing = internedNodes.putIfAbsent(node, node);
+        return existing == null ? node : existing;
+    }
+
+    /**
+     * A single module code that must be completed or exempted.
+     */
+    private static final class Leaf extends PrereqNode {
+        private final String code;
+        private volatile int id = -1;
+
+        private Leaf(String code) {
+            this.code = code;
+        }
+
+        private int getId() {
+            if (id == -1) {
+                id = ModuleSymbolTable.intern(code);
+            }
+            return id;
+        }
+
+        @Override
+        public boolean isSatisfiedBy(ModuleIdSet completed, ModuleIdSet exempted) {
+            return completed.contains(getId()) || exempted.contains(getId());
+        }
+
+        @Override
+        public List<List<String>> toOptions() {
+            List<List<String>> options = new ArrayList<>();
+            options.add(new ArrayList<>(List.of(code)));
+            return options;
+        }
+
+        @Override
+        public void collectCodes(Set<String> codes) {
+            codes.add(code);
+        }
+
+        @Override
+        public void encode(Appendable out) throws IOException {
+            out.append(code);
+        }
+
+        @Override
+        public int encodedLength() {
+            return code.length();
+        }
+
+        @Override
+        public String toString() {
+            return code;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Leaf && ((Leaf) obj).code.equals(code);
+        }
+
+        @Override
+        public int hashCode() {
+            return code.hashCode();
+        }
+    }
+
+    /**
+     * A code prefix such as {@code CS2%}, satisfied by any completed module starting with it.
+     * An empty prefix never matches.
+     */
+    private static final class Wildcard extends PrereqNode {
+        private final String prefix;
+
+        private Wildcard(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public boolean isSatisfiedBy(ModuleIdSet completed, ModuleIdSet exempted) {
+            if (prefix.isEmpty()) {
+                return false;
+            }
+            for (int id = completed.nextId(0); id != -1; id = completed.nextId(id + 1)) {
+                if (ModuleSymbolTable.codeOf(id).startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public List<List<String>> toOptions() {
+            List<List<String>> options = new ArrayList<>();
+            options.add(new ArrayList<>(List.of(prefix + WILDCARD)));
+            return options;
+        }
+
+        @Override
+        public void collectCodes(Set<String> codes) {
+            codes.add(prefix + WILDCARD);
+        }
+
+        @Override
+        public void encode(Appendable out) throws IOException {
+            out.append(prefix).append(WILDCARD);
+        }
+
+        @Override
+        public int encodedLength() {
+            return prefix.length() + WILDCARD.length();
+        }
+
+        @Override
+        public String toString() {
+            return prefix + WILDCARD;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Wildcard && ((Wildcard) obj).prefix.equals(prefix);
+        }
+
+        @Override
+        public int hashCode() {
+            return prefix.hashCode() * 31 + 1;
+        }
+    }
+
+    /**
+     * Shared state of the two group nodes. Children are interned, so identity
+     * comparison of children is enough for structural equality.
+     */
+    private abstract static class Group extends PrereqNode {
+        protected final PrereqNode[] children;
+        private final int hash;
+
+        private Group(PrereqNode[] children) {
+            this.children = children;
+            int childrenHash = 1;
+            for (PrereqNode child : children) {
+                childrenHash = 31 * childrenHash + System.identityHashCode(child);
+            }
+            this.hash = childrenHash * 31 + getClass().getSimpleName().hashCode();
+        }
+
+        protected abstract String getName();
+
+        @Override
+        public void collectCodes(Set<String> codes) {
+            for (PrereqNode child : children) {
+                child.collectCodes(codes);
+            }
+        }
+
+        @Override
+        public void encode(Appendable out) throws IOException {
+            out.append(getName()).append('(');
+            for (int i = 0; i < children.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                children[i].encode(out);
+            }
+            out.append(')');
+        }
+
+        @Override
+        public int encodedLength() {
+            // name, parentheses and one comma between each pair of children
+            int length = getName().length() + 1 + children.length;
+            for (PrereqNode child : children) {
+                length += child.encodedLength();
+            }
+            return length;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < children.length; i++) {
+                if (i > 0) {
+                    builder.append(' ').append(getName().toUpperCase()).append(' ');
+                }
+                boolean isNested = children[i] instanceof Group;
+                builder.append(isNested ? "(" : "").append(children[i]).append(isNested ? ")" : "");
+            }
+            return builder.toString();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+            PrereqNode[] otherChildren = ((Group) obj).children;
+            if (otherChildren.length != children.length) {
+                return false;
+            }
+            for (int i = 0; i < children.length; i++) {
+                if (otherChildren[i] != children[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Requires every child. Plain leaf children are checked together through one bitset mask.
+     */
+    private static final class And extends Group {
+        private static final String NAME = "and";
+
+        private final PrereqNode[] nonLeafChildren;
+        private volatile long[] leafMask;
+
+        private And(PrereqNode[] children) {
+            super(children);
+            this.nonLeafChildren = Arrays.stream(children)
+                    .filter(child -> !(child instanceof Leaf))
+                    .toArray(PrereqNode[]::new);
+        }
+
+        @Override
+        protected String getName() {
+            return NAME;
+        }
+
+        @Override
+        public boolean isSatisfiedBy(ModuleIdSet completed, ModuleIdSet exempted) {
+            if (!completed.coversAll(getLeafMask(), exempted)) {
+                return false;
+            }
+            for (PrereqNode child : nonLeafChildren) {
+                if (!child.isSatisfiedBy(completed, exempted)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long[] getLeafMask() {
+            if (leafMask == null) {
+                int[] ids = Arrays.stream(children)
+                        .filter(child -> child instanceof Leaf)
+                        .mapToInt(child -> ((Leaf) child).getId())
+                        .toArray();
+                leafMask = ModuleIdSet.maskOf(ids);
+            }
+            return leafMask;
+        }
+
+        @Override
+        public List<List<String>> toOptions() {
+            List<List<String>> product = new ArrayList<>();
+            product.add(new ArrayList<>());
+            for (PrereqNode child : children) {
+                List<List<String>> childOptions = child.toOptions();
+                List<List<String>> nextProduct = new ArrayList<>();
+                for (List<String> partialOption : product) {
+                    for (List<String> childOption : childOptions) {
+                        List<String> combined = new ArrayList<>(partialOption);
+                        combined.addAll(childOption);
+                        nextProduct.add(combined);
+                    }
+                }
+                product = nextProduct;
+            }
+            return product;
+        }
+    }
+
+    /**
+     * Requires any child; evaluation stops at the first satisfied child.
+     */
+    private static final class Or extends Group {
+        private static final String NAME = "or";
+
+        private Or(PrereqNode[] children) {
+            super(children);
+        }
+
+        @Override
+        protected String getName() {
+            return NAME;
+        }
+
+        @Override
+        public boolean isSatisfiedBy(ModuleIdSet completed, ModuleIdSet exempted) {
+            for (PrereqNode child : children) {
+                if (child.isSatisfiedBy(completed, exempted)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public List<List<String>> toOptions() {
+            List<List<String>> options = new ArrayList<>();
+            for (PrereqNode child : children) {
+                options.addAll(child.toOptions());
+            }
+            return options;
+        }
+    }
+}
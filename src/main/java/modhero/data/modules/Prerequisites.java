@@ -1,91 +1,130 @@
 package modhero.data.modules;
 
-import modhero.common.util.SerialisationUtil;
-
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * Holds the prerequisite tree of a module.
+ * <p>
+ * The tree is stored as a shared {@link PrereqNode} DAG, so memory grows with the size
+ * of the tree rather than with the number of option combinations. The expanded
+ * option list is only built on demand through {@link #getPrereq()}.
+ * </p>
+ */
 public class Prerequisites {
     public static final Logger logger = Logger.getLogger(Prerequisites.class.getName());
 
+    private final PrereqNode root;
     private List<List<String>> prereq;
 
     public Prerequisites() {
+        this.root = null;
         this.prereq = new ArrayList<>();
     }
 
     public Prerequisites(List<List<String>> prereq) {
+        this.root = PrereqNode.fromOptions(prereq);
         this.prereq = prereq;
     }
 
+    /**
+     * Creates prerequisites from a prerequisite tree.
+     *
+     * @param root the root of the tree, or null if there are no prerequisites
+     */
+    public Prerequisites(PrereqNode root) {
+        this.root = root;
+    }
+
+    /** @return the root of the prerequisite tree, or null if there are no prerequisites */
+    public PrereqNode getRoot() {
+        return root;
+    }
+
+    /** @return true if the module has no prerequisites */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Returns the prerequisites expanded into options, each a list of codes that must all be taken.
+     * Prefer {@link #isSatisfiedBy} for checks, as the expansion can be exponential in the tree size.
+     *
+     * @return the expanded options
+     */
     public List<List<String>> getPrereq() {
+        if (prereq == null) {
+            prereq = root == null ? new ArrayList<>() : root.toOptions();
+        }
         return prereq;
     }
+
     /**
-     * Serializes prerequisites into a doubly-serialized string format.
-     *
-     * Structure:
-     * 1. Each module code in a combination is serialized
-     * 2. Each combination is serialized together
-     *
-     * This produces a doubly-serialized blob that will be wrapped one more time
-     * by the caller (DataGenerator), resulting in triple serialization total.
+     * Checks whether the prerequisite tree is satisfied.
+     * Plain codes are checked against both sets; wildcard codes such as {@code CS2%}
+     * are only matched against completed modules.
      *
-     * Example for [[CS1010, CS1101S], [CS1010E]]:
-     * - Serialize CS1010 → wrap1
-     * - Serialize CS1101S → wrap2
-     * - Serialize (wrap1 + wrap2) → combination1
-     * - Serialize CS1010E → wrap3
-     * - Serialize (wrap3) → combination2
-     * - Return combination1 + combination2 (doubly-serialized blob)
+     * @param completed IDs of modules taken before the module in question
+     * @param exempted IDs of exempted modules
+     * @return true if there are no prerequisites or the tree is satisfied
+     */
+    public boolean isSatisfiedBy(ModuleIdSet completed, ModuleIdSet exempted) {
+        return root == null || root.isSatisfiedBy(completed, exempted);
+    }
+
+    /** @return every module code and wildcard referenced by the tree */
+    public Set<String> getReferencedCodes() {
+        Set<String> codes = new HashSet<>();
+        if (root != null) {
+            root.collectCodes(codes);
+        }
+        return codes;
+    }
+
+    /**
+     * Serializes prerequisites into the persisted tree encoding,
+     * e.g. {@code or(CS2040C,and(or(CS2030,CS2030S),CS2040S))}.
+     * The result is wrapped once more by the caller as a module field.
      *
-     * @return doubly-serialized prerequisites string
+     * @return the encoded prerequisite tree, or an empty string if there are none
      */
     public String toFormatedString() {
         logger.log(Level.FINEST, "Serialising prerequisites");
 
-        if (prereq == null || prereq.isEmpty()) {
+        if (root == null) {
             logger.log(Level.FINEST, "No prerequisites to serialize");
             return ""; // Empty string for no prerequisites
         }
+        return root.encode();
+    }
 
-        SerialisationUtil serialisationUtil = new SerialisationUtil();
-        StringBuilder outerBuilder = new StringBuilder();
-
-        // For each combination (OR group of prerequisites)
-        for (List<String> combination : prereq) {
-            // Serialize each module code in the combination
-            StringBuilder innerBuilder = new StringBuilder();
-            for (String moduleCode : combination) {
-                innerBuilder.append(serialisationUtil.serialiseMessage(moduleCode));
-            }
+    /** @return the number of chars {@link #toFormatedString()} returns, computed without building it */
+    public int formattedLength() {
+        return root == null ? 0 : root.encodedLength();
+    }
 
-            // Serialize the entire combination
-            outerBuilder.append(serialisationUtil.serialiseMessage(innerBuilder.toString()));
+    /**
+     * Appends the persisted tree encoding without building it as a String first.
+     *
+     * @param out the destination to append to
+     * @throws IOException if the destination cannot be written
+     */
+    public void writeFormatted(Appendable out) throws IOException {
+        if (root != null) {
+            root.encode(out);
         }
-
-        String serialisedPrereqs = outerBuilder.toString();
-        logger.log(Level.FINEST, "Successfully serialized prerequisites (doubly-serialized)");
-        return serialisedPrereqs;
     }
 
     @Override
     public String toString() {
-        if (prereq == null || prereq.isEmpty()) {
+        if (root == null) {
             return "No prerequisites";
         }
-
-        StringBuilder sb = new StringBuilder("Prerequisites: [");
-        for (int i = 0; i < prereq.size(); i++) {
-            List<String> group = prereq.get(i);
-            sb.append(group);
-            if (i < prereq.size() - 1) {
-                sb.append(" OR ");
-            }
-        }
-        sb.append("]");
-        return sb.toString();
+        return "Prerequisites: [" + root + "]";
     }
 }
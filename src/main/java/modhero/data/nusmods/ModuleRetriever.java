@@ -1,20 +1,125 @@
 package modhero.data.nusmods;
 
+import modhero.common.Constants.FilePathConstants;
+import modhero.common.Constants.ModuleCacheConstants;
 import modhero.parser.ModuleParser;
 import modhero.data.modules.Module;
+import modhero.storage.ModuleCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Retrieve NUS module information parse into module.
+ * Modules are looked up in the on-disk module cache first and only fetched from NUSMods on a miss.
  */
 public class ModuleRetriever {
-    private final NusmodsAPIClient client = new NusmodsAPIClient();
+    private static final ModuleCache DEFAULT_CACHE = new ModuleCache(FilePathConstants.MODULE_CACHE_FILE_PATH,
+            ModuleCacheConstants.MAX_ENTRIES, ModuleCacheConstants.TTL_MILLIS);
+
+    private final NusmodsAPIClient client;
     private final ModuleParser parser = new ModuleParser();
+    private final ModuleCache cache;
+
+    public ModuleRetriever() {
+        this(DEFAULT_CACHE);
+    }
+
+    /**
+     * Creates a retriever that reads through the given cache.
+     *
+     * @param cache the cache to check before fetching
+     */
+    public ModuleRetriever(ModuleCache cache) {
+        this(cache, new NusmodsAPIClient());
+    }
+
+    /**
+     * Creates a retriever that reads through the given cache and fetches misses with the given client.
+     *
+     * @param cache the cache to check before fetching
+     * @param client the client used on a cache miss
+     */
+    public ModuleRetriever(ModuleCache cache, NusmodsAPIClient client) {
+        this.cache = cache;
+        this.client = client;
+    }
 
     public Module getModule(String acadYear, String code) {
+        Module cached = cache.get(acadYear, code);
+        if (cached != null) {
+            return cached;
+        }
+
         String json = client.fetchModuleDataSafely(acadYear, code);
         if (json == null) {
             return null;
         }
-        return parser.parseModule(json);
+        Module module = parser.parseModule(json);
+        if (module != null) {
+            cache.put(acadYear, module);
+        }
+        return module;
+    }
+
+    /**
+     * Returns a module from the cache without touching the network.
+     *
+     * @param acadYear the academic year
+     * @param code the module code
+     * @return the cached module, or null if it is not cached
+     */
+    public Module getCachedModule(String acadYear, String code) {
+        return cache.get(acadYear, code);
+    }
+
+    /**
+     * Retrieves several modules concurrently in the background.
+     * Cached modules are returned without a fetch; the rest are fetched in parallel and cached
+     * together, writing the cache file once for the whole batch.
+     * Modules that fail or do not arrive before the deadline are left out of the result.
+     *
+     * @param acadYear the academic year
+     * @param codes the module codes to retrieve
+     * @param timeoutMillis how long to wait for the whole batch, in milliseconds
+     * @return a future of the retrieved modules keyed by the requested code
+     */
+    public CompletableFuture<Map<String, Module>> getModulesAsync(String acadYear, Collection<String> codes,
+                                                                  long timeoutMillis) {
+        Map<String, Module> modules = new LinkedHashMap<>();
+        List<String> missingCodes = new ArrayList<>();
+        for (String code : codes) {
+            Module cached = cache.get(acadYear, code);
+            if (cached != null) {
+                modules.put(code, cached);
+            } else {
+                missingCodes.add(code);
+            }
+        }
+        if (missingCodes.isEmpty()) {
+            return CompletableFuture.completedFuture(modules);
+        }
+
+        Map<String, CompletableFuture<String>> fetches = client.fetchAll(acadYear, missingCodes);
+        return CompletableFuture.allOf(fetches.values().toArray(new CompletableFuture<?>[0]))
+                .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .handle((ignored, error) -> {
+                    List<Module> fetched = new ArrayList<>();
+                    fetches.forEach((code, fetch) -> {
+                        String json = fetch.isDone() && !fetch.isCompletedExceptionally() ? fetch.join() : null;
+                        Module module = json == null ? null : parser.parseModule(json);
+                        if (module != null) {
+                            fetched.add(module);
+                            modules.put(code, module);
+                        }
+                    });
+                    cache.putAll(acadYear, fetched);
+                    return modules;
+                });
     }
 }
@@ -1,18 +1,80 @@
 package modhero.data.nusmods;
 
+import modhero.storage.ResponseCache;
+import modhero.storage.ResponseCache.CachedResponse;
+
+import java.io.IOException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Make HTTP GET requests to the NUSMods API
+ * <p>
+ * All instances share one long-lived HTTP/2 client, so connections and TLS sessions are reused
+ * across requests, and at most {@value #MAX_CONCURRENT_REQUESTS} requests are in flight at once.
+ * With a {@link ResponseCache}, requests are made conditional on the cached validators and a
+ * {@code 304 Not Modified} reply is answered from the cached body.
+ * </p>
  */
 public class NusmodsAPIClient {
     private static final Logger logger = Logger.getLogger(NusmodsAPIClient.class.getName());
 
+    public static final String DEFAULT_BASE_URL = "https://api.nusmods.com/v2/";
+    public static final int MAX_CONCURRENT_REQUESTS = 8;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(15);
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_NOT_MODIFIED = 304;
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    // Requests waiting for one of the concurrency slots, guarded by the class lock
+    private static final Queue<Runnable> waitingRequests = new ArrayDeque<>();
+    private static int inFlightRequests = 0;
+
+    private final String baseUrl;
+    private final ResponseCache responseCache;
+
+    public NusmodsAPIClient() {
+        this(DEFAULT_BASE_URL);
+    }
+
+    /**
+     * Creates a client for a NUSMods compatible server.
+     *
+     * @param baseUrl the API root, ending with '/'
+     */
+    public NusmodsAPIClient(String baseUrl) {
+        this(baseUrl, null);
+    }
+
+    /**
+     * Creates a client for a NUSMods compatible server that revalidates against a response cache.
+     *
+     * @param baseUrl the API root, ending with '/'
+     * @param responseCache the cache of previous responses, or null to always download full bodies
+     */
+    public NusmodsAPIClient(String baseUrl, ResponseCache responseCache) {
+        assert baseUrl.endsWith("/") : "NusmodsAPIClient baseUrl must end with '/'";
+        this.baseUrl = baseUrl;
+        this.responseCache = responseCache;
+    }
+
     /**
      * Safely fetches module data by handling exceptions.
      * Logs any errors that occur during the fetch operation.
@@ -30,6 +92,92 @@ public class NusmodsAPIClient {
         }
     }
 
+    /**
+     * Fetches several modules concurrently.
+     * Each future completes with the raw JSON, or exceptionally if that request fails or times out.
+     *
+     * @param acadYear The academic year in format "YYYY-YYYY" (e.g., "2025-2026").
+     * @param moduleCodes The module codes to fetch.
+     * @return a future for each distinct module code, in the order given
+     */
+    public Map<String, CompletableFuture<String>> fetchAll(String acadYear, Collection<String> moduleCodes) {
+        Map<String, CompletableFuture<String>> fetches = new LinkedHashMap<>();
+        for (String moduleCode : moduleCodes) {
+            fetches.computeIfAbsent(moduleCode, code -> fetchModuleDataAsync(acadYear, code));
+        }
+        return fetches;
+    }
+
+    /**
+     * Fetches several modules concurrently, reporting which bodies are unchanged since the last fetch.
+     *
+     * @param acadYear The academic year in format "YYYY-YYYY" (e.g., "2025-2026").
+     * @param moduleCodes The module codes to fetch.
+     * @return a future for each distinct module code, in the order given
+     */
+    public Map<String, CompletableFuture<NusmodsResponse>> fetchAllResponses(String acadYear,
+                                                                            Collection<String> moduleCodes) {
+        Map<String, CompletableFuture<NusmodsResponse>> fetches = new LinkedHashMap<>();
+        for (String moduleCode : moduleCodes) {
+            fetches.computeIfAbsent(moduleCode, code -> fetchModuleAsync(acadYear, code));
+        }
+        return fetches;
+    }
+
+    /**
+     * Fetches raw module data without blocking, once a concurrency slot is free.
+     *
+     * @param acadYear The academic year in format "YYYY-YYYY" (e.g., "2025-2026").
+     * @param moduleCode The module code (e.g., "CS2113").
+     * @return a future of the raw JSON response
+     */
+    public CompletableFuture<String> fetchModuleDataAsync(String acadYear, String moduleCode) {
+        return fetchModuleAsync(acadYear, moduleCode).thenApply(NusmodsResponse::getBody);
+    }
+
+    /**
+     * Fetches a module without blocking, once a concurrency slot is free.
+     *
+     * @param acadYear The academic year in format "YYYY-YYYY" (e.g., "2025-2026").
+     * @param moduleCode The module code (e.g., "CS2113").
+     * @return a future of the response
+     */
+    public CompletableFuture<NusmodsResponse> fetchModuleAsync(String acadYear, String moduleCode) {
+        String cacheKey = toCacheKey(acadYear, moduleCode);
+        CachedResponse cached = getCached(cacheKey);
+        HttpRequest request;
+        try {
+            request = buildRequest(acadYear, moduleCode, cached);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<NusmodsResponse> result = new CompletableFuture<>();
+        acquireSlot(() -> {
+            try {
+                HTTP_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                        .whenComplete((response, error) -> {
+                            releaseSlot();
+                            if (error != null) {
+                                result.completeExceptionally(error);
+                                return;
+                            }
+                            try {
+                                result.complete(toResponse(cacheKey, cached, response));
+                            } catch (IOException e) {
+                                result.completeExceptionally(e);
+                            }
+                        });
+            } catch (RuntimeException e) {
+                // sendAsync threw before starting, so no completion callback will free the slot
+                logger.log(Level.WARNING, "Unable to start request: " + cacheKey, e);
+                releaseSlot();
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
     /**
      * Fetches raw module data from the NUSMods API for a given academic year and module code.
      *
@@ -39,20 +187,97 @@ public class NusmodsAPIClient {
      * @throws Exception If the HTTP request fails, encounters network issues, or returns a non-200 status.
      */
     private String fetchModuleData(String acadYear, String moduleCode) throws Exception {
-        String url = "https://api.nusmods.com/v2/" + acadYear + "/modules/" + moduleCode + ".json";
+        String cacheKey = toCacheKey(acadYear, moduleCode);
+        CachedResponse cached = getCached(cacheKey);
+        HttpResponse<String> response = HTTP_CLIENT.send(buildRequest(acadYear, moduleCode, cached),
+                HttpResponse.BodyHandlers.ofString());
+        return toResponse(cacheKey, cached, response).getBody();
+    }
 
-        HttpClient client = HttpClient.newHttpClient();
-        HttpRequest request = HttpRequest.newBuilder()
+    /**
+     * Builds a GET request for a module, made conditional on the cached validators if there are any.
+     */
+    private HttpRequest buildRequest(String acadYear, String moduleCode, CachedResponse cached) {
+        String url = baseUrl + acadYear + "/modules/" + moduleCode + ".json";
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
                 .uri(URI.create(url))
-                .build();
-
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                .timeout(REQUEST_TIMEOUT)
+                .GET();
+        if (cached != null && !cached.getETag().isEmpty()) {
+            builder.header("If-None-Match", cached.getETag());
+        }
+        if (cached != null && !cached.getLastModified().isEmpty()) {
+            builder.header("If-Modified-Since", cached.getLastModified());
+        }
+        return builder.build();
+    }
 
+    /**
+     * Interprets a response, answering {@code 304 Not Modified} from the cache and caching new bodies.
+     *
+     * @param cacheKey the response cache key for the module
+     * @param cached the cached response the request was conditional on, or null
+     * @param response the HTTP response
+     * @return the module response
+     * @throws IOException if the status is neither 200 nor a usable 304
+     */
+    private NusmodsResponse toResponse(String cacheKey, CachedResponse cached, HttpResponse<String> response)
+            throws IOException {
         int status = response.statusCode();
-        if (status != 200) {
-            throw new Exception("Failed to fetch module data: HTTP " + status);
+        if (status == HTTP_NOT_MODIFIED && cached != null) {
+            logger.log(Level.FINEST, "Module not modified: " + cacheKey);
+            return new NusmodsResponse(cached.getBody(), true);
+        }
+        if (status != HTTP_OK) {
+            throw new IOException("Failed to fetch module data: HTTP " + status);
+        }
+
+        String body = response.body();
+        if (responseCache == null) {
+            return new NusmodsResponse(body, false);
+        }
+        String eTag = response.headers().firstValue("ETag").orElse("");
+        String lastModified = response.headers().firstValue("Last-Modified").orElse("");
+        CachedResponse stored = responseCache.put(cacheKey, eTag, lastModified, body);
+        boolean isUnchanged = cached != null && cached.getBodyHash().equals(stored.getBodyHash());
+        return new NusmodsResponse(body, isUnchanged);
+    }
+
+    private CachedResponse getCached(String cacheKey) {
+        return responseCache == null ? null : responseCache.get(cacheKey);
+    }
+
+    private static String toCacheKey(String acadYear, String moduleCode) {
+        return acadYear + "_" + moduleCode;
+    }
+
+    /**
+     * Starts a request now if fewer than {@value #MAX_CONCURRENT_REQUESTS} are in flight, or queues it.
+     */
+    private static void acquireSlot(Runnable request) {
+        synchronized (NusmodsAPIClient.class) {
+            if (inFlightRequests >= MAX_CONCURRENT_REQUESTS) {
+                waitingRequests.add(request);
+                return;
+            }
+            inFlightRequests++;
         }
+        request.run();
+    }
 
-        return response.body();
+    /**
+     * Hands a finished request's slot to the next queued request, if any.
+     */
+    private static void releaseSlot() {
+        Runnable next;
+        synchronized (NusmodsAPIClient.class) {
+            next = waitingRequests.poll();
+            if (next == null) {
+                inFlightRequests--;
+            }
+        }
+        if (next != null) {
+            next.run();
+        }
     }
 }
@@ -0,0 +1,29 @@
+package modhero.data.nusmods;
+
+/**
+ * A module JSON body returned by {@link NusmodsAPIClient}, noting whether it changed since the last fetch.
+ */
+public class NusmodsResponse {
+    private final String body;
+    private final boolean isUnchanged;
+
+    /**
+     * Creates a response.
+     *
+     * @param body the raw JSON body
+     * @param isUnchanged true if the body is identical to the previously cached one
+     */
+    public NusmodsResponse(String body, boolean isUnchanged) {
+        this.body = body;
+        this.isUnchanged = isUnchanged;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    /** @return true if the server reported no change or the body hash matched the cached one */
+    public boolean isUnchanged() {
+        return isUnchanged;
+    }
+}
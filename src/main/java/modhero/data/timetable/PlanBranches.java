@@ -0,0 +1,297 @@
+package modhero.data.timetable;
+
+import modhero.data.modules.Module;
+import modhero.exceptions.BranchAlreadyExistsException;
+import modhero.exceptions.BranchNotFoundException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps named branches of the plan, so that changes can be tried out without touching the main plan.
+ * <p>
+ * The timetable always holds the plan of the current branch. Every other branch is kept as a
+ * {@link PlanVersion}, which shares unchanged terms with the other branches, so many branches
+ * cost little more than one plan. Each branch has its own {@link PlanHistory}, and all branches
+ * share one {@link PlanValidationCache}, so terms unchanged between branches are validated once.
+ * </p>
+ */
+public class PlanBranches {
+    private static final Logger logger = Logger.getLogger(PlanBranches.class.getName());
+
+    private final String mainBranchName;
+    private final int maxUndoSteps;
+    private final PlanValidationCache validationCache;
+    private final Map<String, Branch> branches = new LinkedHashMap<>();
+    private String currentName;
+
+    /**
+     * Creates the branches, holding only an empty main branch until {@link #reset} is called.
+     *
+     * @param mainBranchName the name of the branch that is saved
+     * @param maxUndoSteps the number of changes that can be undone on each branch
+     * @param maxCachedTermResults the number of term validation results to keep
+     */
+    public PlanBranches(String mainBranchName, int maxUndoSteps, int maxCachedTermResults) {
+        this.mainBranchName = mainBranchName;
+        this.maxUndoSteps = maxUndoSteps;
+        this.validationCache = new PlanValidationCache(maxCachedTermResults);
+        this.currentName = mainBranchName;
+        branches.put(mainBranchName, new Branch(null, null, new PlanHistory(maxUndoSteps)));
+    }
+
+    /**
+     * Starts over with only the main branch, holding the given plan.
+     *
+     * @param timetable the timetable
+     * @param exemptedModules the exempted module codes
+     */
+    public void reset(Timetable timetable, List<String> exemptedModules) {
+        branches.clear();
+        PlanHistory history = new PlanHistory(maxUndoSteps);
+        history.reset(timetable, exemptedModules);
+        branches.put(mainBranchName, new Branch(null, timetable.toVersion(exemptedModules, null), history));
+        currentName = mainBranchName;
+    }
+
+    /** @return the name of the current branch */
+    public String getCurrentName() {
+        return currentName;
+    }
+
+    /** @return true if the timetable holds the main plan */
+    public boolean isOnMainBranch() {
+        return currentName.equals(mainBranchName);
+    }
+
+    /** @return the names of every branch, in the order they were created */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(branches.keySet());
+    }
+
+    /** @return the history of the current branch */
+    public PlanHistory getHistory() {
+        return branches.get(currentName).history;
+    }
+
+    /**
+     * Creates a branch holding a copy of the current plan and makes it the current branch.
+     * The timetable is left as it is.
+     *
+     * @param name the name of the new branch
+     * @param timetable the timetable
+     * @param exemptedModules the exempted module codes
+     * @throws BranchAlreadyExistsException if a branch with that name exists
+     */
+    public void fork(String name, Timetable timetable, List<String> exemptedModules)
+            throws BranchAlreadyExistsException {
+        if (branches.containsKey(name)) {
+            throw new BranchAlreadyExistsException(name);
+        }
+        PlanVersion forkPoint = saveCurrent(timetable, exemptedModules);
+        PlanHistory history = new PlanHistory(maxUndoSteps);
+        history.reset(timetable, exemptedModules);
+        branches.put(name, new Branch(currentName, forkPoint, history));
+        logger.log(Level.INFO, "Forked branch " + name + " from " + currentName);
+        currentName = name;
+    }
+
+    /**
+     * Keeps the current plan in its branch and loads the plan of another branch into the timetable.
+     *
+     * @param name the name of the branch to switch to
+     * @param timetable the timetable
+     * @param exemptedModules the exempted module codes, replaced by those of the branch
+     * @throws BranchNotFoundException if there is no branch with that name
+     */
+    public void switchTo(String name, Timetable timetable, List<String> exemptedModules)
+            throws BranchNotFoundException {
+        Branch target = find(name);
+        saveCurrent(timetable, exemptedModules);
+        timetable.restore(target.head, exemptedModules);
+        currentName = name;
+        logger.log(Level.INFO, "Switched to branch " + name);
+    }
+
+    /**
+     * Applies the changes made on another branch since the two branches parted, or since they were
+     * last merged, to the current plan.
+     * A module moved, added or deleted on only one of the branches takes that branch's placement.
+     * Where both branches changed the same module differently, the current branch's placement is
+     * kept and reported as a conflict.
+     *
+     * @param name the name of the branch to merge
+     * @param timetable the timetable holding the current plan, which receives the merged plan
+     * @param exemptedModules the exempted module codes, replaced by the merged ones
+     * @return a message for every conflict, empty if the branches merged cleanly
+     * @throws BranchNotFoundException if there is no branch with that name
+     */
+    public List<String> merge(String name, Timetable timetable, List<String> exemptedModules)
+            throws BranchNotFoundException {
+        Branch theirs = find(name);
+        Branch current = branches.get(currentName);
+        PlanVersion ours = saveCurrent(timetable, exemptedModules);
+        PlanVersion base = current.mergeBases.get(name);
+        if (base == null) {
+            base = current.parent != null && current.parent.equals(name) ? current.forkPoint : theirs.forkPoint;
+        }
+        if (base == null) {
+            base = ours;
+        }
+
+        List<String> conflicts = new ArrayList<>();
+        Map<String, Placement> merged = mergePlacements(placementsOf(base), placementsOf(ours),
+                placementsOf(theirs.head), name, conflicts);
+        List<String> exempted = mergeExempted(base.getExemptedModules(), ours.getExemptedModules(),
+                theirs.head.getExemptedModules(), name, conflicts);
+
+        timetable.restore(new PlanVersion(buildTerms(merged, ours), exempted), exemptedModules);
+        // Both plans now hold their head, so later merges between the pair only apply newer changes
+        current.mergeBases.put(name, theirs.head);
+        theirs.mergeBases.put(currentName, theirs.head);
+        logger.log(Level.INFO, "Merged branch " + name + " into " + currentName + " with "
+                + conflicts.size() + " conflicts");
+        return conflicts;
+    }
+
+    /**
+     * Validates the plan in the timetable, reusing results for terms already validated on any branch.
+     *
+     * @param timetable the timetable
+     * @param exemptedModules the exempted module codes
+     * @return a message for every violation found, empty if the plan is valid
+     */
+    public List<String> validate(Timetable timetable, List<String> exemptedModules) {
+        return timetable.validatePlan(exemptedModules, validationCache);
+    }
+
+    private Branch find(String name) throws BranchNotFoundException {
+        Branch branch = branches.get(name);
+        if (branch == null) {
+            throw new BranchNotFoundException(name);
+        }
+        return branch;
+    }
+
+    private PlanVersion saveCurrent(Timetable timetable, List<String> exemptedModules) {
+        Branch current = branches.get(currentName);
+        current.head = timetable.toVersion(exemptedModules, current.head);
+        return current.head;
+    }
+
+    private static Map<String, Placement> mergePlacements(Map<String, Placement> base, Map<String, Placement> ours,
+                                                          Map<String, Placement> theirs, String theirName,
+                                                          List<String> conflicts) {
+        Set<String> codes = new LinkedHashSet<>(ours.keySet());
+        codes.addAll(theirs.keySet());
+        Map<String, Placement> merged = new LinkedHashMap<>();
+        for (String code : codes) {
+            Placement basePlacement = base.get(code);
+            Placement ourPlacement = ours.get(code);
+            Placement theirPlacement = theirs.get(code);
+            Placement result = ourPlacement;
+            if (Placement.isSame(basePlacement, ourPlacement)) {
+                result = theirPlacement;
+            } else if (!Placement.isSame(basePlacement, theirPlacement)
+                    && !Placement.isSame(ourPlacement, theirPlacement)) {
+                conflicts.add(code + " was changed on both branches; kept this branch's change over " + theirName
+                        + "'s");
+            }
+            if (result != null) {
+                merged.put(code, result);
+            }
+        }
+        return merged;
+    }
+
+    private static List<String> mergeExempted(List<String> base, List<String> ours, List<String> theirs,
+                                              String theirName, List<String> conflicts) {
+        if (ours.equals(base)) {
+            return theirs;
+        }
+        if (!theirs.equals(base) && !theirs.equals(ours)) {
+            conflicts.add("Exempted modules were changed on both branches; kept this branch's over " + theirName
+                    + "'s");
+        }
+        return ours;
+    }
+
+    /**
+     * Lays out merged placements by term, reusing a term of the current plan wherever it is unchanged
+     * so that it stays shared and its validation result can be reused.
+     */
+    private static List<List<Module>> buildTerms(Map<String, Placement> placements, PlanVersion ours) {
+        List<List<Module>> ourTerms = ours.getTerms();
+        List<List<Module>> terms = new ArrayList<>();
+        for (int ordinal = 0; ordinal < ourTerms.size(); ordinal++) {
+            terms.add(new ArrayList<>());
+        }
+        for (Placement placement : placements.values()) {
+            terms.get(placement.ordinal).add(placement.module);
+        }
+        for (int ordinal = 0; ordinal < terms.size(); ordinal++) {
+            List<Module> term = terms.get(ordinal);
+            terms.set(ordinal, term.equals(ourTerms.get(ordinal))
+                    ? ourTerms.get(ordinal)
+                    : Collections.unmodifiableList(term));
+        }
+        return Collections.unmodifiableList(terms);
+    }
+
+    private static Map<String, Placement> placementsOf(PlanVersion version) {
+        Map<String, Placement> placements = new LinkedHashMap<>();
+        List<List<Module>> terms = version.getTerms();
+        for (int ordinal = 0; ordinal < terms.size(); ordinal++) {
+            for (Module module : terms.get(ordinal)) {
+                placements.put(module.getCode().toUpperCase(), new Placement(ordinal, module));
+            }
+        }
+        return placements;
+    }
+
+    /**
+     * A branch of the plan. The head of the current branch is only brought up to date when the
+     * timetable moves to another branch. Merge bases hold, per branch merged with this one, the
+     * version both plans shared after their last merge.
+     */
+    private static final class Branch {
+        private final String parent;
+        private final PlanVersion forkPoint;
+        private final PlanHistory history;
+        private final Map<String, PlanVersion> mergeBases = new HashMap<>();
+        private PlanVersion head;
+
+        private Branch(String parent, PlanVersion forkPoint, PlanHistory history) {
+            this.parent = parent;
+            this.forkPoint = forkPoint;
+            this.history = history;
+            this.head = forkPoint;
+        }
+    }
+
+    /**
+     * The term a module is placed in.
+     */
+    private static final class Placement {
+        private final int ordinal;
+        private final Module module;
+
+        private Placement(int ordinal, Module module) {
+            this.ordinal = ordinal;
+            this.module = module;
+        }
+
+        private static boolean isSame(Placement first, Placement second) {
+            return Objects.equals(first == null ? null : first.ordinal, second == null ? null : second.ordinal);
+        }
+    }
+}
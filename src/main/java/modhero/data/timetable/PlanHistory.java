@@ -0,0 +1,109 @@
+package modhero.data.timetable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps past versions of the plan so that changes can be undone and redone.
+ * <p>
+ * A {@link PlanVersion} is committed after every change. Undoing restores the version before
+ * the current one, and redoing restores the version undone last, until the next change is
+ * committed. Only the latest versions are kept, up to the given number of undo steps.
+ * </p>
+ */
+public class PlanHistory {
+    private static final Logger logger = Logger.getLogger(PlanHistory.class.getName());
+
+    private final int maxUndoSteps;
+    private final Deque<PlanVersion> undoVersions = new ArrayDeque<>();
+    private final Deque<PlanVersion> redoVersions = new ArrayDeque<>();
+    private PlanVersion current;
+
+    /**
+     * Creates an empty history.
+     *
+     * @param maxUndoSteps the number of changes that can be undone
+     */
+    public PlanHistory(int maxUndoSteps) {
+        assert maxUndoSteps > 0 : "PlanHistory maxUndoSteps must be positive";
+        this.maxUndoSteps = maxUndoSteps;
+    }
+
+    /**
+     * Starts the history at the given plan, forgetting every earlier version.
+     *
+     * @param timetable the timetable
+     * @param exemptedModules the exempted module codes
+     */
+    public void reset(Timetable timetable, List<String> exemptedModules) {
+        undoVersions.clear();
+        redoVersions.clear();
+        current = timetable.toVersion(exemptedModules, null);
+    }
+
+    /**
+     * Records the plan after a change, which can then be undone.
+     *
+     * @param timetable the changed timetable
+     * @param exemptedModules the exempted module codes
+     */
+    public void commit(Timetable timetable, List<String> exemptedModules) {
+        PlanVersion version = timetable.toVersion(exemptedModules, current);
+        if (current != null) {
+            undoVersions.push(current);
+            if (undoVersions.size() > maxUndoSteps) {
+                undoVersions.removeLast();
+            }
+        }
+        current = version;
+        redoVersions.clear();
+        logger.log(Level.FINEST, () -> "Committed plan version, undo steps: " + undoVersions.size());
+    }
+
+    /**
+     * Restores the plan to the version before the current one.
+     *
+     * @param timetable the timetable to restore
+     * @param exemptedModules the exempted module codes to restore
+     * @return false if there is no change to undo
+     */
+    public boolean undo(Timetable timetable, List<String> exemptedModules) {
+        if (undoVersions.isEmpty()) {
+            return false;
+        }
+        redoVersions.push(current);
+        current = undoVersions.pop();
+        timetable.restore(current, exemptedModules);
+        return true;
+    }
+
+    /**
+     * Restores the plan to the version undone last.
+     *
+     * @param timetable the timetable to restore
+     * @param exemptedModules the exempted module codes to restore
+     * @return false if there is no undone change to redo
+     */
+    public boolean redo(Timetable timetable, List<String> exemptedModules) {
+        if (redoVersions.isEmpty()) {
+            return false;
+        }
+        undoVersions.push(current);
+        current = redoVersions.pop();
+        timetable.restore(current, exemptedModules);
+        return true;
+    }
+
+    /** @return the number of changes that can be undone */
+    public int getUndoCount() {
+        return undoVersions.size();
+    }
+
+    /** @return the number of undone changes that can be redone */
+    public int getRedoCount() {
+        return redoVersions.size();
+    }
+}
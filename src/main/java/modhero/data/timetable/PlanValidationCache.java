@@ -0,0 +1,106 @@
+package modhero.data.timetable;
+
+import modhero.data.modules.Module;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the violations found in each term by {@link Timetable#validatePlan(List, PlanValidationCache)}.
+ * <p>
+ * The violations of a term depend only on that term, the terms before it and the exempted
+ * modules. As terms are immutable lists shared between plan versions, a result is looked up by
+ * the identity of those term lists, so a term is validated again only when it or an earlier
+ * term has changed, whichever plan version or branch it is reached from. Only the results
+ * used most recently are kept.
+ * </p>
+ */
+public class PlanValidationCache {
+    private final Map<Key, List<String>> results;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxEntries the number of term results to keep
+     */
+    public PlanValidationCache(int maxEntries) {
+        assert maxEntries > 0 : "PlanValidationCache maxEntries must be positive";
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<String>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the violations remembered for a term.
+     *
+     * @param exemptedModules the exempted module codes the term was validated with
+     * @param terms the immutable terms of the plan, by ordinal
+     * @param ordinal the ordinal of the term
+     * @return the violations, or null if the term has not been validated in this context
+     */
+    List<String> get(List<String> exemptedModules, List<List<Module>> terms, int ordinal) {
+        return results.get(new Key(exemptedModules, terms, ordinal));
+    }
+
+    /**
+     * Remembers the violations found in a term.
+     *
+     * @param exemptedModules the exempted module codes the term was validated with
+     * @param terms the immutable terms of the plan, by ordinal
+     * @param ordinal the ordinal of the term
+     * @param violations the violations found
+     */
+    void put(List<String> exemptedModules, List<List<Module>> terms, int ordinal, List<String> violations) {
+        results.put(new Key(List.copyOf(exemptedModules), terms, ordinal), List.copyOf(violations));
+    }
+
+    /** @return the number of term results kept */
+    public int size() {
+        return results.size();
+    }
+
+    /**
+     * Identifies a term by the exempted modules and the identity of every term list up to it.
+     */
+    private static final class Key {
+        private final List<String> exemptedModules;
+        private final Object[] terms;
+        private final int hash;
+
+        private Key(List<String> exemptedModules, List<List<Module>> terms, int ordinal) {
+            this.exemptedModules = exemptedModules;
+            this.terms = terms.subList(0, ordinal + 1).toArray();
+            int hash = exemptedModules.hashCode();
+            for (Object term : this.terms) {
+                hash = 31 * hash + System.identityHashCode(term);
+            }
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            if (hash != key.hash || terms.length != key.terms.length) {
+                return false;
+            }
+            for (int i = 0; i < terms.length; i++) {
+                if (terms[i] != key.terms[i]) {
+                    return false;
+                }
+            }
+            return exemptedModules.equals(key.exemptedModules);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
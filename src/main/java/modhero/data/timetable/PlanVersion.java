@@ -0,0 +1,32 @@
+package modhero.data.timetable;
+
+import modhero.data.modules.Module;
+
+import java.util.List;
+
+/**
+ * An immutable version of the plan: the modules of every term and the exempted modules.
+ * <p>
+ * Versions share every term and exempted list they have in common with the version they
+ * were taken after, so keeping many of them costs memory for what changed between them only.
+ * </p>
+ */
+public final class PlanVersion {
+    private final List<List<Module>> terms;
+    private final List<String> exemptedModules;
+
+    PlanVersion(List<List<Module>> terms, List<String> exemptedModules) {
+        this.terms = terms;
+        this.exemptedModules = exemptedModules;
+    }
+
+    /** @return the read-only modules of every term, by term ordinal */
+    public List<List<Module>> getTerms() {
+        return terms;
+    }
+
+    /** @return the read-only exempted module codes */
+    public List<String> getExemptedModules() {
+        return exemptedModules;
+    }
+}
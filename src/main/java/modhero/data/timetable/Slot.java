@@ -0,0 +1,55 @@
+package modhero.data.timetable;
+
+/**
+ * Represents the position of a module in the timetable.
+ * Both the year and the term are 0-based indices.
+ */
+public final class Slot {
+    private final int year;
+    private final int term;
+
+    public Slot(int year, int term) {
+        this.year = year;
+        this.term = term;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getTerm() {
+        return term;
+    }
+
+    /**
+     * Checks whether this slot comes strictly after another slot.
+     *
+     * @param other the slot to compare with
+     * @return true if this slot is in a later year, or a later term of the same year
+     */
+    public boolean isAfter(Slot other) {
+        return year > other.year || (year == other.year && term > other.term);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Slot)) {
+            return false;
+        }
+        Slot slot = (Slot) obj;
+        return year == slot.year && term == slot.term;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * year + term;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Y%dS%d", year + 1, term + 1);
+    }
+}
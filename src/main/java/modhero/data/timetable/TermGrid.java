@@ -0,0 +1,286 @@
+package modhero.data.timetable;
+
+import modhero.data.modules.Module;
+import modhero.data.modules.ModuleIdSet;
+import modhero.data.modules.ModuleSymbolTable;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Stores modules in a flat array of terms indexed by term ordinal,
+ * where the ordinal of a term is {@code year * termsPerYear + term}.
+ * <p>
+ * Alongside the terms, the grid keeps one prefix bitset per ordinal holding every
+ * module taken before that term, so "modules before term t" never needs a copy.
+ * The number of years and terms per year (e.g. two semesters plus two special
+ * terms) are fixed at construction.
+ * </p>
+ * <p>
+ * Each term is an immutable list that a change replaces rather than modifies, so a
+ * {@link #snapshotTerms()} costs one reference per term and shares every unchanged
+ * term with the grid and with other snapshots.
+ * </p>
+ */
+public class TermGrid {
+    private final int yearCount;
+    private final int termsPerYear;
+    private final List<List<Module>> terms;
+    // prefixIds[t] holds the IDs of every module in terms 0 .. t-1
+    private final ModuleIdSet[] prefixIds;
+
+    /**
+     * Creates an empty grid.
+     *
+     * @param yearCount the number of academic years
+     * @param termsPerYear the number of terms in each year
+     */
+    public TermGrid(int yearCount, int termsPerYear) {
+        assert yearCount > 0 && termsPerYear > 0 : "TermGrid dimensions must be positive";
+
+        this.yearCount = yearCount;
+        this.termsPerYear = termsPerYear;
+        this.terms = new ArrayList<>();
+        for (int ordinal = 0; ordinal < getTermCount(); ordinal++) {
+            terms.add(List.of());
+        }
+        this.prefixIds = new ModuleIdSet[getTermCount() + 1];
+        for (int ordinal = 0; ordinal <= getTermCount(); ordinal++) {
+            prefixIds[ordinal] = new ModuleIdSet();
+        }
+    }
+
+    public int getYearCount() {
+        return yearCount;
+    }
+
+    public int getTermsPerYear() {
+        return termsPerYear;
+    }
+
+    /** @return the total number of terms across all years */
+    public int getTermCount() {
+        return yearCount * termsPerYear;
+    }
+
+    /**
+     * Checks whether a 0-based year and term fall inside the grid.
+     *
+     * @param year the year index (0-based)
+     * @param term the term index (0-based)
+     * @return true if the slot exists
+     */
+    public boolean isInBounds(int year, int term) {
+        return year >= 0 && year < yearCount && term >= 0 && term < termsPerYear;
+    }
+
+    /**
+     * Returns the ordinal of a 0-based year and term.
+     *
+     * @param year the year index (0-based)
+     * @param term the term index (0-based)
+     * @return the term ordinal
+     */
+    public int ordinalOf(int year, int term) {
+        assert isInBounds(year, term) : "ordinalOf slot out of bounds";
+        return year * termsPerYear + term;
+    }
+
+    /**
+     * Returns the ordinal of a slot.
+     *
+     * @param slot the slot
+     * @return the term ordinal
+     */
+    public int ordinalOf(Slot slot) {
+        return ordinalOf(slot.getYear(), slot.getTerm());
+    }
+
+    /**
+     * Returns the modules of one term.
+     *
+     * @param ordinal the term ordinal
+     * @return the read-only list of modules in the term
+     */
+    public List<Module> getTerm(int ordinal) {
+        return terms.get(ordinal);
+    }
+
+    /**
+     * Adds a module to a term and to the prefix sets of every later term.
+     *
+     * @param ordinal the term ordinal
+     * @param module the module to add
+     */
+    public void add(int ordinal, Module module) {
+        List<Module> term = terms.get(ordinal);
+        List<Module> updated = new ArrayList<>(term.size() + 1);
+        updated.addAll(term);
+        updated.add(module);
+        terms.set(ordinal, Collections.unmodifiableList(updated));
+        int id = ModuleSymbolTable.intern(module.getCode());
+        for (int later = ordinal + 1; later <= getTermCount(); later++) {
+            prefixIds[later].add(id);
+        }
+    }
+
+    /**
+     * Removes a module from a term and from the prefix sets of every later term.
+     *
+     * @param ordinal the term ordinal
+     * @param module the module to remove
+     * @return true if the module was in the term
+     */
+    public boolean remove(int ordinal, Module module) {
+        List<Module> term = terms.get(ordinal);
+        int index = term.indexOf(module);
+        if (index < 0) {
+            return false;
+        }
+        List<Module> updated = new ArrayList<>(term);
+        updated.remove(index);
+        terms.set(ordinal, Collections.unmodifiableList(updated));
+        int id = ModuleSymbolTable.intern(module.getCode());
+        for (int later = ordinal + 1; later <= getTermCount(); later++) {
+            prefixIds[later].remove(id);
+        }
+        return true;
+    }
+
+    /**
+     * Removes every module from the grid.
+     */
+    public void clear() {
+        for (int ordinal = 0; ordinal < getTermCount(); ordinal++) {
+            terms.set(ordinal, List.of());
+        }
+        for (ModuleIdSet ids : prefixIds) {
+            ids.clear();
+        }
+    }
+
+    /**
+     * Returns the terms as they are now. Later changes to the grid do not affect the snapshot.
+     *
+     * @return the read-only modules of every term, by ordinal
+     */
+    public List<List<Module>> snapshotTerms() {
+        return List.copyOf(terms);
+    }
+
+    /**
+     * Replaces every term with those of a snapshot taken by {@link #snapshotTerms()}.
+     *
+     * @param snapshot the modules of every term, by ordinal
+     */
+    public void restoreTerms(List<List<Module>> snapshot) {
+        assert snapshot.size() == getTermCount() : "restoreTerms snapshot has a different number of terms";
+
+        clear();
+        for (int ordinal = 0; ordinal < getTermCount(); ordinal++) {
+            List<Module> term = snapshot.get(ordinal);
+            terms.set(ordinal, term);
+            for (Module module : term) {
+                int id = ModuleSymbolTable.intern(module.getCode());
+                for (int later = ordinal + 1; later <= getTermCount(); later++) {
+                    prefixIds[later].add(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the IDs of every module taken before a term.
+     * The returned set is shared with the grid and must not be modified.
+     *
+     * @param ordinal the term ordinal; {@link #getTermCount()} selects the whole plan
+     * @return the prefix set of module IDs
+     */
+    public ModuleIdSet idsBefore(int ordinal) {
+        return prefixIds[ordinal];
+    }
+
+    /**
+     * Returns a read-only view of the modules in terms {@code from} (inclusive)
+     * to {@code to} (exclusive), in term order. No modules are copied.
+     *
+     * @param from the first term ordinal
+     * @param to the term ordinal to stop before
+     * @return the view of modules
+     */
+    public List<Module> modulesBetween(int from, int to) {
+        return new TermRangeView(from, to);
+    }
+
+    /**
+     * Returns a read-only view of every module in term order.
+     *
+     * @return the view of modules
+     */
+    public List<Module> allModules() {
+        return modulesBetween(0, getTermCount());
+    }
+
+    /**
+     * A read-only list spanning consecutive terms of the grid.
+     */
+    private class TermRangeView extends AbstractList<Module> {
+        private final int from;
+        private final int to;
+
+        private TermRangeView(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Module get(int index) {
+            int remaining = index;
+            for (int ordinal = from; ordinal < to; ordinal++) {
+                List<Module> term = terms.get(ordinal);
+                if (remaining < term.size()) {
+                    return term.get(remaining);
+                }
+                remaining -= term.size();
+            }
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        }
+
+        @Override
+        public Iterator<Module> iterator() {
+            return new Iterator<>() {
+                private int ordinal = from;
+                private Iterator<Module> current = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!current.hasNext() && ordinal < to) {
+                        current = terms.get(ordinal++).iterator();
+                    }
+                    return current.hasNext();
+                }
+
+                @Override
+                public Module next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return current.next();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (int ordinal = from; ordinal < to; ordinal++) {
+                size += terms.get(ordinal).size();
+            }
+            return size;
+        }
+    }
+}
@@ -9,12 +9,23 @@ import modhero.exceptions.ModHeroException;
 import modhero.exceptions.ModuleAlreadyExemptedException;
 import modhero.exceptions.ModuleAlreadyExistsException;
 import modhero.exceptions.ModuleDeletionBlockedException;
+import modhero.exceptions.ModuleMoveBlockedException;
 import modhero.exceptions.ModuleNotFoundException;
 import modhero.data.modules.Module;
+import modhero.data.modules.ModuleIdSet;
+import modhero.data.modules.ModuleSymbolTable;
+import modhero.data.modules.PreclusionIndex;
 import modhero.exceptions.ModuleAdditionBlockedException;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -25,26 +36,56 @@ import java.util.logging.Logger;
 public class Timetable {
     public static final Logger logger = Logger.getLogger(Timetable.class.getName());
 
-    private List<List<List<Module>>> timetable;
+    private static final String WILDCARD = "%";
+
+    private final TermGrid grid;
+
+    // Prerequisite code -> modules in the plan whose prerequisite tree references it
+    private final Map<String, Set<Module>> dependentsByPrereq = new HashMap<>();
+    // Wildcard prefix (e.g. CS2 for CS2%) -> modules in the plan referencing it
+    private final Map<String, Set<Module>> dependentsByWildcard = new HashMap<>();
+    // Upper-cased module code -> slot, kept in sync with the grid
+    private final Map<String, Slot> slotsByCode = new HashMap<>();
+    private PreclusionIndex preclusionIndex = new PreclusionIndex();
 
     /**
-     * Creates a timetable structure for the specified number of years and terms.
-     * Each year contains a list of terms, which in turn contain modules.
-     *
+     * Creates a timetable with the default number of years and terms.
      */
     public Timetable() {
-        timetable = new ArrayList<>();
+        this(AcademicConstants.NUM_YEARS, AcademicConstants.NUM_TERMS);
+    }
 
-        // Initialize the timetable
-        for (int year = 0; year < AcademicConstants.NUM_YEARS; year++) {
-            List<List<Module>> yearSemesters = new ArrayList<>();
-            for (int sem = 0; sem < AcademicConstants.NUM_TERMS; sem++) {
-                yearSemesters.add(new ArrayList<>()); // each semester starts empty
-            }
-            timetable.add(yearSemesters);
-        }
+    /**
+     * Creates a timetable for the specified number of years and terms per year.
+     *
+     * @param yearCount    the number of academic years
+     * @param termsPerYear the number of terms in each year, including special terms
+     */
+    public Timetable(int yearCount, int termsPerYear) {
+        grid = new TermGrid(yearCount, termsPerYear);
+
+        logger.log(Level.FINE, () -> String.format("Timetable initialised for %d years and %d terms", yearCount, termsPerYear));
+    }
 
-        logger.log(Level.FINE, () -> String.format("Timetable initialised for %d years and %d terms", AcademicConstants.NUM_YEARS, AcademicConstants.NUM_TERMS));
+    /**
+     * Replaces the preclusion index, typically with one shared by the whole module catalog.
+     * Modules already in the timetable are registered in the new index.
+     *
+     * @param preclusionIndex the index to check preclusions against
+     */
+    public void setPreclusionIndex(PreclusionIndex preclusionIndex) {
+        assert preclusionIndex != null : "setPreclusionIndex index must not be null";
+
+        this.preclusionIndex = preclusionIndex;
+        preclusionIndex.registerAll(grid.allModules());
+    }
+
+    public int getYearCount() {
+        return grid.getYearCount();
+    }
+
+    public int getTermsPerYear() {
+        return grid.getTermsPerYear();
     }
 
     /**
@@ -56,8 +97,7 @@ public class Timetable {
      */
     public void addModule(int year, int semester, Module module, List<String> exemptedModules) throws ModHeroException {
         // Bounds check
-        if (year < 1 || year > AcademicConstants.NUM_YEARS ||
-                semester < 1 || semester > AcademicConstants.NUM_TERMS) {
+        if (!grid.isInBounds(year - 1, semester - 1)) {
             throw new InvalidYearOrSemException(year, semester);
         }
 
@@ -70,7 +110,7 @@ public class Timetable {
 
     private void checkModuleAddable(int year, int semester, Module moduleToAdd, List<String> exemptedModules) throws ModHeroException {
         // If module already exists in the Timetable
-        if (getAllModules().stream().anyMatch(m -> m.getCode().equalsIgnoreCase(moduleToAdd.getCode()))) {
+        if (contains(moduleToAdd.getCode())) {
             throw new ModuleAlreadyExistsException(moduleToAdd.getCode());
         }
 
@@ -80,14 +120,190 @@ public class Timetable {
         }
 
         // Preclusion check
-        List<Module> allExistingModules = getAllModules(); // Get all modules first
-        PreclusionUtil.validatePreclusions(moduleToAdd, allExistingModules);
+        PreclusionUtil.validatePreclusions(moduleToAdd, preclusionIndex, slotsByCode.keySet());
 
         // Check whether meeting prerequisite
-        List<Module> completedModules = getModulesTakenUpTo(year - 1, semester - 1);
-        List<String> completedCodes = completedModules.stream().map(Module::getCode).toList();
+        ModuleIdSet completed = grid.idsBefore(grid.ordinalOf(year - 1, semester - 1));
+        PrerequisiteUtil.validatePrerequisites(moduleToAdd.getCode(), moduleToAdd.getPrerequisites(),
+                completed, ModuleIdSet.of(exemptedModules));
+    }
+
+    /**
+     * Adds several modules as one change, performing the same checks as {@link #addModule}.
+     * The modules are added in prerequisite order, so a module may rely on another module of
+     * the batch placed in an earlier term. If any module cannot be added, none of them are.
+     *
+     * @param placements the modules to add with their slots (0-based), in the order given by the user
+     * @param exemptedModules the codes of the exempted modules
+     * @throws ModHeroException if any module cannot be added, describing the first one that failed
+     */
+    public void addModules(Map<Module, Slot> placements, List<String> exemptedModules) throws ModHeroException {
+        for (Slot slot : placements.values()) {
+            if (!grid.isInBounds(slot.getYear(), slot.getTerm())) {
+                throw new InvalidYearOrSemException(slot.getYear() + 1, slot.getTerm() + 1);
+            }
+        }
+
+        List<Module> added = new ArrayList<>();
+        try {
+            for (Module module : sortByPrerequisites(placements.keySet())) {
+                Slot slot = placements.get(module);
+                checkModuleAddable(slot.getYear() + 1, slot.getTerm() + 1, module, exemptedModules);
+                addModuleDirect(slot.getYear(), slot.getTerm(), module);
+                added.add(module);
+            }
+        } catch (ModHeroException e) {
+            for (int i = added.size() - 1; i >= 0; i--) {
+                Slot slot = placements.get(added.get(i));
+                deleteModuleDirect(slot.getYear(), slot.getTerm(), added.get(i).getCode());
+            }
+            logger.log(Level.FINE, () -> "Batch add rolled back: " + e.getMessage());
+            throw e;
+        }
+        logger.log(Level.FINE, () -> String.format("Added %d modules as one batch", added.size()));
+    }
+
+    /**
+     * Orders modules so that every module comes after the modules of the same batch that its
+     * prerequisites refer to, keeping the given order otherwise. Modules in a prerequisite cycle
+     * are left in the given order, where the usual checks will reject them.
+     *
+     * @param modules the modules to order
+     * @return the modules in prerequisite order
+     */
+    static List<Module> sortByPrerequisites(Collection<Module> modules) {
+        Map<Module, Integer> pendingCounts = new LinkedHashMap<>();
+        Map<Module, List<Module>> dependentsOf = new HashMap<>();
+        for (Module module : modules) {
+            int count = 0;
+            for (Module other : modules) {
+                if (other != module && refersTo(module, other.getCode())) {
+                    dependentsOf.computeIfAbsent(other, k -> new ArrayList<>()).add(module);
+                    count++;
+                }
+            }
+            pendingCounts.put(module, count);
+        }
+
+        List<Module> sorted = new ArrayList<>();
+        while (!pendingCounts.isEmpty()) {
+            Module next = null;
+            for (Map.Entry<Module, Integer> entry : pendingCounts.entrySet()) {
+                if (entry.getValue() == 0) {
+                    next = entry.getKey();
+                    break;
+                }
+            }
+            if (next == null) {
+                sorted.addAll(pendingCounts.keySet());
+                break;
+            }
+            pendingCounts.remove(next);
+            sorted.add(next);
+            for (Module dependent : dependentsOf.getOrDefault(next, List.of())) {
+                pendingCounts.computeIfPresent(dependent, (k, count) -> count - 1);
+            }
+        }
+        return sorted;
+    }
+
+    private static boolean refersTo(Module module, String moduleCode) {
+        String code = normalise(moduleCode);
+        for (String prereqCode : module.getPrerequisites().getReferencedCodes()) {
+            String prereq = normalise(prereqCode);
+            boolean isMatch = prereq.endsWith(WILDCARD)
+                    ? code.startsWith(prereq.substring(0, prereq.length() - 1))
+                    : code.equals(prereq);
+            if (isMatch) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks the whole plan in term order, applying the same rules as {@link #addModule} as if
+     * every module had been added one at a time. Nothing is removed from the plan.
+     * Runs in one pass, with each module checked once against the terms before it.
+     *
+     * @param exemptedModules the codes of the exempted modules
+     * @return a message for every violation found, empty if the plan is valid
+     */
+    public List<String> validatePlan(List<String> exemptedModules) {
+        return validatePlan(exemptedModules, null);
+    }
+
+    /**
+     * Checks the whole plan as {@link #validatePlan(List)} does, reusing the results of terms
+     * that are unchanged, along with every term before them, since they were last validated.
+     *
+     * @param exemptedModules the codes of the exempted modules
+     * @param cache the results of earlier validations, or null to validate every term
+     * @return a message for every violation found, empty if the plan is valid
+     */
+    public List<String> validatePlan(List<String> exemptedModules, PlanValidationCache cache) {
+        List<String> violations = new ArrayList<>();
+        Set<String> exemptedCodes = new HashSet<>();
+        for (String code : exemptedModules) {
+            exemptedCodes.add(normalise(code));
+        }
+        ModuleIdSet exempted = ModuleIdSet.of(exemptedModules);
+        Set<String> checkedCodes = new HashSet<>();
+        List<List<Module>> terms = grid.snapshotTerms();
+        int reusedTerms = 0;
+        for (int ordinal = 0; ordinal < grid.getTermCount(); ordinal++) {
+            List<String> termViolations = cache == null ? null : cache.get(exemptedModules, terms, ordinal);
+            if (termViolations == null) {
+                termViolations = validateTerm(ordinal, exemptedCodes, exempted, checkedCodes);
+                if (cache != null) {
+                    cache.put(exemptedModules, terms, ordinal, termViolations);
+                }
+            } else {
+                reusedTerms++;
+            }
+            violations.addAll(termViolations);
+            for (Module module : terms.get(ordinal)) {
+                checkedCodes.add(normalise(module.getCode()));
+            }
+        }
+        int reused = reusedTerms;
+        logger.log(Level.FINE, () -> String.format("Validated plan with %d violations, reusing %d terms",
+                violations.size(), reused));
+        return violations;
+    }
 
-        PrerequisiteUtil.validatePrerequisites(moduleToAdd.getCode(), moduleToAdd.getPrerequisites(), completedCodes, exemptedModules);
+    /**
+     * Checks the modules of one term against the terms before it.
+     *
+     * @param ordinal the term ordinal
+     * @param exemptedCodes the normalised codes of the exempted modules
+     * @param exempted the IDs of the exempted modules
+     * @param checkedCodes the normalised codes of the modules in earlier terms, extended with this term's
+     * @return a message for every violation found in the term
+     */
+    private List<String> validateTerm(int ordinal, Set<String> exemptedCodes, ModuleIdSet exempted,
+                                      Set<String> checkedCodes) {
+        List<String> violations = new ArrayList<>();
+        ModuleIdSet completed = grid.idsBefore(ordinal);
+        for (Module module : grid.getTerm(ordinal)) {
+            if (exemptedCodes.contains(normalise(module.getCode()))) {
+                violations.add(new ModuleAlreadyExemptedException(module.getCode()).getMessage());
+            }
+            try {
+                // Checking only against earlier modules reports each conflicting pair once
+                PreclusionUtil.validatePreclusions(module, preclusionIndex, checkedCodes);
+            } catch (ModHeroException e) {
+                violations.add(e.getMessage());
+            }
+            try {
+                PrerequisiteUtil.validatePrerequisites(module.getCode(), module.getPrerequisites(),
+                        completed, exempted);
+            } catch (ModHeroException e) {
+                violations.add(e.getMessage());
+            }
+            checkedCodes.add(normalise(module.getCode()));
+        }
+        return violations;
     }
 
     /**
@@ -99,7 +315,12 @@ public class Timetable {
      * @param module the module to add
      */
     public void addModuleDirect(int year, int term, Module module) {
-        timetable.get(year).get(term).add(module);
+        assert module != null : "addModuleDirect module must not be null";
+
+        grid.add(grid.ordinalOf(year, term), module);
+        slotsByCode.put(normalise(module.getCode()), new Slot(year, term));
+        preclusionIndex.register(module);
+        indexDependent(module);
         logger.log(Level.FINEST, () -> String.format("Module %s added to year %d term %d", module.getCode(), year, term));
     }
 
@@ -123,6 +344,96 @@ public class Timetable {
         deleteModuleDirect(year, semester, moduleCode);
     }
 
+    /**
+     * Moves a module to another year and semester as one change. Only the module's own
+     * prerequisites at the new slot are checked, along with the dependents it would no longer
+     * be taken before. If any check fails, the timetable is left unchanged.
+     *
+     * @param moduleCode the code of the module to move
+     * @param year       the academic year to move to (1-based)
+     * @param semester   the semester to move to (1-based)
+     * @param exemptedModules the codes of the exempted modules
+     * @return false if the module is already in that year and semester
+     * @throws ModuleNotFoundException if the module is not in the timetable
+     * @throws InvalidYearOrSemException if the year or semester is out of bounds
+     * @throws ModuleAdditionBlockedException if the module's prerequisites are not met at the new slot
+     * @throws ModuleMoveBlockedException if a dependent would no longer come after the module
+     */
+    public boolean moveModule(String moduleCode, int year, int semester, List<String> exemptedModules)
+            throws ModHeroException {
+        if (!grid.isInBounds(year - 1, semester - 1)) {
+            throw new InvalidYearOrSemException(year, semester);
+        }
+        Slot from = getSlot(moduleCode);
+        if (from == null) {
+            throw new ModuleNotFoundException(moduleCode, "timetable");
+        }
+        int fromOrdinal = grid.ordinalOf(from);
+        int toOrdinal = grid.ordinalOf(year - 1, semester - 1);
+        if (fromOrdinal == toOrdinal) {
+            return false;
+        }
+
+        Module module = findInTerm(fromOrdinal, moduleCode);
+        ModuleIdSet exempted = ModuleIdSet.of(exemptedModules);
+        checkModuleMovable(module, fromOrdinal, toOrdinal, exempted);
+
+        grid.remove(fromOrdinal, module);
+        grid.add(toOrdinal, module);
+        slotsByCode.put(normalise(module.getCode()), new Slot(year - 1, semester - 1));
+        logger.log(Level.FINEST, () -> String.format("Module %s moved to year %d semester %d",
+                moduleCode, year, semester));
+        return true;
+    }
+
+    /**
+     * Checks a move without changing the plan. The module's own prerequisites only need checking
+     * against the terms before its new slot, and only dependents in terms after its old slot up to
+     * and including its new slot lose it as a completed module.
+     *
+     * @param module the module to move
+     * @param fromOrdinal the ordinal of its current term
+     * @param toOrdinal the ordinal of its new term
+     * @param exempted the IDs of the exempted modules
+     * @throws ModHeroException if the move would break a prerequisite
+     */
+    private void checkModuleMovable(Module module, int fromOrdinal, int toOrdinal, ModuleIdSet exempted)
+            throws ModHeroException {
+        int movedId = ModuleSymbolTable.intern(module.getCode());
+        boolean isMovedLater = toOrdinal > fromOrdinal;
+
+        // Moving later, the module itself is among the terms before its new slot
+        ModuleIdSet completed = isMovedLater
+                ? grid.idsBefore(toOrdinal).without(movedId)
+                : grid.idsBefore(toOrdinal);
+        PrerequisiteUtil.validatePrerequisites(module.getCode(), module.getPrerequisites(), completed, exempted);
+        if (!isMovedLater) {
+            return;
+        }
+
+        for (Module dependent : getDependents(module.getCode())) {
+            int dependentOrdinal = grid.ordinalOf(getSlot(dependent.getCode()));
+            if (dependentOrdinal <= fromOrdinal || dependentOrdinal > toOrdinal) {
+                continue;
+            }
+            try {
+                PrerequisiteUtil.validatePrerequisites(dependent.getCode(), dependent.getPrerequisites(),
+                        grid.idsBefore(dependentOrdinal).without(movedId), exempted);
+            } catch (ModuleAdditionBlockedException e) {
+                throw new ModuleMoveBlockedException(module.getCode(), dependent.getCode());
+            }
+        }
+    }
+
+    private Module findInTerm(int ordinal, String moduleCode) throws ModuleNotFoundException {
+        for (Module module : grid.getTerm(ordinal)) {
+            if (module.getCode().equalsIgnoreCase(moduleCode)) {
+                return module;
+            }
+        }
+        throw new ModuleNotFoundException(moduleCode, "timetable");
+    }
+
     /**
      * Checks if a module can be safely deleted without breaking prerequisites.
      *
@@ -132,16 +443,77 @@ public class Timetable {
      * @throws ModuleDeletionBlockedException if other modules depend on this module
      */
     private void checkModuleDeletable(int year, int semester, String moduleCode, List<String> exemptedModules) throws ModuleDeletionBlockedException {
-        // Get all modules taken after this module
-        List<Module> futureModules = getModulesTakenAfter(year, semester);
+        // Only modules taken after this module that reference it can be affected
+        List<Module> futureDependents = new ArrayList<>();
+        Slot deletedSlot = new Slot(year, semester);
+        for (Module dependent : getDependents(moduleCode)) {
+            Slot dependentSlot = getSlot(dependent.getCode());
+            if (dependentSlot != null && dependentSlot.isAfter(deletedSlot)) {
+                futureDependents.add(dependent);
+            }
+        }
+        if (futureDependents.isEmpty()) {
+            return;
+        }
 
         // Simulate what completed modules would be if we delete this module
         // Include the current semester here
-        List<Module> completedModules = getAllModules();
-        completedModules.removeIf(m -> m.getCode().equals(moduleCode));
-        List<String> completedCodes = completedModules.stream().map(Module::getCode).toList();
+        ModuleIdSet planned = grid.idsBefore(grid.getTermCount()).without(ModuleSymbolTable.idOf(moduleCode));
+        PrerequisiteUtil.validateFutureDependencies(moduleCode, futureDependents, planned, ModuleIdSet.of(exemptedModules));
+    }
+
+    /**
+     * Returns the modules in the plan whose prerequisite tree references the given code,
+     * either directly or through a matching wildcard.
+     *
+     * @param moduleCode the prerequisite module code
+     * @return the dependent modules
+     */
+    public Set<Module> getDependents(String moduleCode) {
+        String normalisedCode = moduleCode.toUpperCase();
+        Set<Module> dependents = new LinkedHashSet<>(dependentsByPrereq.getOrDefault(normalisedCode, Set.of()));
+        for (Map.Entry<String, Set<Module>> entry : dependentsByWildcard.entrySet()) {
+            if (normalisedCode.startsWith(entry.getKey())) {
+                dependents.addAll(entry.getValue());
+            }
+        }
+        return dependents;
+    }
 
-        PrerequisiteUtil.validateFutureDependencies(moduleCode, futureModules, completedCodes, exemptedModules);
+    /**
+     * Registers a module under every prerequisite code it references.
+     *
+     * @param module the module added to the plan
+     */
+    private void indexDependent(Module module) {
+        for (String prereqCode : module.getPrerequisites().getReferencedCodes()) {
+            if (prereqCode.endsWith(WILDCARD)) {
+                String prefix = prereqCode.substring(0, prereqCode.length() - 1);
+                dependentsByWildcard.computeIfAbsent(prefix, k -> new LinkedHashSet<>()).add(module);
+            } else {
+                dependentsByPrereq.computeIfAbsent(prereqCode, k -> new LinkedHashSet<>()).add(module);
+            }
+        }
+    }
+
+    /**
+     * Removes a module from the reverse prerequisite index.
+     *
+     * @param module the module removed from the plan
+     */
+    private void unindexDependent(Module module) {
+        for (String prereqCode : module.getPrerequisites().getReferencedCodes()) {
+            boolean isWildcard = prereqCode.endsWith(WILDCARD);
+            Map<String, Set<Module>> index = isWildcard ? dependentsByWildcard : dependentsByPrereq;
+            String key = isWildcard ? prereqCode.substring(0, prereqCode.length() - 1) : prereqCode;
+            Set<Module> dependents = index.get(key);
+            if (dependents != null) {
+                dependents.remove(module);
+                if (dependents.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
     }
 
     /**
@@ -153,8 +525,14 @@ public class Timetable {
      * @param moduleCode the code of the module to delete
      */
     private void deleteModuleDirect(int year, int semester, String moduleCode) {
-        List<Module> modules = timetable.get(year).get(semester);
-        modules.removeIf(m -> m.getCode().equals(moduleCode));
+        int ordinal = grid.ordinalOf(year, semester);
+        for (Module module : List.copyOf(grid.getTerm(ordinal))) {
+            if (module.getCode().equalsIgnoreCase(moduleCode)) {
+                grid.remove(ordinal, module);
+                unindexDependent(module);
+            }
+        }
+        slotsByCode.remove(normalise(moduleCode));
         logger.log(Level.FINEST, () -> String.format("Module %s deleted from year %d semester %d",
                 moduleCode, year, semester));
     }
@@ -167,76 +545,48 @@ public class Timetable {
      * @author sivanshno
      */
     public int[] findModuleLocation(String moduleCode) throws ModuleNotFoundException {
-        for (int year = 0; year < timetable.size(); year++) {
-            List<List<Module>> yearSemesters = timetable.get(year);
-            for (int term = 0; term < yearSemesters.size(); term++) {
-                List<Module> modules = yearSemesters.get(term);
-                for (Module module : modules) {
-                    if (module.getCode().equals(moduleCode)) {
-                        return new int[]{year, term};
-                    }
-                }
-            }
+        Slot slot = getSlot(moduleCode);
+        if (slot == null) {
+            throw new ModuleNotFoundException(moduleCode, "timetable");
         }
-        throw new ModuleNotFoundException(moduleCode, "timetable");
+        return new int[]{slot.getYear(), slot.getTerm()};
     }
 
     /**
-     * Retrieves the list of modules for a given year and term.
+     * Returns the slot of a module in the timetable, ignoring case.
      *
-     * @param year the year index (0-based)
-     * @param term the term index (0-based)
-     * @return list of modules in the specified term
+     * @param moduleCode the code of the module to find
+     * @return the slot of the module, or null if it is not in the timetable
      */
-    public List<Module> getModules(int year, int term) {
-        assert year >= 0 && year < AcademicConstants.NUM_YEARS : "getModules year out of bounds";
-        assert term >= 0 && term < AcademicConstants.NUM_TERMS : "getModules term out of bounds";
-
-        return timetable.get(year).get(term);
+    public Slot getSlot(String moduleCode) {
+        return slotsByCode.get(normalise(moduleCode));
     }
 
     /**
-     * Retrieves modules relative to a specific year and semester.
-     * Note: This method uses 0-based indices internally.
+     * Checks whether a module is in the timetable, ignoring case.
      *
-     * @param targetYear the target year (0-based)
-     * @param targetSem  the target semester (0-based)
-     * @param range      whether to get modules before or after the target
-     * @return a flat list of modules matching the criteria
+     * @param moduleCode the code of the module to check
+     * @return true if the module is in the timetable
      */
-    private List<Module> getModulesRelativeTo(int targetYear, int targetSem, TimeRange range) {
-        List<Module> modules = new ArrayList<>();
-
-        for (int y = 0; y < AcademicConstants.NUM_YEARS; y++) {
-            for (int s = 0; s < AcademicConstants.NUM_TERMS; s++) {
-                boolean shouldInclude;
-
-                if (range == TimeRange.BEFORE) {
-                    // Include if (year < target) OR (same year AND semester < target)
-                    shouldInclude = (y < targetYear) || (y == targetYear && s < targetSem);
-                } else { // TimeRange.AFTER
-                    // Include if (year > target) OR (same year AND semester > target)
-                    shouldInclude = (y > targetYear) || (y == targetYear && s > targetSem);
-                }
-
-                if (shouldInclude) {
-                    try {
-                        modules.addAll(timetable.get(y).get(s));
-                    } catch (IndexOutOfBoundsException e) {
-                        logger.log(Level.WARNING, "Error accessing timetable slot: Y" + y + " S" + s, e);
-                    }
-                }
-            }
-        }
-        return modules;
+    public boolean contains(String moduleCode) {
+        return slotsByCode.containsKey(normalise(moduleCode));
     }
 
-    private List<Module> getModulesTakenUpTo(int targetYear, int targetSem) {
-        return getModulesRelativeTo(targetYear, targetSem, TimeRange.BEFORE);
+    private static String normalise(String moduleCode) {
+        return moduleCode.toUpperCase();
     }
 
-    private List<Module> getModulesTakenAfter(int targetYear, int targetSem) {
-        return getModulesRelativeTo(targetYear, targetSem, TimeRange.AFTER);
+    /**
+     * Retrieves the list of modules for a given year and term.
+     *
+     * @param year the year index (0-based)
+     * @param term the term index (0-based)
+     * @return list of modules in the specified term
+     */
+    public List<Module> getModules(int year, int term) {
+        assert grid.isInBounds(year, term) : "getModules slot out of bounds";
+
+        return grid.getTerm(grid.ordinalOf(year, term));
     }
 
     /**
@@ -245,13 +595,7 @@ public class Timetable {
      * @return a flat list of all modules
      */
     public List<Module> getAllModules() {
-        List<Module> all = new ArrayList<>();
-        for (List<List<Module>> year : timetable) {
-            for (List<Module> term : year) {
-                all.addAll(term);
-            }
-        }
-        return all;
+        return new ArrayList<>(grid.allModules());
     }
 
     /**
@@ -259,35 +603,98 @@ public class Timetable {
      * organized by year and term in table format.
      */
     public void printTimetable() {
-        for (int year = 0; year < timetable.size(); year++) {
-            System.out.println("+--------------------+--------------------+");
+        int termsPerYear = grid.getTermsPerYear();
+        String border = "+" + "--------------------+".repeat(termsPerYear);
+        String rowFormat = "|" + "%-20s|".repeat(termsPerYear) + "\n";
+
+        for (int year = 0; year < grid.getYearCount(); year++) {
+            System.out.println(border);
             String yearTitle = "YEAR " + (year + 1);
-            System.out.printf("%22s\n", yearTitle);
-            System.out.println("+--------------------+--------------------+");
-            System.out.printf("|%-20s|%-20s|\n", "Semester 1", "Semester 2");
-            System.out.println("+--------------------+--------------------+");
+            System.out.printf("%" + (border.length() / 2 + 1) + "s\n", yearTitle);
+            System.out.println(border);
+            Object[] headers = new Object[termsPerYear];
+            for (int term = 0; term < termsPerYear; term++) {
+                headers[term] = getTermName(term);
+            }
+            System.out.printf(rowFormat, headers);
+            System.out.println(border);
 
-            List<List<Module>> semesters = timetable.get(year);
-            int maxRows = Math.max(semesters.get(0).size(), semesters.get(1).size());
+            int maxRows = 0;
+            for (int term = 0; term < termsPerYear; term++) {
+                maxRows = Math.max(maxRows, getModules(year, term).size());
+            }
 
             for (int row = 0; row < maxRows; row++) {
-                String s1 = row < semesters.get(0).size() ? semesters.get(0).get(row).getCode() : "";
-                String s2 = row < semesters.get(1).size() ? semesters.get(1).get(row).getCode() : "";
-                System.out.printf("|%-20s|%-20s|\n", s1, s2);
+                Object[] cells = new Object[termsPerYear];
+                for (int term = 0; term < termsPerYear; term++) {
+                    List<Module> modules = getModules(year, term);
+                    cells[term] = row < modules.size() ? modules.get(row).getCode() : "";
+                }
+                System.out.printf(rowFormat, cells);
             }
 
-            System.out.println("+--------------------+--------------------+\n");
+            System.out.println(border + "\n");
         }
     }
 
     /**
-     * Removes all modules from the entire timetable.
+     * Returns the column heading of a term; terms after the two regular semesters are special terms.
+     *
+     * @param term the term index (0-based)
+     * @return the term heading
      */
-    public void clearTimetable() {
-        for (List<List<Module>> year : timetable) {
-            for (List<Module> sem : year) {
-                sem.clear();
+    private static String getTermName(int term) {
+        if (term < AcademicConstants.NUM_TERMS) {
+            return "Semester " + (term + 1);
+        }
+        return "Special Term " + (term - AcademicConstants.NUM_TERMS + 1);
+    }
+
+    /**
+     * Returns the current plan as an immutable version, sharing every term with the timetable.
+     *
+     * @param exemptedModules the exempted module codes
+     * @param previous the version taken before, whose exempted list is reused if unchanged, or null
+     * @return the version
+     */
+    public PlanVersion toVersion(List<String> exemptedModules, PlanVersion previous) {
+        List<String> exempted = previous != null && previous.getExemptedModules().equals(exemptedModules)
+                ? previous.getExemptedModules()
+                : List.copyOf(exemptedModules);
+        return new PlanVersion(grid.snapshotTerms(), exempted);
+    }
+
+    /**
+     * Replaces the plan with a version taken by {@link #toVersion}.
+     *
+     * @param version the version to restore
+     * @param exemptedModules the exempted module codes, replaced by those of the version
+     */
+    public void restore(PlanVersion version, List<String> exemptedModules) {
+        assert version != null : "restore version must not be null";
+
+        clearTimetable();
+        grid.restoreTerms(version.getTerms());
+        int termsPerYear = grid.getTermsPerYear();
+        for (int ordinal = 0; ordinal < grid.getTermCount(); ordinal++) {
+            for (Module module : grid.getTerm(ordinal)) {
+                slotsByCode.put(normalise(module.getCode()), new Slot(ordinal / termsPerYear, ordinal % termsPerYear));
+                preclusionIndex.register(module);
+                indexDependent(module);
             }
         }
+        exemptedModules.clear();
+        exemptedModules.addAll(version.getExemptedModules());
+        logger.log(Level.FINE, "Timetable restored to an earlier version");
+    }
+
+    /**
+     * Removes all modules from the entire timetable.
+     */
+    public void clearTimetable() {
+        grid.clear();
+        slotsByCode.clear();
+        dependentsByPrereq.clear();
+        dependentsByWildcard.clear();
     }
 }
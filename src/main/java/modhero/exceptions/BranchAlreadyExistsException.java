@@ -0,0 +1,7 @@
+package modhero.exceptions;
+
+public class BranchAlreadyExistsException extends ModHeroException {
+    public BranchAlreadyExistsException(String branchName) {
+        super("A branch named " + branchName + " already exists!");
+    }
+}
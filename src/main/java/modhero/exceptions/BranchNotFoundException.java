@@ -0,0 +1,7 @@
+package modhero.exceptions;
+
+public class BranchNotFoundException extends ModHeroException {
+    public BranchNotFoundException(String branchName) {
+        super("There is no branch named " + branchName + ".");
+    }
+}
@@ -0,0 +1,18 @@
+package modhero.exceptions;
+
+/**
+ * Exception thrown when moving a module would place it at or after a module
+ * that requires it as a prerequisite.
+ */
+public class ModuleMoveBlockedException extends ModHeroException {
+    /**
+     * Constructs a {@code ModuleMoveBlockedException} with the moved module and its dependent.
+     *
+     * @param moduleCode the code of the module being moved
+     * @param dependentModule the module that would no longer be taken after it
+     */
+    public ModuleMoveBlockedException(String moduleCode, String dependentModule) {
+        super(String.format("Cannot move %s there as it is a prerequisite for %s, which would no longer come after it",
+                moduleCode, dependentModule));
+    }
+}
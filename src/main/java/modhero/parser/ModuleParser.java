@@ -1,9 +1,11 @@
 package modhero.parser;
 
-import modhero.common.util.JsonUtil;
+import modhero.common.util.JsonReader;
+import modhero.data.modules.PrereqNode;
 import modhero.data.modules.Prerequisites;
 import modhero.data.modules.Module;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
@@ -32,17 +34,60 @@ public class ModuleParser {
         if (json == null) {
             return null;
         }
+        try {
+            return readModule(new JsonReader(json));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to parse module JSON", e);
+            return null;
+        }
+    }
 
-        // Use static methods from JsonUtil
-        String code = JsonUtil.getArg(json, CODE);
-        String name = JsonUtil.getArg(json, NAME);
-        String mc = JsonUtil.getArg(json, MC);
-        String preclude = JsonUtil.getArg(json, PRECLUDE);
-        String prereq = JsonUtil.getArg(json, PREREQ);
+    /**
+     * Parses the next module object from a JSON reader in a single pass.
+     * Fields other than the ones ModHero uses, such as semester data, are skipped without being built.
+     *
+     * @param reader the reader positioned before the module object
+     * @return a Module, or null if required fields are missing
+     * @throws IOException if the JSON cannot be read or is malformed
+     */
+    public Module readModule(JsonReader reader) throws IOException {
+        String code = null;
+        String name = null;
+        String mc = null;
+        String preclude = null;
+        PrereqNode prereqTree = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+            case CODE:
+                code = nextStringOrNull(reader);
+                break;
+            case NAME:
+                name = nextStringOrNull(reader);
+                break;
+            case MC:
+                mc = nextStringOrNull(reader);
+                break;
+            case PRECLUDE:
+                preclude = nextStringOrNull(reader);
+                break;
+            case PREREQ:
+                prereqTree = parsePrereqTree(reader);
+                break;
+            default:
+                reader.skipValue();
+                break;
+            }
+        }
+        reader.endObject();
 
         if (!isValidRawData(code, name, mc)) {
+            String finalCode = code;
+            String finalName = name;
+            String finalMc = mc;
             logger.log(Level.WARNING, () ->
-                    String.format("Module retrieved contains null %s, %s, %s", code, name, mc)
+                    String.format("Module retrieved contains null %s, %s, %s", finalCode, finalName, finalMc)
             );
             return null;
         }
@@ -57,15 +102,30 @@ public class ModuleParser {
             preclude = "";
         }
 
-        Prerequisites parsedPrereqObj = new Prerequisites();
-        if (prereq != null) {
-            List<List<String>> parsedPrereq = parsePrereq(prereq);
-            parsedPrereqObj = new Prerequisites(parsedPrereq);
-        }
+        Prerequisites parsedPrereqObj = new Prerequisites(prereqTree);
 
         return new Module(code, name, parsedMc, "core", preclude, parsedPrereqObj);
     }
 
+    /**
+     * Reads a scalar value as a string, skipping objects and arrays.
+     *
+     * @param reader the reader positioned before the value
+     * @return the value, or null if it is null or not a scalar
+     * @throws IOException if the JSON cannot be read or is malformed
+     */
+    private static String nextStringOrNull(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+        case STRING:
+        case NUMBER:
+        case BOOLEAN:
+            return reader.nextString();
+        default:
+            reader.skipValue();
+            return null;
+        }
+    }
+
     /**
      * Validates that all required raw data fields are non-null.
      *
@@ -98,128 +158,80 @@ public class ModuleParser {
     }
 
     /**
-     * Recursively parses a prerequisite tree JSON string and extracts all valid module code combinations.
-     * The JSON structure contains nested "or" and "and" logical operators with module code leaves.
+     * Parses a prerequisite tree JSON string and expands it into all valid module code combinations.
      *
      * @param json The prerequisite tree as a JSON string from NUSMods API.
      * @return A list of lists, where each inner list represents one valid combination of module codes that satisfies the prerequisite requirement.
      */
     public static List<List<String>> parsePrereq(String json) {
-        if (json == null || json.equals("null") || json.isEmpty()) {
-            return new ArrayList<>();
-        }
-        json = json.trim();
-        // Parse JSON object (either "or" or "and")
-        if (json.startsWith("{")) {
-            int fieldNameStart = json.indexOf('\"') + 1;
-            int fieldNameEnd = json.indexOf('\"', fieldNameStart);
-            String logicOperator = json.substring(fieldNameStart, fieldNameEnd);
-            String childArrayText = extractArrayValue(json);
-
-            List<List<String>> parsedCombinations = new ArrayList<>();
-            if (logicOperator.equals("or")) {
-                // OR: collect all child combinations as separate options
-                List<String> childBranches = splitTopLevel(childArrayText.substring(1, childArrayText.length() - 1), ',');
-                for (String branch : childBranches) {
-                    parsedCombinations.addAll(parsePrereq(branch.trim()));
-                }
-            } else if (logicOperator.equals("and")) {
-                // AND: compute cartesian product of all child combinations
-                List<String> childBranches = splitTopLevel(childArrayText.substring(1, childArrayText.length() - 1), ',');
-                List<List<List<String>>> childCombinationsGroups = new ArrayList<>();
-                for (String branch : childBranches) {
-                    childCombinationsGroups.add(parsePrereq(branch.trim()));
-                }
-                parsedCombinations = cartesianProduct(childCombinationsGroups);
-            }
-            return parsedCombinations;
-        } else {
-            // Parse leaf node (module code string like "CS2113:D")
-            String moduleCode = json.replaceAll("[\"']", "").split(":")[0];
-            List<String> singleCombo = new ArrayList<>();
-            singleCombo.add(moduleCode);
-            List<List<String>> result = new ArrayList<>();
-            result.add(singleCombo);
-            return result;
-        }
+        PrereqNode root = parsePrereqTree(json);
+        return root == null ? new ArrayList<>() : root.toOptions();
     }
 
     /**
-     * Extracts the array value (including brackets) from a JSON object string.
-     * Finds the first '[' and last ']' and returns the substring between them (inclusive).
+     * Parses a prerequisite tree JSON string into a shared {@link PrereqNode} tree.
      *
-     * @param jsonObject A JSON object string containing an array value.
-     * @return The array portion of the JSON string, including the brackets.
-     */
-    private static String extractArrayValue(String jsonObject) {
-        int arrayStart = jsonObject.indexOf('[');
-        int arrayEnd = jsonObject.lastIndexOf(']');
-        return jsonObject.substring(arrayStart, arrayEnd + 1);
-    }
-
-    /**
-     * Splits a string by a delimiter, but only at the top level (ignoring delimiters inside nested structures).
-     * This method respects quoted strings and nested JSON objects/arrays.
-     *
-     * @param input The string to split (typically the content inside a JSON array).
-     * @param delimiter The character to split by (typically ',').
-     * @return A list of substrings split at top-level delimiters only.
+     * @param json The prerequisite tree as a JSON string from NUSMods API.
+     * @return The root of the prerequisite tree, or null if there are no prerequisites.
      */
-    private static List<String> splitTopLevel(String input, char delimiter) {
-        List<String> elements = new ArrayList<>();
-        StringBuilder currentElement = new StringBuilder();
-        int nestingDepth = 0;
-        boolean insideQuotes = false;
-        for (int i = 0; i < input.length(); ++i) {
-            char currentChar = input.charAt(i);
-            if (currentChar == '"' || currentChar == '\'') {
-                insideQuotes = !insideQuotes;
-                currentElement.append(currentChar);
-            } else if (!insideQuotes && (currentChar == '[' || currentChar == '{')) {
-                nestingDepth++;
-                currentElement.append(currentChar);
-            } else if (!insideQuotes && (currentChar == ']' || currentChar == '}')) {
-                nestingDepth--;
-                currentElement.append(currentChar);
-            } else if (!insideQuotes && currentChar == delimiter && nestingDepth == 0) {
-                elements.add(currentElement.toString().trim());
-                currentElement.setLength(0);
-            } else {
-                currentElement.append(currentChar);
-            }
+    public static PrereqNode parsePrereqTree(String json) {
+        if (json == null || json.equals("null") || json.isEmpty()) {
+            return null;
         }
-        if (!currentElement.isEmpty()) {
-            elements.add(currentElement.toString().trim());
+        try {
+            return parsePrereqTree(new JsonReader(json));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to parse prerequisite tree", e);
+            return null;
         }
-        return elements;
     }
 
     /**
-     * Computes the cartesian product of multiple lists of module code combinations.
-     * Used to combine results from "and" prerequisite branches.
+     * Recursively parses a prerequisite tree into a shared {@link PrereqNode} tree.
+     * The JSON structure contains nested "or" and "and" logical operators with module code leaves
+     * such as {@code "CS2113:D"}.
      *
-     * Example: Given [[A, B], [C]] and [[X], [Y]], produces:
-     * [[A, X], [A, Y], [B, X], [B, Y], [C, X], [C, Y]]
-     *
-     * @param groupsOfCombinations A list of groups, where each group contains multiple possible module code combinations.
-     * @return A list of all possible combinations formed by taking one element from each group and merging them.
+     * @param reader the reader positioned before the tree
+     * @return The root of the prerequisite tree, or null if there are no prerequisites.
+     * @throws IOException if the JSON cannot be read or is malformed
      */
-    private static List<List<String>> cartesianProduct(List<List<List<String>>> groupsOfCombinations) {
-        List<List<String>> cartesianResult = new ArrayList<>();
-        if (groupsOfCombinations == null || groupsOfCombinations.isEmpty()) return cartesianResult;
-        cartesianResult.add(new ArrayList<>());
-
-        for (List<List<String>> combinationGroup : groupsOfCombinations) {
-            List<List<String>> nextResult = new ArrayList<>();
-            for (List<String> partialCombo : cartesianResult) {
-                for (List<String> newCombo : combinationGroup) {
-                    List<String> combined = new ArrayList<>(partialCombo);
-                    combined.addAll(newCombo);
-                    nextResult.add(combined);
+    private static PrereqNode parsePrereqTree(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+        case STRING:
+            // Leaf node, the grade requirement after ':' is ignored
+            String moduleCode = reader.nextString().split(":")[0].trim();
+            return moduleCode.isEmpty() ? null : PrereqNode.leaf(moduleCode);
+        case BEGIN_OBJECT:
+            break;
+        default:
+            reader.skipValue();
+            return null;
+        }
+
+        PrereqNode node = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String logicOperator = reader.nextName();
+            if (!logicOperator.equals("or") && !logicOperator.equals("and")) {
+                logger.log(Level.WARNING, "Unknown prerequisite operator: " + logicOperator);
+                reader.skipValue();
+                continue;
+            }
+
+            List<PrereqNode> children = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                PrereqNode child = parsePrereqTree(reader);
+                if (child != null) {
+                    children.add(child);
                 }
             }
-            cartesianResult = nextResult;
+            reader.endArray();
+            if (!children.isEmpty()) {
+                node = logicOperator.equals("or") ? PrereqNode.or(children) : PrereqNode.and(children);
+            }
         }
-        return cartesianResult;
+        reader.endObject();
+        return node;
     }
 }
@@ -1,11 +1,17 @@
 package modhero.parser;
 
+import modhero.common.Constants.AcademicConstants;
 import modhero.common.Constants.MessageConstants;
 
 import modhero.commands.*;
+import modhero.data.timetable.Slot;
+import modhero.exceptions.InvalidYearOrSemException;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -43,12 +49,24 @@ public class Parser {
             return prepareMajorCommand(arguments);
         case AddCommand.COMMAND_WORD:
             return prepareAddCommand(arguments);
+        case MoveCommand.COMMAND_WORD:
+            return prepareSlotCommand(arguments, MoveCommand.COMMAND_WORD, MoveCommand.MESSAGE_USAGE, MoveCommand::new);
         case DeleteCommand.COMMAND_WORD:
             return prepareDeleteCommand(arguments);
         case ScheduleCommand.COMMAND_WORD:
             return new ScheduleCommand();
         case ClearCommand.COMMAND_WORD:
             return new ClearCommand();
+        case UndoCommand.COMMAND_WORD:
+            return new UndoCommand();
+        case RedoCommand.COMMAND_WORD:
+            return new RedoCommand();
+        case ForkCommand.COMMAND_WORD:
+            return prepareBranchCommand(arguments, ForkCommand.MESSAGE_USAGE, ForkCommand::new);
+        case SwitchCommand.COMMAND_WORD:
+            return prepareBranchCommand(arguments, SwitchCommand.MESSAGE_USAGE, SwitchCommand::new);
+        case MergeCommand.COMMAND_WORD:
+            return prepareBranchCommand(arguments, MergeCommand.MESSAGE_USAGE, MergeCommand::new);
         case ExitCommand.COMMAND_WORD:
             return new ExitCommand();
         case HelpCommand.COMMAND_WORD:
@@ -73,6 +91,22 @@ public class Parser {
         return new MajorCommand(args);
     }
 
+    /**
+     * Parses arguments in the context of a command taking one branch name.
+     *
+     * @param args full command args string
+     * @param usage the usage message of the command
+     * @param commandFactory creates the command from the branch name
+     * @return the prepared command
+     */
+    private Command prepareBranchCommand(String args, String usage, Function<String, Command> commandFactory) {
+        if (args.isEmpty() || args.contains(" ")) {
+            return new IncorrectCommand(String.format(MessageConstants.INVALID_COMMAND_FORMAT, usage));
+        }
+
+        return commandFactory.apply(args);
+    }
+
     private Command prepareDeleteCommand(String args) {
         if (args.isEmpty()) {
             return new IncorrectCommand(String.format(MessageConstants.INVALID_COMMAND_FORMAT, DeleteCommand.MESSAGE_USAGE));
@@ -89,14 +123,76 @@ public class Parser {
         return new DeleteCommand(moduleCode);
     }
 
+    /**
+     * Parses arguments in the context of the add command. Several modules can be added at once,
+     * in the form {@code MODULE_CODE... to YxSy [MODULE_CODE... to YxSy]...}.
+     *
+     * @param args full command args string
+     * @return an {@link AddCommand} for a single module, otherwise a {@link BatchAddCommand}
+     */
     private Command prepareAddCommand(String args) {
         if (args.isEmpty()) {
             return new IncorrectCommand(String.format(MessageConstants.INVALID_COMMAND_FORMAT, AddCommand.MESSAGE_USAGE));
         }
+
+        Map<String, Slot> slotsByCode = new LinkedHashMap<>();
+        List<String> pendingCodes = new ArrayList<>();
+        String[] tokens = args.trim().split("\\s+");
+        for (int i = 0; i < tokens.length; i++) {
+            if (!tokens[i].equalsIgnoreCase("to")) {
+                pendingCodes.add(tokens[i].toUpperCase());
+                continue;
+            }
+            if (pendingCodes.isEmpty() || i + 1 == tokens.length) {
+                return new IncorrectCommand("Invalid format. Use: add MODULE_CODE... to YxSy");
+            }
+            String destination = tokens[++i].toUpperCase();
+            if (!destination.matches("Y\\dS\\d")) {
+                return new IncorrectCommand("Invalid year/semester format. Use YxSy (e.g. Y2S1)");
+            }
+            int year = Character.getNumericValue(destination.charAt(1));
+            int semester = Character.getNumericValue(destination.charAt(3));
+            if (!isInAcademicRange(year, semester)) {
+                return new IncorrectCommand(new InvalidYearOrSemException(year, semester).getMessage());
+            }
+            Slot slot = new Slot(year - 1, semester - 1);
+            for (String moduleCode : pendingCodes) {
+                if (slotsByCode.put(moduleCode, slot) != null) {
+                    return new IncorrectCommand(moduleCode + " is given more than once.");
+                }
+            }
+            pendingCodes.clear();
+        }
+        if (!pendingCodes.isEmpty() || slotsByCode.isEmpty()) {
+            return new IncorrectCommand("Invalid format. Use: add MODULE_CODE... to YxSy");
+        }
+
+        if (slotsByCode.size() > 1) {
+            return new BatchAddCommand(slotsByCode);
+        }
+        Map.Entry<String, Slot> entry = slotsByCode.entrySet().iterator().next();
+        return new AddCommand(entry.getKey(), entry.getValue().getYear() + 1, entry.getValue().getTerm() + 1);
+    }
+
+    /**
+     * Parses arguments in the context of a command taking a module code and a year and semester,
+     * in the form {@code MODULE_CODE to YxSy}.
+     *
+     * @param args full command args string
+     * @param commandWord the command word
+     * @param usage the usage message of the command
+     * @param commandFactory creates the command from the module code, year and semester
+     * @return the prepared command
+     */
+    private Command prepareSlotCommand(String args, String commandWord, String usage,
+                                       SlotCommandFactory commandFactory) {
+        if (args.isEmpty()) {
+            return new IncorrectCommand(String.format(MessageConstants.INVALID_COMMAND_FORMAT, usage));
+        }
         
         String[] parts = args.split("\\s+to\\s+");
         if (parts.length != 2) {
-            return new IncorrectCommand("Invalid format. Use: add MODULE_CODE to YxSy");
+            return new IncorrectCommand("Invalid format. Use: " + commandWord + " MODULE_CODE to YxSy");
         }
 
         String moduleCode = parts[0].trim();
@@ -109,7 +205,30 @@ public class Parser {
 
         int year = Character.getNumericValue(destination.charAt(1));
         int semester = Character.getNumericValue(destination.charAt(3));
+        if (!isInAcademicRange(year, semester)) {
+            return new IncorrectCommand(new InvalidYearOrSemException(year, semester).getMessage());
+        }
 
-        return new AddCommand(moduleCode, year, semester);
+        return commandFactory.create(moduleCode, year, semester);
+    }
+
+    /**
+     * Checks whether a 1-based year and semester fall inside the degree.
+     *
+     * @param year the year (1-based)
+     * @param semester the semester (1-based)
+     * @return true if the year and semester exist
+     */
+    private static boolean isInAcademicRange(int year, int semester) {
+        return year >= 1 && year <= AcademicConstants.NUM_YEARS
+                && semester >= 1 && semester <= AcademicConstants.NUM_TERMS;
+    }
+
+    /**
+     * Creates a command from a module code, year and semester.
+     */
+    @FunctionalInterface
+    private interface SlotCommandFactory {
+        Command create(String moduleCode, int year, int semester);
     }
 }
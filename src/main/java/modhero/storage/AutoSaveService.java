@@ -0,0 +1,150 @@
+package modhero.storage;
+
+import modhero.data.timetable.Timetable;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Saves the plan in the background after it changes.
+ * <p>
+ * Commands call {@link #record} after changing the plan. The change is appended to the save
+ * journal by a single background thread, in the order the changes were made, and the journal is
+ * forced to disk once no further change has arrived for the quiet period, so a burst of changes
+ * costs one disk sync. When the journal grows past the compaction threshold, a snapshot of the
+ * plan is saved and the journal emptied. {@link #flush()} forces any pending change to disk and
+ * waits for it.
+ * </p>
+ */
+public class AutoSaveService implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(AutoSaveService.class.getName());
+
+    private final SaveStorage saveStorage;
+    private final long quietPeriodMillis;
+    private final long compactionThresholdChars;
+    private final ScheduledExecutorService executor;
+
+    // Guarded by this
+    private long lastSequence;
+    private long journalChars;
+    private ScheduledFuture<?> pendingSync;
+
+    /**
+     * Creates an autosave service writing through the given storage, whose journal has been loaded.
+     *
+     * @param saveStorage the storage to save the plan to
+     * @param quietPeriodMillis how long to wait after the last change before syncing, in milliseconds
+     * @param compactionThresholdChars the journal size past which a snapshot is saved, in chars
+     */
+    public AutoSaveService(SaveStorage saveStorage, long quietPeriodMillis, long compactionThresholdChars) {
+        assert saveStorage != null : "AutoSaveService saveStorage must not be null";
+        assert quietPeriodMillis >= 0 : "AutoSaveService quietPeriodMillis must not be negative";
+        assert compactionThresholdChars > 0 : "AutoSaveService compactionThresholdChars must be positive";
+
+        this.saveStorage = saveStorage;
+        this.quietPeriodMillis = quietPeriodMillis;
+        this.compactionThresholdChars = compactionThresholdChars;
+        this.lastSequence = saveStorage.getJournalSequence();
+        this.journalChars = saveStorage.getJournalSize();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "modhero-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Records a change just made to the plan. Never waits for disk I/O.
+     *
+     * @param record the change
+     * @param timetable the changed timetable, copied if the journal is due for compaction
+     * @param exemptedModules the exempted module codes
+     */
+    public synchronized void record(TimetableJournal.Record record, Timetable timetable,
+                                    List<String> exemptedModules) {
+        assert record != null : "AutoSaveService record must not be null";
+        long sequence = ++lastSequence;
+        run(() -> saveStorage.appendToJournal(sequence, record));
+        journalChars += record.encodedLength();
+
+        if (journalChars >= compactionThresholdChars) {
+            // Taken here, as the plan is only safe to read on the calling thread
+            SaveStorage.Snapshot snapshot = SaveStorage.snapshot(timetable, exemptedModules, sequence);
+            run(() -> saveStorage.save(snapshot));
+            journalChars = 0;
+            logger.log(Level.FINE, "Compacting save journal");
+        }
+
+        if (pendingSync != null) {
+            pendingSync.cancel(false);
+        }
+        if (!executor.isShutdown()) {
+            pendingSync = executor.schedule(saveStorage::syncJournal, quietPeriodMillis, TimeUnit.MILLISECONDS);
+        }
+        logger.log(Level.FINEST, "Recorded plan change " + sequence);
+    }
+
+    /**
+     * Forces any pending change to disk now and waits for it.
+     */
+    public void flush() {
+        Future<?> sync;
+        synchronized (this) {
+            if (pendingSync != null) {
+                pendingSync.cancel(false);
+                pendingSync = null;
+            }
+            if (executor.isShutdown()) {
+                return;
+            }
+            // Queued behind every append already submitted
+            sync = executor.submit(saveStorage::syncJournal);
+        }
+        try {
+            sync.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.log(Level.WARNING, "Interrupted while flushing autosave");
+        } catch (ExecutionException e) {
+            logger.log(Level.WARNING, "Autosave failed", e.getCause());
+        }
+    }
+
+    /**
+     * Flushes pending changes, stops the background thread and closes the journal.
+     */
+    @Override
+    public void close() {
+        flush();
+        synchronized (this) {
+            executor.shutdown();
+        }
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        saveStorage.closeJournal();
+        logger.log(Level.FINE, "Autosave closed");
+    }
+
+    /**
+     * Runs a storage task on the background thread, or on the calling thread once closed.
+     */
+    private void run(Runnable task) {
+        if (executor.isShutdown()) {
+            logger.log(Level.WARNING, "Autosave already closed, saving on the calling thread");
+            task.run();
+            saveStorage.syncJournal();
+            return;
+        }
+        executor.execute(task);
+    }
+}
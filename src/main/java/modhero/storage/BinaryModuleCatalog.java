@@ -0,0 +1,365 @@
+package modhero.storage;
+
+import modhero.common.util.DeserialisationUtil;
+import modhero.data.modules.Module;
+import modhero.exceptions.CorruptedDataFileException;
+import modhero.exceptions.ParsePrerequisitesException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A read-only module catalog stored in a compact binary file and read through a memory mapping.
+ * <p>
+ * The file holds a header, a string table, one fixed-width record per module sorted by code,
+ * and a section of encoded prerequisite trees. Opening the catalog only maps the file and checks
+ * the header, so the cost does not grow with the number of modules. A module is decoded from its
+ * record the first time it is looked up, found by binary search over the sorted records.
+ * </p>
+ *
+ * <pre>
+ * header   : magic, version, moduleCount, stringCount,
+ *            stringOffsetsPos, stringDataPos, recordsPos, prereqPos   (8 ints)
+ * strings  : (stringCount + 1) int offsets into the UTF-8 string data
+ * records  : code, name, type, preclude (string ids), mc, prereqStart, prereqLength (7 ints each)
+ * prereqs  : UTF-8 {@link modhero.data.modules.PrereqNode} encodings
+ * </pre>
+ */
+public class BinaryModuleCatalog {
+    private static final Logger logger = Logger.getLogger(BinaryModuleCatalog.class.getName());
+
+    private static final int MAGIC = 0x4D484331; // "MHC1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8 * Integer.BYTES;
+    private static final int RECORD_INTS = 7;
+    private static final int RECORD_BYTES = RECORD_INTS * Integer.BYTES;
+    private static final int EXPECTED_MODULE_ARGS = 6;
+
+    // Field positions within a record, in ints
+    private static final int CODE = 0;
+    private static final int NAME = 1;
+    private static final int TYPE = 2;
+    private static final int PRECLUDE = 3;
+    private static final int MC = 4;
+    private static final int PREREQ_START = 5;
+    private static final int PREREQ_LENGTH = 6;
+
+    private final ByteBuffer buffer;
+    private final int moduleCount;
+    private final int stringCount;
+    private final int stringOffsetsPos;
+    private final int stringDataPos;
+    private final int recordsPos;
+    private final int prereqPos;
+    private final Module[] materialised;
+
+    private BinaryModuleCatalog(ByteBuffer buffer) throws CorruptedDataFileException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new CorruptedDataFileException("Not a module catalog file");
+        }
+        this.moduleCount = buffer.getInt(8);
+        this.stringCount = buffer.getInt(12);
+        this.stringOffsetsPos = buffer.getInt(16);
+        this.stringDataPos = buffer.getInt(20);
+        this.recordsPos = buffer.getInt(24);
+        this.prereqPos = buffer.getInt(28);
+
+        boolean isLayoutValid = moduleCount >= 0 && stringCount >= 0
+                && stringOffsetsPos == HEADER_BYTES
+                && stringDataPos == stringOffsetsPos + (stringCount + 1) * Integer.BYTES
+                && recordsPos >= stringDataPos
+                && prereqPos == recordsPos + moduleCount * RECORD_BYTES
+                && prereqPos <= buffer.capacity();
+        if (!isLayoutValid) {
+            throw new CorruptedDataFileException("Module catalog header is corrupted");
+        }
+        this.materialised = new Module[moduleCount];
+    }
+
+    /**
+     * Maps a catalog file into memory.
+     *
+     * @param catalogFile the binary catalog file
+     * @return the catalog
+     * @throws IOException if the file cannot be read
+     * @throws CorruptedDataFileException if the file is not a valid catalog
+     */
+    public static BinaryModuleCatalog open(Path catalogFile) throws IOException, CorruptedDataFileException {
+        try (FileChannel channel = FileChannel.open(catalogFile, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            logger.log(Level.FINEST, "Mapped module catalog: " + catalogFile);
+            return new BinaryModuleCatalog(mapped);
+        }
+    }
+
+    /** @return the number of modules in the catalog */
+    public int size() {
+        return moduleCount;
+    }
+
+    /**
+     * Returns the module with the given code, decoding it on first use.
+     *
+     * @param code the module code
+     * @return the module, or null if the catalog has no such module
+     * @throws CorruptedDataFileException if the module's record is corrupted
+     */
+    public Module get(String code) throws CorruptedDataFileException {
+        int index = indexOf(code);
+        return index < 0 ? null : getAt(index);
+    }
+
+    /**
+     * Returns the module stored at the given position, in code order.
+     *
+     * @param index the position of the module, from 0 to {@link #size()} - 1
+     * @return the module
+     * @throws CorruptedDataFileException if the module's record is corrupted
+     */
+    public Module getAt(int index) throws CorruptedDataFileException {
+        if (materialised[index] == null) {
+            materialised[index] = decodeModule(index);
+        }
+        return materialised[index];
+    }
+
+    /**
+     * Checks whether the module at the given position has been decoded already.
+     *
+     * @param index the position of the module, from 0 to {@link #size()} - 1
+     * @return true if the module has been decoded
+     */
+    public boolean isDecoded(int index) {
+        return materialised[index] != null;
+    }
+
+    /**
+     * Returns the code of the module at the given position without decoding the rest of it.
+     *
+     * @param index the position of the module, from 0 to {@link #size()} - 1
+     * @return the module code
+     * @throws CorruptedDataFileException if the record refers to a missing string
+     */
+    public String codeAt(int index) throws CorruptedDataFileException {
+        return string(field(index, CODE));
+    }
+
+    /**
+     * Returns the name of the module at the given position without decoding the rest of it.
+     *
+     * @param index the position of the module, from 0 to {@link #size()} - 1
+     * @return the module name
+     * @throws CorruptedDataFileException if the record refers to a missing string
+     */
+    public String nameAt(int index) throws CorruptedDataFileException {
+        return string(field(index, NAME));
+    }
+
+    /**
+     * Returns the raw preclusion text of the module at the given position without decoding the rest of it.
+     *
+     * @param index the position of the module, from 0 to {@link #size()} - 1
+     * @return the preclusion text, possibly empty
+     * @throws CorruptedDataFileException if the record refers to a missing string
+     */
+    public String precludeAt(int index) throws CorruptedDataFileException {
+        return string(field(index, PRECLUDE));
+    }
+
+    /**
+     * Finds the position of a module by binary search over the sorted code records.
+     *
+     * @param code the module code
+     * @return the position, or -1 if absent
+     */
+    public int indexOf(String code) {
+        byte[] key = code.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = moduleCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = compareString(field(mid, CODE), key);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private Module decodeModule(int index) throws CorruptedDataFileException {
+        int prereqStart = field(index, PREREQ_START);
+        int prereqLength = field(index, PREREQ_LENGTH);
+        if (prereqStart < 0 || prereqLength < 0 || prereqPos + prereqStart + prereqLength > buffer.capacity()) {
+            throw new CorruptedDataFileException("Module catalog prerequisite is out of range");
+        }
+        String prereqs = decodeUtf8(prereqPos + prereqStart, prereqLength);
+        try {
+            return new Module(string(field(index, CODE)), string(field(index, NAME)), field(index, MC),
+                    string(field(index, TYPE)), string(field(index, PRECLUDE)),
+                    ModuleStorage.parsePrerequisites(prereqs));
+        } catch (ParsePrerequisitesException e) {
+            throw new CorruptedDataFileException("Module catalog prerequisite is corrupted: " + prereqs);
+        }
+    }
+
+    private int field(int index, int field) {
+        return buffer.getInt(recordsPos + index * RECORD_BYTES + field * Integer.BYTES);
+    }
+
+    private String string(int id) throws CorruptedDataFileException {
+        if (id < 0 || id >= stringCount) {
+            throw new CorruptedDataFileException("Module catalog string id is out of range: " + id);
+        }
+        int start = buffer.getInt(stringOffsetsPos + id * Integer.BYTES);
+        int end = buffer.getInt(stringOffsetsPos + (id + 1) * Integer.BYTES);
+        if (start < 0 || end < start || stringDataPos + end > recordsPos) {
+            throw new CorruptedDataFileException("Module catalog string is out of range: " + id);
+        }
+        return decodeUtf8(stringDataPos + start, end - start);
+    }
+
+    private String decodeUtf8(int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Compares a stored string with a key by unsigned UTF-8 bytes, the order records are sorted in. */
+    private int compareString(int id, byte[] key) {
+        int start = stringDataPos + buffer.getInt(stringOffsetsPos + id * Integer.BYTES);
+        int length = stringDataPos + buffer.getInt(stringOffsetsPos + (id + 1) * Integer.BYTES) - start;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int comparison = Integer.compare(buffer.get(start + i) & 0xFF, key[i] & 0xFF);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    /**
+     * Writes modules to a binary catalog file, replacing it atomically.
+     * Modules sharing a code are written once.
+     *
+     * @param modules the modules to write
+     * @param catalogFile the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Collection<Module> modules, Path catalogFile) throws IOException {
+        Map<String, Module> byCode = new HashMap<>();
+        for (Module module : modules) {
+            byCode.putIfAbsent(module.getCode(), module);
+        }
+        List<Module> sorted = new ArrayList<>(byCode.values());
+        sorted.sort(Comparator.comparing(module -> module.getCode().getBytes(StandardCharsets.UTF_8),
+                Arrays::compareUnsigned));
+
+        Map<String, Integer> stringIds = new HashMap<>();
+        ByteArrayOutputStream stringData = new ByteArrayOutputStream();
+        List<Integer> stringOffsets = new ArrayList<>();
+        ByteArrayOutputStream prereqData = new ByteArrayOutputStream();
+        int[] records = new int[sorted.size() * RECORD_INTS];
+        for (int i = 0; i < sorted.size(); i++) {
+            Module module = sorted.get(i);
+            int base = i * RECORD_INTS;
+            records[base + CODE] = intern(module.getCode(), stringIds, stringOffsets, stringData);
+            records[base + NAME] = intern(module.getName(), stringIds, stringOffsets, stringData);
+            records[base + TYPE] = intern(module.getType(), stringIds, stringOffsets, stringData);
+            records[base + PRECLUDE] = intern(module.getPreclude(), stringIds, stringOffsets, stringData);
+            records[base + MC] = module.getMc();
+            byte[] prereq = module.getPrerequisites().toFormatedString().getBytes(StandardCharsets.UTF_8);
+            records[base + PREREQ_START] = prereqData.size();
+            records[base + PREREQ_LENGTH] = prereq.length;
+            prereqData.write(prereq);
+        }
+        stringOffsets.add(stringData.size());
+
+        int stringCount = stringIds.size();
+        int stringOffsetsPos = HEADER_BYTES;
+        int stringDataPos = stringOffsetsPos + (stringCount + 1) * Integer.BYTES;
+        int recordsPos = stringDataPos + stringData.size();
+        int prereqPos = recordsPos + records.length * Integer.BYTES;
+
+        // The catalog is mapped at startup, so it must never be seen half written
+        Storage.writeAtomically(catalogFile, fileOut -> {
+            DataOutputStream out = new DataOutputStream(fileOut);
+            for (int value : new int[]{MAGIC, VERSION, sorted.size(), stringCount,
+                    stringOffsetsPos, stringDataPos, recordsPos, prereqPos}) {
+                out.writeInt(value);
+            }
+            for (int offset : stringOffsets) {
+                out.writeInt(offset);
+            }
+            stringData.writeTo(out);
+            for (int value : records) {
+                out.writeInt(value);
+            }
+            prereqData.writeTo(out);
+            out.flush();
+        });
+        logger.log(Level.FINEST, "Wrote module catalog with modules: " + sorted.size());
+    }
+
+    /**
+     * Compiles a modules text file into a binary catalog file.
+     * Lines that cannot be parsed are skipped.
+     *
+     * @param modulesFile the modules file in the modules.txt format
+     * @param catalogFile the binary catalog file to write
+     * @return the number of modules written
+     * @throws IOException if either file cannot be accessed
+     */
+    public static int compile(Path modulesFile, Path catalogFile) throws IOException {
+        List<Module> modules = new ArrayList<>();
+        for (String line : Files.readAllLines(modulesFile, StandardCharsets.UTF_8)) {
+            List<String> moduleArgs = line.isEmpty() ? null : DeserialisationUtil.deserialiseMessage(line);
+            if (moduleArgs == null || moduleArgs.size() != EXPECTED_MODULE_ARGS) {
+                logger.log(Level.WARNING, "Skipping unreadable module line: " + line);
+                continue;
+            }
+            try {
+                modules.add(ModuleStorage.parseModule(moduleArgs));
+            } catch (NumberFormatException | CorruptedDataFileException | ParsePrerequisitesException e) {
+                logger.log(Level.WARNING, "Skipping unreadable module line: " + line);
+            }
+        }
+        write(modules, catalogFile);
+        return modules.size();
+    }
+
+    private static int intern(String value, Map<String, Integer> stringIds, List<Integer> stringOffsets,
+                              ByteArrayOutputStream stringData) {
+        Integer id = stringIds.get(value);
+        if (id != null) {
+            return id;
+        }
+        id = stringIds.size();
+        stringIds.put(value, id);
+        stringOffsets.add(stringData.size());
+        stringData.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        return id;
+    }
+}
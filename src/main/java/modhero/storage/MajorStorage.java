@@ -2,7 +2,7 @@ package modhero.storage;
 
 import modhero.data.timetable.TimetableData;
 import modhero.exceptions.CorruptedDataFileException;
-import modhero.common.util.DeserialisationUtil;
+import modhero.common.util.SerialisedReader;
 import modhero.data.major.Major;
 import modhero.data.modules.Module;
 import modhero.data.modules.ModuleList;
@@ -46,20 +46,26 @@ public class MajorStorage extends Storage{
 
         List<String> rawMajorsList = loadFromJarTextFile();
 
-        for (String aa : rawMajorsList) {
-            List<String> majorTop = DeserialisationUtil.deserialiseMessage(aa);
-            String name       = majorTop.get(0);
-            String abbrName  = majorTop.get(1);
-            String modulesBlob = majorTop.get(2);
-
-            List<String> moduleYTList = DeserialisationUtil.deserialiseMessage(modulesBlob);
+        for (String rawMajor : rawMajorsList) {
+            SerialisedReader majorReader = SerialisedReader.of(rawMajor);
+            majorReader.next();
+            String name = majorReader.fieldAsString();
+            majorReader.next();
+            String abbrName = majorReader.fieldAsString();
+            majorReader.next();
 
+            // Each module is a serialised (code, year, semester) triplet nested inside the third field
+            SerialisedReader moduleReader = majorReader.nested();
             List<TimetableData> timetableData = new ArrayList<>();
-            for (String moduleYT : moduleYTList) {
-                List<String> triplet = DeserialisationUtil.deserialiseMessage(moduleYT);
-                String code = triplet.get(0);
-                int year    = Integer.parseInt(triplet.get(1));
-                int sem     = Integer.parseInt(triplet.get(2));
+            while (moduleReader.hasNext()) {
+                moduleReader.next();
+                SerialisedReader tripletReader = moduleReader.nested();
+                tripletReader.next();
+                String code = tripletReader.fieldAsString();
+                tripletReader.next();
+                int year = tripletReader.fieldAsInt();
+                tripletReader.next();
+                int sem = tripletReader.fieldAsInt();
                 TimetableData mod = new TimetableData(code.toUpperCase(), year, sem);
                 timetableData.add(mod);
             }
@@ -0,0 +1,224 @@
+package modhero.storage;
+
+import modhero.common.util.DeserialisationUtil;
+import modhero.common.util.SerialisationWriter;
+import modhero.data.modules.Module;
+import modhero.exceptions.CorruptedDataFileException;
+import modhero.exceptions.ParsePrerequisitesException;
+
+import java.time.Clock;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Write-through disk cache for modules fetched from NUSMods at runtime.
+ * <p>
+ * Entries are keyed by academic year and module code and expire after a fixed time to live.
+ * The cache holds at most a fixed number of entries, evicting the least recently used one
+ * when full. Every put is written straight back to the cache file, once per call, so modules
+ * fetched in one session are available offline in the next. Reads never write the file.
+ * </p>
+ */
+public class ModuleCache extends Storage {
+    private static final Logger logger = Logger.getLogger(ModuleCache.class.getName());
+    private static final int EXPECTED_ENTRY_ARGS = 3;
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final LinkedHashMap<String, Entry> entries;
+    private boolean isLoaded = false;
+
+    /**
+     * Creates a cache backed by the given file.
+     *
+     * @param filePath the path of the cache file
+     * @param maxEntries the maximum number of modules kept
+     * @param ttlMillis how long a cached module stays valid, in milliseconds
+     */
+    public ModuleCache(String filePath, int maxEntries, long ttlMillis) {
+        this(filePath, maxEntries, ttlMillis, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a cache backed by the given file, reading the time from the given clock.
+     *
+     * @param filePath the path of the cache file
+     * @param maxEntries the maximum number of modules kept
+     * @param ttlMillis how long a cached module stays valid, in milliseconds
+     * @param clock the clock used to stamp and expire entries
+     */
+    public ModuleCache(String filePath, int maxEntries, long ttlMillis, Clock clock) {
+        super(filePath);
+        assert maxEntries > 0 : "ModuleCache maxEntries must be positive";
+        assert ttlMillis > 0 : "ModuleCache ttlMillis must be positive";
+
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the cached module for the given academic year and code.
+     * Expired entries are dropped from memory and reported as missing; the file drops them on the next write.
+     *
+     * @param acadYear the academic year the module was fetched for
+     * @param code the module code
+     * @return the cached module, or null if it is not cached or has expired
+     */
+    public synchronized Module get(String acadYear, String code) {
+        ensureLoaded();
+        String key = toKey(acadYear, code);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry)) {
+            logger.log(Level.FINE, "Cached module expired: " + key);
+            entries.remove(key);
+            return null;
+        }
+        return entry.module;
+    }
+
+    /**
+     * Caches a module and writes the cache back to disk.
+     *
+     * @param acadYear the academic year the module was fetched for
+     * @param module the module to cache
+     */
+    public synchronized void put(String acadYear, Module module) {
+        assert module != null : "ModuleCache put module must not be null";
+        ensureLoaded();
+        entries.put(toKey(acadYear, module.getCode()), new Entry(acadYear, clock.millis(), module));
+        evictOverflow();
+        save();
+    }
+
+    /**
+     * Caches several modules and writes the cache back to disk once.
+     *
+     * @param acadYear the academic year the modules were fetched for
+     * @param modules the modules to cache
+     */
+    public synchronized void putAll(String acadYear, Collection<Module> modules) {
+        assert modules != null : "ModuleCache putAll modules must not be null";
+        if (modules.isEmpty()) {
+            return;
+        }
+        ensureLoaded();
+        long fetchedAt = clock.millis();
+        for (Module module : modules) {
+            entries.put(toKey(acadYear, module.getCode()), new Entry(acadYear, fetchedAt, module));
+        }
+        evictOverflow();
+        save();
+    }
+
+    /** @return the number of modules currently cached */
+    public synchronized int size() {
+        ensureLoaded();
+        return entries.size();
+    }
+
+    /**
+     * Loads the cache file on first use, skipping expired or unreadable entries.
+     * A missing file is an empty cache and is not created until something is put.
+     */
+    private void ensureLoaded() {
+        if (isLoaded) {
+            return;
+        }
+        isLoaded = true;
+
+        for (String line : loadFromTextFileIfExists()) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                Entry entry = parseEntry(line);
+                if (!isExpired(entry)) {
+                    entries.put(toKey(entry.acadYear, entry.module.getCode()), entry);
+                }
+            } catch (CorruptedDataFileException | ParsePrerequisitesException | NumberFormatException e) {
+                logger.log(Level.WARNING, "Skipping unreadable module cache entry: " + line);
+            }
+        }
+        evictOverflow();
+        logger.log(Level.FINEST, "Loaded module cache entries: " + entries.size());
+    }
+
+    /**
+     * Parses one cache line of the form [acadYear][fetchedAt][serialised module].
+     *
+     * @param line the serialised cache entry
+     * @return the parsed entry
+     * @throws CorruptedDataFileException if the line is not a valid entry
+     * @throws ParsePrerequisitesException if the module prerequisites cannot be parsed
+     */
+    private Entry parseEntry(String line) throws CorruptedDataFileException, ParsePrerequisitesException {
+        List<String> entryArgs = DeserialisationUtil.deserialiseMessage(line);
+        if (entryArgs == null || entryArgs.size() != EXPECTED_ENTRY_ARGS || entryArgs.get(2).isEmpty()) {
+            throw new CorruptedDataFileException("Corrupted module cache entry: " + line);
+        }
+        List<String> moduleArgs = DeserialisationUtil.deserialiseMessage(entryArgs.get(2));
+        if (moduleArgs == null) {
+            throw new CorruptedDataFileException("Corrupted cached module: " + line);
+        }
+        Module module = ModuleStorage.parseModule(moduleArgs);
+        return new Entry(entryArgs.get(0), Long.parseLong(entryArgs.get(1)), module);
+    }
+
+    /**
+     * Removes least recently used entries until the cache is within its size limit.
+     */
+    private void evictOverflow() {
+        while (entries.size() > maxEntries) {
+            String eldest = entries.keySet().iterator().next();
+            entries.remove(eldest);
+            logger.log(Level.FINE, "Evicted cached module: " + eldest);
+        }
+    }
+
+    /**
+     * Writes every cached entry back to the cache file.
+     */
+    private void save() {
+        saveToTextFile(out -> {
+            SerialisationWriter writer = new SerialisationWriter(out);
+            for (Entry entry : entries.values()) {
+                writer.writeMessage(entry.acadYear)
+                        .writeMessage(entry.fetchedAt)
+                        .beginMessage(entry.module.formattedLength());
+                entry.module.writeFormatted(writer);
+                writer.endMessage().endLine();
+            }
+        });
+    }
+
+    private boolean isExpired(Entry entry) {
+        return clock.millis() - entry.fetchedAt >= ttlMillis;
+    }
+
+    private static String toKey(String acadYear, String code) {
+        return acadYear + "/" + code.toUpperCase();
+    }
+
+    /** A cached module with the time it was fetched. */
+    private static final class Entry {
+        private final String acadYear;
+        private final long fetchedAt;
+        private final Module module;
+
+        private Entry(String acadYear, long fetchedAt, Module module) {
+            this.acadYear = acadYear;
+            this.fetchedAt = fetchedAt;
+            this.module = module;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package modhero.storage;
+
+import modhero.data.modules.Module;
+import modhero.data.modules.PreclusionIndex;
+import modhero.exceptions.CorruptedDataFileException;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A module lookup map, keyed by module code, that decodes catalog modules only when they are looked up.
+ * <p>
+ * Modules come from an optional {@link BinaryModuleCatalog} and from an overlay of modules put
+ * into the map, which takes precedence over the catalog. Only codes are keys; modules are found
+ * by name through {@link #getByTitle(String)}, whose index is built on first use.
+ * </p>
+ */
+public class ModuleCatalogView extends AbstractMap<String, Module> {
+    private static final Logger logger = Logger.getLogger(ModuleCatalogView.class.getName());
+
+    private final Map<String, Module> addedModules = new LinkedHashMap<>();
+    private BinaryModuleCatalog catalog;
+    private int addedOutsideCatalog = 0;
+    private Map<String, String> codesByTitle;
+    private PreclusionIndex preclusionIndex;
+
+    /**
+     * Backs the view with a catalog, replacing any previous one.
+     *
+     * @param catalog the catalog to decode modules from
+     */
+    void attachCatalog(BinaryModuleCatalog catalog) {
+        assert catalog != null : "attachCatalog catalog must not be null";
+        this.catalog = catalog;
+        this.addedOutsideCatalog = 0;
+        for (String code : addedModules.keySet()) {
+            if (catalog.indexOf(code) < 0) {
+                addedOutsideCatalog++;
+            }
+        }
+        this.codesByTitle = null;
+    }
+
+    /**
+     * Returns the module with the given code, decoding it from the catalog on first use.
+     *
+     * @param key the module code
+     * @return the module, or null if there is none or its catalog record is corrupted
+     */
+    @Override
+    public Module get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        Module module = addedModules.get(key);
+        if (module != null || catalog == null) {
+            return module;
+        }
+        try {
+            int index = catalog.indexOf((String) key);
+            if (index < 0) {
+                return null;
+            }
+            boolean isFirstLookup = !catalog.isDecoded(index);
+            module = catalog.getAt(index);
+            if (isFirstLookup && preclusionIndex != null) {
+                preclusionIndex.register(module);
+            }
+            return module;
+        } catch (CorruptedDataFileException e) {
+            logger.log(Level.WARNING, "Unable to decode catalog module: " + key, e);
+            return null;
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof String)) {
+            return false;
+        }
+        return addedModules.containsKey(key) || isInCatalog((String) key);
+    }
+
+    /**
+     * Adds or replaces a module, keeping the catalog untouched.
+     *
+     * @param code the module code
+     * @param module the module
+     * @return the module previously stored under the code, or null
+     */
+    @Override
+    public Module put(String code, Module module) {
+        assert code != null && module != null : "put arguments must not be null";
+        Module previous = get(code);
+        if (!addedModules.containsKey(code) && !isInCatalog(code)) {
+            addedOutsideCatalog++;
+        }
+        addedModules.put(code, module);
+        if (preclusionIndex != null) {
+            preclusionIndex.register(module);
+        }
+        if (codesByTitle != null) {
+            codesByTitle.put(module.getName(), code);
+        }
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return (catalog == null ? 0 : catalog.size()) + addedOutsideCatalog;
+    }
+
+    @Override
+    public void clear() {
+        catalog = null;
+        addedModules.clear();
+        addedOutsideCatalog = 0;
+        codesByTitle = null;
+    }
+
+    /**
+     * Returns the module with the given name.
+     * The first call reads every name in the catalog, but decodes no module.
+     *
+     * @param title the exact module name
+     * @return the module, or null if no module has that name
+     */
+    public Module getByTitle(String title) {
+        if (codesByTitle == null) {
+            codesByTitle = buildTitleIndex();
+        }
+        String code = codesByTitle.get(title);
+        return code == null ? null : get(code);
+    }
+
+    /**
+     * Records the preclusions of modules in the index as they are used: modules put into the view
+     * now and later, and catalog modules when they are first looked up. Only modules that reach
+     * the plan are checked against the index, so the rest of the catalog is never read for it.
+     *
+     * @param preclusionIndex the index to populate
+     */
+    public void setPreclusionIndex(PreclusionIndex preclusionIndex) {
+        assert preclusionIndex != null : "setPreclusionIndex index must not be null";
+        this.preclusionIndex = preclusionIndex;
+        preclusionIndex.registerAll(addedModules.values());
+    }
+
+    @Override
+    public Set<Entry<String, Module>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Module>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return ModuleCatalogView.this.size();
+            }
+        };
+    }
+
+    private boolean isInCatalog(String code) {
+        return catalog != null && catalog.indexOf(code) >= 0;
+    }
+
+    private Map<String, String> buildTitleIndex() {
+        Map<String, String> titles = new HashMap<>();
+        if (catalog != null) {
+            for (int i = 0; i < catalog.size(); i++) {
+                try {
+                    titles.put(catalog.nameAt(i), catalog.codeAt(i));
+                } catch (CorruptedDataFileException e) {
+                    logger.log(Level.WARNING, "Skipping corrupted catalog record: " + i, e);
+                }
+            }
+        }
+        for (Map.Entry<String, Module> entry : addedModules.entrySet()) {
+            titles.put(entry.getValue().getName(), entry.getKey());
+        }
+        logger.log(Level.FINEST, "Built module title index: " + titles.size());
+        return titles;
+    }
+
+    /**
+     * Iterates over the catalog codes not replaced by the overlay, then over the overlay.
+     * Values are decoded only when an entry's value is read.
+     */
+    private class EntryIterator implements Iterator<Entry<String, Module>> {
+        private final Iterator<Entry<String, Module>> addedIterator = addedModules.entrySet().iterator();
+        private int nextIndex = 0;
+        private String nextCode = advanceCatalog();
+
+        private String advanceCatalog() {
+            while (catalog != null && nextIndex < catalog.size()) {
+                int index = nextIndex++;
+                try {
+                    String code = catalog.codeAt(index);
+                    if (!addedModules.containsKey(code)) {
+                        return code;
+                    }
+                } catch (CorruptedDataFileException e) {
+                    logger.log(Level.WARNING, "Skipping corrupted catalog record: " + index, e);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextCode != null || addedIterator.hasNext();
+        }
+
+        @Override
+        public Entry<String, Module> next() {
+            if (nextCode == null) {
+                if (!addedIterator.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Entry<String, Module> entry = addedIterator.next();
+                return new SimpleImmutableEntry<>(entry);
+            }
+            String code = nextCode;
+            nextCode = advanceCatalog();
+            return new CatalogEntry(code);
+        }
+    }
+
+    /** A read-only entry whose module is decoded when its value is first read. */
+    private class CatalogEntry implements Entry<String, Module> {
+        private final String code;
+
+        private CatalogEntry(String code) {
+            this.code = code;
+        }
+
+        @Override
+        public String getKey() {
+            return code;
+        }
+
+        @Override
+        public Module getValue() {
+            return get(code);
+        }
+
+        @Override
+        public Module setValue(Module value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> other = (Entry<?, ?>) o;
+            return code.equals(other.getKey()) && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return code.hashCode() ^ Objects.hashCode(getValue());
+        }
+    }
+}
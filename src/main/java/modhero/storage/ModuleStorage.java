@@ -2,10 +2,17 @@ package modhero.storage;
 
 import modhero.exceptions.CorruptedDataFileException;
 import modhero.common.util.DeserialisationUtil;
+import modhero.common.util.SerialisedReader;
 import modhero.data.modules.Module;
+import modhero.data.modules.ModuleSymbolTable;
+import modhero.data.modules.PrereqNode;
 import modhero.data.modules.Prerequisites;
 import modhero.exceptions.ParsePrerequisitesException;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
@@ -18,6 +25,8 @@ public class ModuleStorage extends Storage{
     private static final Logger logger = Logger.getLogger(ModuleStorage.class.getName());
     private static final int EXPECTED_MODULE_ARGS = 6;
 
+    private final String catalogPath;
+
     /**
      * Constructs a ModuleStorage with the specified file path.
      * Calls the superclass constructor to initialize the file path used for loading module data.
@@ -25,19 +34,34 @@ public class ModuleStorage extends Storage{
      * @param filePath the path to the module data file to be loaded
      */
     public ModuleStorage(String filePath) {
+        this(filePath, null);
+    }
+
+    /**
+     * Constructs a ModuleStorage that prefers a binary module catalog over the text module data.
+     *
+     * @param filePath the path to the module data file to be loaded
+     * @param catalogPath the path to the binary catalog, or null to always use the text file
+     */
+    public ModuleStorage(String filePath, String catalogPath) {
         super(filePath);
+        this.catalogPath = catalogPath;
     }
 
     /**
      * Loads all modules from storage and populates the provided map.
      *
-     * @param allModulesData map to populate; indexed by both code and name
+     * @param allModulesData map to populate; indexed by code
      * @throws CorruptedDataFileException if critical data corruption detected
      */
     public void load(Map<String, Module> allModulesData) throws CorruptedDataFileException {
         assert allModulesData != null : "loadAllModulesData allModulesData must not be null";
         logger.log(Level.FINEST, "Loading all modules data");
 
+        if (loadFromCatalog(allModulesData)) {
+            return;
+        }
+
         List<String> rawModulesList = loadFromJarTextFile();
         List<List<String>> allModulesList = DeserialisationUtil.deserialiseList(rawModulesList);
 
@@ -58,6 +82,66 @@ public class ModuleStorage extends Storage{
         }
     }
 
+    /**
+     * Backs a catalog view with the binary catalog, decoding modules only as they are looked up.
+     * Falls back to loading the text module data into the view if there is no readable catalog.
+     *
+     * @param catalogView view to populate; indexed by code, with names in its title index
+     * @throws CorruptedDataFileException if critical data corruption detected in the text module data
+     */
+    public void load(ModuleCatalogView catalogView) throws CorruptedDataFileException {
+        assert catalogView != null : "loadAllModulesData catalogView must not be null";
+        BinaryModuleCatalog catalog = openCatalog();
+        if (catalog == null) {
+            load((Map<String, Module>) catalogView);
+            return;
+        }
+        // Codes are interned when a module is planned or checked as a prerequisite, so startup stays flat
+        catalogView.attachCatalog(catalog);
+        logger.log(Level.FINEST, "Attached module catalog: " + catalog.size());
+    }
+
+    /**
+     * Loads all modules from the binary catalog, if there is a readable one.
+     *
+     * @param allModulesData map to populate; indexed by code
+     * @return true if the modules were loaded from the catalog
+     */
+    private boolean loadFromCatalog(Map<String, Module> allModulesData) {
+        BinaryModuleCatalog catalog = openCatalog();
+        if (catalog == null) {
+            return false;
+        }
+        try {
+            for (int i = 0; i < catalog.size(); i++) {
+                addModuleToMap(allModulesData, catalog.getAt(i));
+            }
+            logger.log(Level.FINEST, "Loaded modules from catalog: " + catalog.size());
+            return true;
+        } catch (CorruptedDataFileException e) {
+            logger.log(Level.WARNING, "Unable to read module catalog, falling back to text data", e);
+            allModulesData.clear();
+            return false;
+        }
+    }
+
+    /**
+     * Opens the binary catalog.
+     *
+     * @return the catalog, or null if there is none or it cannot be read
+     */
+    private BinaryModuleCatalog openCatalog() {
+        if (catalogPath == null || !Files.exists(Paths.get(catalogPath))) {
+            return null;
+        }
+        try {
+            return BinaryModuleCatalog.open(Paths.get(catalogPath));
+        } catch (IOException | CorruptedDataFileException e) {
+            logger.log(Level.WARNING, "Unable to open module catalog, falling back to text data", e);
+            return null;
+        }
+    }
+
     /**
      * Parses and constructs a Module object from the provided list of arguments.
      *
@@ -67,7 +151,7 @@ public class ModuleStorage extends Storage{
      * @throws CorruptedDataFileException if deserialisation of prerequisites fails
      * @throws ParsePrerequisitesException if prerequisites format is invalid
      */
-    private Module parseModule(List<String> moduleArgs) throws NumberFormatException, CorruptedDataFileException, ParsePrerequisitesException{
+    static Module parseModule(List<String> moduleArgs) throws NumberFormatException, CorruptedDataFileException, ParsePrerequisitesException{
         String code = moduleArgs.get(0);
         String name = moduleArgs.get(1);
         int credits = Integer.parseInt(moduleArgs.get(2));
@@ -79,13 +163,15 @@ public class ModuleStorage extends Storage{
 
     /**
      * Deserialises and constructs a Prerequisites object from a serialised string.
+     * Accepts both the tree encoding and the legacy doubly-serialised option list,
+     * which always starts with a length header.
      *
      * @param serialisedPrereqs string representation of prerequisites data
      * @return a constructed Prerequisites instance
      * @throws CorruptedDataFileException if deserialisation fails due to format corruption
      * @throws ParsePrerequisitesException if the serialised data cannot be parsed correctly
      */
-    private Prerequisites parsePrerequisites(String serialisedPrereqs) throws CorruptedDataFileException, ParsePrerequisitesException {
+    static Prerequisites parsePrerequisites(String serialisedPrereqs) throws CorruptedDataFileException, ParsePrerequisitesException {
         assert serialisedPrereqs != null : "parsePrerequisites serialisedPrereqs must not be null";
 
         // Handle empty prerequisites (no prerequisites required)
@@ -93,31 +179,53 @@ public class ModuleStorage extends Storage{
             return new Prerequisites(List.of()); // Empty list for no prerequisites
         }
 
-        // First deserialization: unwrap the outer layer
-        List<String> deserialisedPrereqs = DeserialisationUtil.deserialiseMessage(serialisedPrereqs);
-        if (deserialisedPrereqs == null) {
-            logger.log(Level.WARNING, "Unable to deserialize prerequisites (null result): " + serialisedPrereqs);
-            throw new ParsePrerequisitesException("Unable to deserialize prerequisites (null result): " + serialisedPrereqs);
+        if (!Character.isDigit(serialisedPrereqs.charAt(0))) {
+            return new Prerequisites(PrereqNode.decode(serialisedPrereqs));
         }
+        return parseLegacyPrerequisites(serialisedPrereqs);
+    }
 
-        // Second deserialization: convert to list of lists
-        List<List<String>> prereqList = DeserialisationUtil.deserialiseList(deserialisedPrereqs);
-        if (prereqList == null) {
-            logger.log(Level.WARNING, "Unable to deserialize prerequisite list (null result): " + serialisedPrereqs);
-            throw new ParsePrerequisitesException("Unable to deserialize prerequisite list (null result): " + serialisedPrereqs);
+    /**
+     * Deserialises prerequisites stored as a doubly-serialised list of options.
+     *
+     * @param serialisedPrereqs string representation of prerequisites data
+     * @return a constructed Prerequisites instance
+     * @throws CorruptedDataFileException if deserialisation fails due to format corruption
+     * @throws ParsePrerequisitesException if the serialised data cannot be parsed correctly
+     */
+    private static Prerequisites parseLegacyPrerequisites(String serialisedPrereqs) throws CorruptedDataFileException, ParsePrerequisitesException {
+        // Each outer field is one option, itself a serialised list of module codes
+        SerialisedReader optionReader = SerialisedReader.of(serialisedPrereqs);
+        List<List<String>> prereqList = new ArrayList<>();
+        while (optionReader.hasNext()) {
+            try {
+                optionReader.next();
+            } catch (CorruptedDataFileException e) {
+                logger.log(Level.WARNING, "Unable to deserialize prerequisites: " + serialisedPrereqs);
+                throw new ParsePrerequisitesException("Unable to deserialize prerequisites: " + serialisedPrereqs);
+            }
+
+            SerialisedReader codeReader = optionReader.nested();
+            List<String> option = new ArrayList<>();
+            while (codeReader.hasNext()) {
+                codeReader.next();
+                option.add(codeReader.fieldAsString());
+            }
+            prereqList.add(option);
         }
 
         return new Prerequisites(prereqList);
     }
 
     /**
-     * Adds a single Module to the provided map, using both code and name as keys.
+     * Adds a single Module to the provided map, using its code as the key.
+     * The code is also interned so that catalog modules receive the lowest IDs.
      *
      * @param map the module map to populate
      * @param module the Module instance to insert
      */
     private void addModuleToMap(Map<String, Module> map, Module module) {
+        ModuleSymbolTable.intern(module.getCode());
         map.put(module.getCode(), module);
-        map.put(module.getName(), module);
     }
 }
@@ -0,0 +1,148 @@
+package modhero.storage;
+
+import modhero.common.util.DeserialisationUtil;
+import modhero.common.util.SerialisationUtil;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores raw HTTP response bodies on disk together with their validators.
+ * <p>
+ * Each entry lives in its own file: a serialised header line holding the {@code ETag},
+ * {@code Last-Modified} and a SHA-256 hash of the body, followed by the body itself.
+ * The validators let a client revalidate with a conditional request, and the hash lets
+ * callers tell whether a freshly downloaded body actually changed.
+ * </p>
+ */
+public class ResponseCache {
+    private static final Logger logger = Logger.getLogger(ResponseCache.class.getName());
+    private static final int EXPECTED_HEADER_ARGS = 3;
+    private static final String ENTRY_EXTENSION = ".txt";
+
+    private final Path directory;
+
+    /**
+     * Creates a cache storing its entries in the given directory.
+     *
+     * @param directoryPath the directory holding one file per entry
+     */
+    public ResponseCache(String directoryPath) {
+        assert directoryPath != null && !directoryPath.isEmpty() : "Cache directory must not be empty";
+
+        this.directory = Paths.get(directoryPath);
+    }
+
+    /**
+     * Returns the cached response for a key.
+     *
+     * @param key the entry key, such as the academic year and module code
+     * @return the cached response, or null if there is none or it is unreadable
+     */
+    public CachedResponse get(String key) {
+        Path file = toFile(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            String content = Files.readString(file, StandardCharsets.UTF_8);
+            int headerEnd = content.indexOf('\n');
+            List<String> header = headerEnd <= 0 ? null
+                    : DeserialisationUtil.deserialiseMessage(content.substring(0, headerEnd));
+            if (header == null || header.size() != EXPECTED_HEADER_ARGS) {
+                logger.log(Level.WARNING, "Ignoring corrupted response cache entry: " + file);
+                return null;
+            }
+            String body = content.substring(headerEnd + 1);
+            return new CachedResponse(header.get(0), header.get(1), header.get(2), body);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to read response cache entry: " + file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a response body and its validators, replacing any previous entry.
+     *
+     * @param key the entry key
+     * @param eTag the {@code ETag} header, or an empty string if absent
+     * @param lastModified the {@code Last-Modified} header, or an empty string if absent
+     * @param body the response body
+     * @return the stored entry
+     */
+    public CachedResponse put(String key, String eTag, String lastModified, String body) {
+        CachedResponse response = new CachedResponse(eTag, lastModified, hash(body), body);
+        Path file = toFile(key);
+        String header = SerialisationUtil.serialiseMessage(response.getETag())
+                + SerialisationUtil.serialiseMessage(response.getLastModified())
+                + SerialisationUtil.serialiseMessage(response.getBodyHash());
+        try {
+            Storage.writeAtomically(file, out -> out.write((header + "\n" + body).getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to write response cache entry: " + file, e);
+        }
+        return response;
+    }
+
+    /**
+     * Computes the hash used to detect unchanged bodies.
+     *
+     * @param body the response body
+     * @return the hex encoded SHA-256 hash of the body
+     */
+    public static String hash(String body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private Path toFile(String key) {
+        return directory.resolve(key.replaceAll("[^A-Za-z0-9_-]", "_") + ENTRY_EXTENSION);
+    }
+
+    /** A cached response body with its validators. */
+    public static final class CachedResponse {
+        private final String eTag;
+        private final String lastModified;
+        private final String bodyHash;
+        private final String body;
+
+        private CachedResponse(String eTag, String lastModified, String bodyHash, String body) {
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.bodyHash = bodyHash;
+            this.body = body;
+        }
+
+        /** @return the {@code ETag} header, or an empty string if absent */
+        public String getETag() {
+            return eTag;
+        }
+
+        /** @return the {@code Last-Modified} header, or an empty string if absent */
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /** @return the hex encoded SHA-256 hash of the body */
+        public String getBodyHash() {
+            return bodyHash;
+        }
+
+        public String getBody() {
+            return body;
+        }
+    }
+}
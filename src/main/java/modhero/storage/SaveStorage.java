@@ -1,39 +1,53 @@
 package modhero.storage;
 
-import modhero.commands.AddCommand;
 import modhero.common.Constants;
 import modhero.data.modules.Module;
 import modhero.data.nusmods.ModuleRetriever;
 import modhero.data.timetable.Timetable;
+import modhero.exceptions.InvalidYearOrSemException;
 import modhero.exceptions.ModHeroException;
+import modhero.exceptions.ModuleAlreadyExistsException;
 import modhero.exceptions.ParseIntegerException;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import static modhero.common.Constants.AcademicConstants.NUM_TERMS;
-import static modhero.common.Constants.AcademicConstants.NUM_YEARS;
 
 /**
  * Handles the storage and retrieval of Timetable data to and from text files.
+ * The file holds a snapshot of the plan, and changes made since then are kept in a
+ * {@link TimetableJournal} next to it, which is replayed on load and emptied by each save.
  */
 public class SaveStorage extends Storage {
     private static final Logger logger = Logger.getLogger(SaveStorage.class.getName());
 
     public static final String TIMETABLE_STARTLINE = "Timetable data";
     public static final String EXEMPTED_MODULES_STARTLINE = "Exempted Modules data";
+    public static final String JOURNAL_SEQUENCE_STARTLINE = "Journal sequence";
+    public static final String JOURNAL_SUFFIX = ".journal";
 
     private static final char DELIMITER = '|';
     private static final int EXEMPTED_MODULES_DELIMITER_COUNT = 0;
     private static final int TIMETABLE_DELIMITER_COUNT = 2;
+    private static final long EXEMPTED_MODULES_FETCH_TIMEOUT_MILLIS = 10_000;
+    private static final long TIMETABLE_MODULES_FETCH_TIMEOUT_MILLIS = 15_000;
 
 
     private Map<String, Module> allModulesData;
     private List<String> exemptedModules;
+    private final List<String> loadViolations = new ArrayList<>();
+    private final TimetableJournal journal;
+    private ModuleRetriever moduleRetriever = new ModuleRetriever();
+    private long journalSequence = 0;
 
     private boolean isTimetableSection = false;
     private boolean isExemptedModulesSection = false;
@@ -49,6 +63,17 @@ public class SaveStorage extends Storage {
         super(filePath);
         this.allModulesData = new HashMap<>();
         this.exemptedModules = new ArrayList<>();
+        this.journal = new TimetableJournal(filePath + JOURNAL_SUFFIX);
+    }
+
+    /**
+     * Sets the retriever used to look up saved modules missing from local data.
+     *
+     * @param moduleRetriever the retriever to use
+     */
+    public void setModuleRetriever(ModuleRetriever moduleRetriever) {
+        assert moduleRetriever != null : "SaveStorage moduleRetriever must not be null";
+        this.moduleRetriever = moduleRetriever;
     }
 
     /**
@@ -69,14 +94,97 @@ public class SaveStorage extends Storage {
      * @param timetable the timeTable instance to load the data to
      */
     public void load(Timetable timetable) {
+        List<String> lines = loadFromTextFile();
+        boolean isRestoredFromBackup = false;
+        if (isCorrupted(lines)) {
+            List<String> backupLines = loadFromBackupFile();
+            if (!backupLines.isEmpty() && !isCorrupted(backupLines)) {
+                logger.log(Level.WARNING, "Save file is corrupted, loading its backup instead");
+                lines = backupLines;
+                isRestoredFromBackup = true;
+            }
+        }
+
         List<String> timetableLines = new ArrayList<>();
         List<String> exemptedModulesLines = new ArrayList<>();
-        separateIntoTimetableAndExemptedModulesSection(timetableLines, exemptedModulesLines);
+        separateIntoTimetableAndExemptedModulesSection(lines, timetableLines, exemptedModulesLines);
+        int unreadableJournalRecords = replayJournal(parseJournalSequence(lines), timetableLines,
+                exemptedModulesLines);
         loadExemptedModules(exemptedModulesLines);
         loadTimetable(timetable, timetableLines);
+        if (unreadableJournalRecords > 0) {
+            loadViolations.add(0, "Skipped " + unreadableJournalRecords
+                    + " unreadable change(s) in the save journal");
+        }
+        if (isRestoredFromBackup) {
+            loadViolations.add(0, "The save file was unreadable, so the backup from the previous save was loaded");
+        }
         logger.info("Timetable and exempted modules loaded successfully.");
     }
 
+    /**
+     * Checks whether saved lines cannot have been written by {@link #save}, which always starts
+     * with the timetable header. An empty file is treated as corrupted too.
+     *
+     * @param lines the lines of a save file
+     * @return true if the lines are not a save file
+     */
+    private boolean isCorrupted(List<String> lines) {
+        for (String line : lines) {
+            if (!line.isBlank()) {
+                return !line.equals(TIMETABLE_STARTLINE);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replays the journalled changes made after the snapshot onto the snapshot's lines.
+     *
+     * @param snapshotSequence the sequence number of the last change included in the snapshot
+     * @param timetableLines the snapshot's timetable lines, replaced by the replayed ones
+     * @param exemptedModulesLines the snapshot's exempted module lines, replaced by the replayed ones
+     * @return the number of journal lines that could not be read
+     */
+    private int replayJournal(long snapshotSequence, List<String> timetableLines, List<String> exemptedModulesLines) {
+        List<TimetableJournal.Record> records = journal.load(snapshotSequence);
+        journalSequence = journal.getLastSequence();
+        if (records.isEmpty()) {
+            return journal.getUnreadableCount();
+        }
+
+        Map<String, String> linesByCode = new LinkedHashMap<>();
+        for (String line : timetableLines) {
+            linesByCode.putIfAbsent(codeOf(line), line);
+        }
+        for (TimetableJournal.Record record : records) {
+            record.applyTo(linesByCode, exemptedModulesLines);
+        }
+        timetableLines.clear();
+        timetableLines.addAll(linesByCode.values());
+        logger.log(Level.INFO, "Replayed " + records.size() + " journal records");
+        return journal.getUnreadableCount();
+    }
+
+    /**
+     * Returns the sequence number of the last journalled change included in the saved lines.
+     *
+     * @param lines the lines of a save file
+     * @return the sequence number, or 0 if the file predates the journal
+     */
+    private long parseJournalSequence(List<String> lines) {
+        int headerIndex = lines.indexOf(JOURNAL_SEQUENCE_STARTLINE);
+        if (headerIndex < 0 || headerIndex + 1 >= lines.size()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(lines.get(headerIndex + 1).trim());
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "Invalid journal sequence: " + lines.get(headerIndex + 1));
+            return 0;
+        }
+    }
+
     /**
      * Saves the current state of the given Timetable to the text file.
      *
@@ -84,51 +192,224 @@ public class SaveStorage extends Storage {
      * @param exemptedModules the list of string containing the module code to be saved
      */
     public void save(Timetable timetable, List<String> exemptedModules) {
-        StringBuilder stringBuilder = new StringBuilder();
+        save(snapshot(timetable, exemptedModules, journalSequence));
+    }
 
-        stringBuilder.append(TIMETABLE_STARTLINE).append("\n");
-        for (int year = 0; year < NUM_YEARS; year++) {
-            for (int term = 0; term < NUM_TERMS; term++) {
-                for (Module module : timetable.getModules(year, term)) {
-                    stringBuilder.append(module.getCode())
-                            .append("|").append(year + 1)
-                            .append("|").append(term + 1)
-                            .append("\n");
-                }
+    /**
+     * Saves a snapshot of the plan to the text file, then empties the journal, whose changes
+     * up to the snapshot's sequence number it now includes.
+     *
+     * @param snapshot the plan to save
+     */
+    public void save(Snapshot snapshot) {
+        boolean isSaved = saveToTextFile(out -> {
+            out.append(TIMETABLE_STARTLINE).append("\n");
+            for (String timetableLine : snapshot.timetableLines) {
+                out.append(timetableLine).append("\n");
+            }
+
+            out.append(EXEMPTED_MODULES_STARTLINE).append(System.lineSeparator());
+            for (String exempted : snapshot.exemptedModules) {
+                out.append(exempted).append(System.lineSeparator());
             }
+
+            out.append(JOURNAL_SEQUENCE_STARTLINE).append(System.lineSeparator());
+            out.append(Long.toString(snapshot.sequence)).append(System.lineSeparator());
+        });
+        if (!isSaved) {
+            return;
         }
+        journalSequence = Math.max(journalSequence, snapshot.sequence);
+        try {
+            // Records left behind by a crash before this point are skipped on load by their sequence number
+            journal.clear();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to clear save journal, " + e);
+        }
+    }
+
+    /**
+     * Appends one change to the journal.
+     *
+     * @param sequence the sequence number of the change, higher than any before it
+     * @param record the change
+     */
+    public void appendToJournal(long sequence, TimetableJournal.Record record) {
+        assert sequence > journalSequence : "Journal sequence numbers must increase";
+        try {
+            journal.append(sequence, record);
+            journalSequence = sequence;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to append to save journal, " + e);
+        }
+    }
 
-        stringBuilder.append(EXEMPTED_MODULES_STARTLINE).append(System.lineSeparator());
-        for (String exempted : exemptedModules) {
-            stringBuilder.append(exempted).append(System.lineSeparator());
+    /**
+     * Forces the changes appended to the journal to disk.
+     */
+    public void syncJournal() {
+        try {
+            journal.sync();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to sync save journal, " + e);
         }
+    }
+
+    /**
+     * Closes the journal file.
+     */
+    public void closeJournal() {
+        journal.close();
+    }
+
+    /** @return the sequence number of the last change saved or journalled */
+    public long getJournalSequence() {
+        return journalSequence;
+    }
 
-        saveToTextFile(stringBuilder.toString());
+    /** @return the size of the journal in bytes */
+    public long getJournalSize() {
+        return journal.size();
+    }
+
+    /**
+     * Copies what {@link #save} writes out of the plan, so that it can be saved later or on
+     * another thread while the plan keeps changing.
+     *
+     * @param timetable       the timeTable instance containing the data to be saved
+     * @param exemptedModules the list of string containing the module code to be saved
+     * @return the snapshot
+     */
+    public static Snapshot snapshot(Timetable timetable, List<String> exemptedModules) {
+        return snapshot(timetable, exemptedModules, 0);
+    }
+
+    /**
+     * Copies what {@link #save} writes out of the plan, together with the sequence number of
+     * the last journalled change it includes.
+     *
+     * @param timetable       the timeTable instance containing the data to be saved
+     * @param exemptedModules the list of string containing the module code to be saved
+     * @param sequence        the sequence number of the last change made to the plan
+     * @return the snapshot
+     */
+    public static Snapshot snapshot(Timetable timetable, List<String> exemptedModules, long sequence) {
+        List<String> timetableLines = new ArrayList<>();
+        for (int year = 0; year < timetable.getYearCount(); year++) {
+            for (int term = 0; term < timetable.getTermsPerYear(); term++) {
+                for (Module module : timetable.getModules(year, term)) {
+                    timetableLines.add(module.getCode() + DELIMITER + (year + 1) + DELIMITER + (term + 1));
+                }
+            }
+        }
+        return new Snapshot(timetableLines, List.copyOf(exemptedModules), sequence);
+    }
+
+    /**
+     * Returns the upper-cased module code of a timetable line.
+     *
+     * @param line a line of the timetable section
+     * @return the module code
+     */
+    static String codeOf(String line) {
+        int delimiterIndex = line.indexOf(DELIMITER);
+        return (delimiterIndex < 0 ? line : line.substring(0, delimiterIndex)).toUpperCase();
     }
 
     /**
      * Loads timetable entries from raw text lines into the provided Timetable instance.
+     * Entries are inserted directly in one pass, so their order in the file does not matter,
+     * and the finished plan is then validated once in term order. Rule violations are reported
+     * through {@link #getLoadViolations()} but do not drop the saved entries.
      *
      * @param timetable the timetable instance to populate
      * @param timetableLines list of raw lines representing timetable entries
      */
     private void loadTimetable(Timetable timetable, List<String> timetableLines) {
         timetable.clearTimetable();
+        loadViolations.clear();
+
+        List<String> codes = new ArrayList<>();
+        List<Integer> years = new ArrayList<>();
+        List<Integer> terms = new ArrayList<>();
         for (String line : timetableLines) {
             try {
                 List<String> moduleArgs = parseModule(line);
-                String moduleCode = moduleArgs.get(0);
-                String moduleYear = moduleArgs.get(1);
-                String moduleTerm = moduleArgs.get(2);
-                List<Integer> yearAndTerm = parseYearAndTerm(moduleYear, moduleTerm);
-                int parsedYear = yearAndTerm.get(0);
-                int parsedTerm = yearAndTerm.get(1);
-                addToTimetable(timetable, moduleCode, parsedYear, parsedTerm);
+                List<Integer> yearAndTerm = parseYearAndTerm(moduleArgs.get(1), moduleArgs.get(2));
+                int year = yearAndTerm.get(0);
+                int term = yearAndTerm.get(1);
+                if (year < 1 || year > timetable.getYearCount() || term < 1 || term > timetable.getTermsPerYear()) {
+                    throw new InvalidYearOrSemException(year, term);
+                }
+                codes.add(moduleArgs.get(0).toUpperCase());
+                years.add(year);
+                terms.add(term);
             } catch (ModHeroException e) {
                 logger.log(Level.WARNING, "Unable to load this line: " + line);
+                loadViolations.add("Skipped saved line \"" + line + "\": " + e.getMessage());
             }
         }
-        logger.log(Level.INFO, "Exempted modules loaded successfully.");
+
+        Map<String, Module> modules = resolveModules(codes);
+        for (int i = 0; i < codes.size(); i++) {
+            String code = codes.get(i);
+            Module module = modules.get(code);
+            if (module == null) {
+                loadViolations.add("Skipped " + code + ": module data could not be found");
+            } else if (timetable.contains(code)) {
+                loadViolations.add(new ModuleAlreadyExistsException(code).getMessage());
+            } else {
+                timetable.addModuleDirect(years.get(i) - 1, terms.get(i) - 1, module);
+            }
+        }
+
+        loadViolations.addAll(timetable.validatePlan(exemptedModules));
+        if (!loadViolations.isEmpty()) {
+            logger.log(Level.WARNING, "Saved timetable has issues:\n" + String.join("\n", loadViolations));
+        }
+        logger.log(Level.INFO, "Timetable loaded successfully.");
+    }
+
+    /**
+     * Looks up the modules of the saved timetable. Codes missing from the module data are fetched
+     * in one concurrent batch and added to the module data, as adding them one at a time would.
+     *
+     * @param codes the upper-cased module codes
+     * @return the modules found, keyed by code
+     */
+    private Map<String, Module> resolveModules(List<String> codes) {
+        Map<String, Module> modules = new HashMap<>();
+        Set<String> missingCodes = new LinkedHashSet<>();
+        for (String code : codes) {
+            Module module = allModulesData.get(code);
+            if (module == null) {
+                missingCodes.add(code);
+            } else {
+                modules.put(code, module);
+            }
+        }
+        if (missingCodes.isEmpty()) {
+            return modules;
+        }
+
+        logger.log(Level.INFO, "Fetching saved modules missing from local data: " + missingCodes);
+        Map<String, Module> fetched = moduleRetriever.getModulesAsync(Constants.AcademicConstants.ACAD_YEAR,
+                missingCodes, TIMETABLE_MODULES_FETCH_TIMEOUT_MILLIS).join();
+        for (Module module : fetched.values()) {
+            allModulesData.put(module.getCode(), module);
+        }
+        modules.putAll(fetched);
+        return modules;
+    }
+
+    /**
+     * Returns the problems found by the last {@link #load(Timetable)}: skipped lines and
+     * rules the saved plan breaks, in the order they were found.
+     *
+     * @return a read-only list of messages, empty if the plan loaded cleanly
+     */
+    public List<String> getLoadViolations() {
+        return Collections.unmodifiableList(loadViolations);
     }
 
     /**
@@ -143,34 +424,68 @@ public class SaveStorage extends Storage {
     }
 
     /**
-     * Loads and validates exempted module codes from the provided list of lines.
+     * Loads exempted module codes from the provided list of lines.
+     * Codes are resolved against the module catalog and the module cache first. Codes found in neither
+     * are still loaded, as they were recognised when saved, and are looked up on NUSMods in one
+     * background batch so that later lookups are local. Loading never waits for that batch.
      *
      * @param exemptedModulesLines list of raw lines containing exempted module codes
      */
     private void loadExemptedModules(List<String> exemptedModulesLines) {
         exemptedModules.clear();
-        ModuleRetriever moduleRetriever = new ModuleRetriever();
+        List<String> unresolvedCodes = new ArrayList<>();
         for (String line : exemptedModulesLines) {
-            Module module = moduleRetriever.getModule(Constants.AcademicConstants.ACAD_YEAR, line);
+            String code = line.toUpperCase();
+            Module module = allModulesData.get(code);
             if (module == null) {
-                logger.log(Level.WARNING, "loadExemptedModules does not recognise module: " + line);
-                continue;
+                module = moduleRetriever.getCachedModule(Constants.AcademicConstants.ACAD_YEAR, code);
+            }
+            if (module == null) {
+                unresolvedCodes.add(code);
+            } else {
+                code = module.getCode();
             }
-            exemptedModules.add(module.getCode());
+            if (!exemptedModules.contains(code)) {
+                exemptedModules.add(code);
+            }
+        }
+        if (!unresolvedCodes.isEmpty()) {
+            resolveInBackground(unresolvedCodes);
         }
         logger.log(Level.INFO, "Exempted modules loaded successfully.");
     }
 
+    /**
+     * Fetches exempted modules missing from local data in one concurrent batch, without blocking.
+     *
+     * @param codes the module codes to resolve
+     */
+    private void resolveInBackground(List<String> codes) {
+        logger.log(Level.INFO, "Resolving exempted modules in background: " + codes);
+        moduleRetriever.getModulesAsync(Constants.AcademicConstants.ACAD_YEAR, codes,
+                EXEMPTED_MODULES_FETCH_TIMEOUT_MILLIS).thenAccept(modules -> {
+                    for (String code : codes) {
+                        if (!modules.containsKey(code)) {
+                            logger.log(Level.WARNING, "loadExemptedModules could not resolve module: " + code);
+                        }
+                    }
+                });
+    }
+
     /**
      * Separates raw file lines into timetable and exempted module sections.
      *
+     * @param lines the raw lines of the save file
      * @param timetableLines the list to store lines belonging to the timetable section
      * @param exemptedModulesLines the list to store lines belonging to the exempted modules section
      */
-    private void separateIntoTimetableAndExemptedModulesSection(List<String> timetableLines, List<String> exemptedModulesLines) {
-        List<String> lines = loadFromTextFile();
+    private void separateIntoTimetableAndExemptedModulesSection(List<String> lines, List<String> timetableLines,
+                                                                List<String> exemptedModulesLines) {
+        isTimetableSection = false;
+        isExemptedModulesSection = false;
         for (String line : lines) {
-            if (isTimetableHeaderLine(line) || isExemptedModulesHeaderLine(line) || !isLineValid(line)) {
+            if (isTimetableHeaderLine(line) || isExemptedModulesHeaderLine(line)
+                    || isJournalSequenceHeaderLine(line) || !isLineValid(line)) {
                 continue;
             } else if (isTimetableSection) {
                 timetableLines.add(line.trim());
@@ -213,6 +528,22 @@ public class SaveStorage extends Storage {
         return false;
     }
 
+    /**
+     * Checks if the given line marks the start of the "Journal sequence" section,
+     * which ends the other sections.
+     *
+     * @param line a line of text from the file
+     * @return true if the line marks the start of the journal sequence section; otherwise false
+     */
+    private boolean isJournalSequenceHeaderLine(String line) {
+        if (line.equals(JOURNAL_SEQUENCE_STARTLINE)) {
+            isTimetableSection = false;
+            isExemptedModulesSection = false;
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Determines whether a line is valid for processing based on delimiter count.
      *
@@ -260,18 +591,6 @@ public class SaveStorage extends Storage {
         return List.of(yearInteger, termInteger);
     }
 
-    /**
-     * Adds a deserialized module to the current timetable.
-     *
-     * @param moduleCode module code identifier
-     * @param year       academic year index (1-based)
-     * @param term       academic term index (1-based)
-     * @throws ModHeroException if addition fails
-     */
-    private void addToTimetable(Timetable timetable, String moduleCode, int year, int term) throws ModHeroException {
-        AddCommand.addModule(timetable, allModulesData, moduleCode, year, term, exemptedModules);
-    }
-
     /**
      * Safely parses a string into an integer.
      *
@@ -285,4 +604,27 @@ public class SaveStorage extends Storage {
             return -1;
         }
     }
+
+    /** An immutable copy of the saved parts of a plan. */
+    public static final class Snapshot {
+        private final List<String> timetableLines;
+        private final List<String> exemptedModules;
+        private final long sequence;
+
+        private Snapshot(List<String> timetableLines, List<String> exemptedModules, long sequence) {
+            this.timetableLines = List.copyOf(timetableLines);
+            this.exemptedModules = exemptedModules;
+            this.sequence = sequence;
+        }
+
+        /** @return the timetable entries, as {@code CODE|year|term} lines */
+        public List<String> getTimetableLines() {
+            return timetableLines;
+        }
+
+        /** @return the exempted module codes */
+        public List<String> getExemptedModules() {
+            return exemptedModules;
+        }
+    }
 }
@@ -1,12 +1,24 @@
 package modhero.storage;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
@@ -20,6 +32,9 @@ import java.util.logging.Logger;
 public abstract class Storage {
     private static final Logger logger = Logger.getLogger(Storage.class.getName());
 
+    private static final String BACKUP_SUFFIX = ".bak";
+    private static final String TEMP_SUFFIX = ".tmp";
+
     private final String filePath;
 
     /**
@@ -51,6 +66,25 @@ public abstract class Storage {
         }
     }
 
+    /**
+     * Loads the file contents into a list of strings without creating the file or its directory.
+     *
+     * @return list of lines from file, or empty list if the file does not exist or cannot be read
+     */
+    public List<String> loadFromTextFileIfExists() {
+        logger.log(Level.FINEST, "Loading file if it exists: " + filePath);
+
+        if (!new File(filePath).exists()) {
+            return new ArrayList<>();
+        }
+        try {
+            return readFromFile();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to load file, " + e);
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * Saves the given text string to the file, overwriting any existing content.
      *
@@ -60,11 +94,27 @@ public abstract class Storage {
         assert textToAdd != null : "save textToAdd must not be null";
         logger.log(Level.FINEST, "Saving file: " + filePath);
 
+        saveToTextFile(out -> out.write(textToAdd));
+    }
+
+    /**
+     * Saves content streamed by the given writer to the file, overwriting any existing content.
+     * The content is never held in memory as a whole.
+     *
+     * @param content writes the text content to save
+     * @return true if the file was saved
+     */
+    public boolean saveToTextFile(ContentWriter content) {
+        assert content != null : "save content must not be null";
+        logger.log(Level.FINEST, "Saving file: " + filePath);
+
         try {
             ensureFileDirectoryExist();
-            writeToFile(textToAdd);
+            writeToFile(content);
+            return true;
         } catch (IOException e) {
             logger.log(Level.WARNING, "Failed to save file" + e);
+            return false;
         }
     }
 
@@ -113,18 +163,40 @@ public abstract class Storage {
         logger.log(Level.FINEST, "Ensured file existence");
     }
 
+    /**
+     * Loads the backup kept by the last save into a list of strings, each line a list element.
+     *
+     * @return list of lines from the backup, or empty list if there is no readable backup
+     */
+    public List<String> loadFromBackupFile() {
+        File backupFile = new File(filePath + BACKUP_SUFFIX);
+        if (!backupFile.exists()) {
+            return new ArrayList<>();
+        }
+        try {
+            return readFromFile(backupFile);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to load backup file, " + e);
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * Reads all lines from the file at filePath.
      *
      * @return list of strings read line-by-line from the file
-     * @throws FileNotFoundException when the file does not exist
+     * @throws IOException when the file does not exist or cannot be read
      */
-    private List<String> readFromFile() throws FileNotFoundException {
-        File file = new File(filePath);
-        Scanner s = new Scanner(file);
+    private List<String> readFromFile() throws IOException {
+        return readFromFile(new File(filePath));
+    }
+
+    private List<String> readFromFile(File file) throws IOException {
         List<String> rawTaskList = new ArrayList<>();
-        while (s.hasNext()) {
-            rawTaskList.add(s.nextLine());
+        try (Scanner s = new Scanner(file, StandardCharsets.UTF_8)) {
+            while (s.hasNext()) {
+                rawTaskList.add(s.nextLine());
+            }
         }
 
         logger.log(Level.FINEST, "Read file has " + rawTaskList.size() + " of sentences: ");
@@ -132,18 +204,106 @@ public abstract class Storage {
     }
 
     /**
-     * Writes the provided text content to the file at filePath.
+     * Writes the streamed text content to the file at filePath without ever leaving it half written.
+     * The previous file is first renamed to the backup, so a crash at any point leaves either the
+     * old or the new content, in the file or its backup.
      *
-     * @param textToAdd text to write to the file
+     * @param content writes the text content
      * @throws IOException if an I/O error occurs during writing
      */
-    private void writeToFile(String textToAdd) throws IOException {
-        assert textToAdd != null : "writeToFile textToAdd must not be null";
+    private void writeToFile(ContentWriter content) throws IOException {
+        assert content != null : "writeToFile content must not be null";
 
-        FileWriter fileWriter = new FileWriter(filePath);
-        fileWriter.write(textToAdd);
-        fileWriter.close();
+        Path file = Paths.get(filePath).toAbsolutePath();
+        writeAtomically(file, out -> {
+            Writer fileWriter = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            content.writeTo(fileWriter);
+            fileWriter.flush();
+        }, Paths.get(file + BACKUP_SUFFIX));
+
+        logger.log(Level.FINEST, "Saved file: " + filePath);
+    }
+
+    /**
+     * Writes the streamed content to a file without ever leaving it half written.
+     * The content goes to a uniquely named temporary file in the same directory, which is forced to
+     * disk and then atomically renamed over the file, so readers see either the old or the new content.
+     * The temporary file is removed if the write fails.
+     *
+     * @param file the file to write
+     * @param content writes the content
+     * @throws IOException if an I/O error occurs during writing
+     */
+    static void writeAtomically(Path file, StreamWriter content) throws IOException {
+        writeAtomically(file.toAbsolutePath(), content, null);
+    }
+
+    private static void writeAtomically(Path file, StreamWriter content, Path backupFile) throws IOException {
+        Path directory = file.getParent();
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), TEMP_SUFFIX);
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel));
+                content.writeTo(out);
+                out.flush();
+                channel.force(true);
+            }
+            if (backupFile != null && Files.exists(file)) {
+                moveAtomically(file, backupFile);
+            }
+            moveAtomically(tempFile, file);
+            forceDirectory(directory);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
 
-        logger.log(Level.FINEST, "Save file characters: " + textToAdd.length());
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Forces the directory entry changes of the renames to disk, where the platform allows it.
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened on every platform; the rename itself is still atomic
+            logger.log(Level.FINEST, "Unable to force directory: " + directory);
+        }
+    }
+
+    /**
+     * Streams the raw content of a file being written atomically.
+     */
+    @FunctionalInterface
+    interface StreamWriter {
+        /**
+         * Writes the content.
+         *
+         * @param out the destination, flushed and closed by the caller
+         * @throws IOException if the destination cannot be written
+         */
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Streams the text content of a file being saved.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        /**
+         * Writes the content.
+         *
+         * @param out the destination, closed by the caller
+         * @throws IOException if the destination cannot be written
+         */
+        void writeTo(Writer out) throws IOException;
     }
 }
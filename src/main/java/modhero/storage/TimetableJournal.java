@@ -0,0 +1,407 @@
+package modhero.storage;
+
+import modhero.common.util.SerialisationUtil;
+import modhero.common.util.SerialisedReader;
+import modhero.data.timetable.Slot;
+import modhero.data.timetable.Timetable;
+import modhero.exceptions.CorruptedDataFileException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Handles the append-only journal of changes made to the plan since its last saved snapshot.
+ * <p>
+ * Each change is one line holding its sequence number and a {@link Record}, both length-prefixed.
+ * Appending costs the same however large the plan is. A line cut short by a crash cannot be
+ * parsed and is skipped when the journal is loaded.
+ * </p>
+ */
+public class TimetableJournal extends Storage {
+    private static final Logger logger = Logger.getLogger(TimetableJournal.class.getName());
+
+    private static final byte LINE_SEPARATOR = '\n';
+
+    private final Path path;
+    private FileChannel channel;
+    private long lastSequence = 0;
+    private int unreadableCount = 0;
+
+    /**
+     * Constructs a TimetableJournal with the specified file path.
+     *
+     * @param filePath the path to the journal file
+     */
+    public TimetableJournal(String filePath) {
+        super(filePath);
+        this.path = Paths.get(filePath);
+    }
+
+    /**
+     * Loads the records appended after the given sequence number, in the order they were appended.
+     * Unreadable lines are skipped and counted in {@link #getUnreadableCount()}.
+     *
+     * @param afterSequence the sequence number of the last change already in the snapshot
+     * @return the records still to be applied to the snapshot
+     */
+    public List<Record> load(long afterSequence) {
+        List<Record> records = new ArrayList<>();
+        lastSequence = afterSequence;
+        unreadableCount = 0;
+        for (String line : loadFromTextFile()) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                SerialisedReader reader = SerialisedReader.of(line);
+                reader.next();
+                long sequence = Long.parseLong(reader.fieldAsString());
+                Record record = Record.read(reader);
+                if (sequence > afterSequence) {
+                    records.add(record);
+                }
+                lastSequence = Math.max(lastSequence, sequence);
+            } catch (CorruptedDataFileException | NumberFormatException e) {
+                logger.log(Level.WARNING, "Skipping unreadable journal line: " + line);
+                unreadableCount++;
+            }
+        }
+        logger.log(Level.INFO, "Loaded " + records.size() + " journal records");
+        return records;
+    }
+
+    /** @return the highest sequence number seen by the last {@link #load(long)} */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /** @return the number of lines the last {@link #load(long)} could not read */
+    public int getUnreadableCount() {
+        return unreadableCount;
+    }
+
+    /**
+     * Appends a record and flushes it to the operating system. Call {@link #sync()} to force it to disk.
+     *
+     * @param sequence the sequence number of the change
+     * @param record the change
+     * @throws IOException if the journal cannot be written
+     */
+    public void append(long sequence, Record record) throws IOException {
+        assert record != null : "append record must not be null";
+        String line = SerialisationUtil.serialiseMessage(Long.toString(sequence)) + record.encoded;
+        write(line.getBytes(StandardCharsets.UTF_8));
+        write(new byte[] {LINE_SEPARATOR});
+    }
+
+    /**
+     * Forces the appended records to disk.
+     *
+     * @throws IOException if the journal cannot be forced
+     */
+    public void sync() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Empties the journal once its records are part of a saved snapshot.
+     *
+     * @throws IOException if the journal cannot be truncated
+     */
+    public void clear() throws IOException {
+        openChannel().truncate(0);
+        channel.force(false);
+        logger.log(Level.FINE, "Journal cleared");
+    }
+
+    /** @return the size of the journal in bytes, or 0 if it cannot be read */
+    public long size() {
+        try {
+            return path.toFile().exists() ? openChannel().size() : 0;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to read journal size, " + e);
+            return 0;
+        }
+    }
+
+    /**
+     * Closes the journal file. It is reopened by the next append.
+     */
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to close journal, " + e);
+        }
+        channel = null;
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        FileChannel out = openChannel();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    /**
+     * Opens the journal for appending. A line left unfinished by a crash is ended first,
+     * so that it does not swallow the next record.
+     */
+    private FileChannel openChannel() throws IOException {
+        if (channel != null) {
+            return channel;
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            parent.toFile().mkdirs();
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long size = channel.size();
+        channel.position(size);
+        if (size > 0) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, size - 1);
+            if (last.get(0) != LINE_SEPARATOR) {
+                channel.write(ByteBuffer.wrap(new byte[] {LINE_SEPARATOR}));
+            }
+        }
+        return channel;
+    }
+
+    /**
+     * One change to the plan, as stored in the journal.
+     * Timetable entries use the same {@code CODE|year|term} form as the saved snapshot.
+     */
+    public static final class Record {
+        private static final String ADD = "add";
+        private static final String ADD_ALL = "addAll";
+        private static final String DELETE = "delete";
+        private static final String MOVE = "move";
+        private static final String CLEAR = "clear";
+        private static final String RESET = "reset";
+
+        private final String type;
+        private final List<String> arguments;
+        private final List<String> timetableLines;
+        private final List<String> exemptedModules;
+        private final String encoded;
+
+        private Record(String type, List<String> arguments, List<String> timetableLines,
+                       List<String> exemptedModules) {
+            this.type = type;
+            this.arguments = arguments;
+            this.timetableLines = timetableLines;
+            this.exemptedModules = exemptedModules;
+            this.encoded = encode();
+        }
+
+        /**
+         * Creates the record of a module added to the plan.
+         *
+         * @param moduleCode the module code
+         * @param year the zero-based year
+         * @param term the zero-based term
+         * @return the record
+         */
+        public static Record add(String moduleCode, int year, int term) {
+            return new Record(ADD, List.of(moduleCode, Integer.toString(year + 1), Integer.toString(term + 1)),
+                    List.of(), List.of());
+        }
+
+        /**
+         * Creates the record of several modules added to the plan as one change.
+         *
+         * @param timetable the timetable the modules were added to
+         * @param moduleCodes the codes of the modules added
+         * @return the record
+         */
+        public static Record addAll(Timetable timetable, Collection<String> moduleCodes) {
+            List<String> lines = new ArrayList<>();
+            for (String moduleCode : moduleCodes) {
+                Slot slot = timetable.getSlot(moduleCode);
+                assert slot != null : "addAll module must be in the timetable";
+                lines.add(String.join("|", moduleCode.toUpperCase(), Integer.toString(slot.getYear() + 1),
+                        Integer.toString(slot.getTerm() + 1)));
+            }
+            return new Record(ADD_ALL, List.of(), List.copyOf(lines), List.of());
+        }
+
+        /**
+         * Creates the record of a module moved to another term.
+         *
+         * @param moduleCode the module code
+         * @param year the zero-based year moved to
+         * @param term the zero-based term moved to
+         * @return the record
+         */
+        public static Record move(String moduleCode, int year, int term) {
+            return new Record(MOVE, List.of(moduleCode, Integer.toString(year + 1), Integer.toString(term + 1)),
+                    List.of(), List.of());
+        }
+
+        /**
+         * Creates the record of a module deleted from the plan.
+         *
+         * @param moduleCode the module code
+         * @return the record
+         */
+        public static Record delete(String moduleCode) {
+            return new Record(DELETE, List.of(moduleCode), List.of(), List.of());
+        }
+
+        /** @return the record of the plan and exempted modules being cleared */
+        public static Record clear() {
+            return new Record(CLEAR, List.of(), List.of(), List.of());
+        }
+
+        /**
+         * Creates the record of the plan being replaced as a whole, such as by setting a major.
+         *
+         * @param timetable the new timetable
+         * @param exemptedModules the new exempted module codes
+         * @return the record
+         */
+        public static Record reset(Timetable timetable, List<String> exemptedModules) {
+            SaveStorage.Snapshot snapshot = SaveStorage.snapshot(timetable, exemptedModules);
+            return new Record(RESET, List.of(), snapshot.getTimetableLines(), snapshot.getExemptedModules());
+        }
+
+        /** @return the number of chars this record takes in the journal */
+        public int encodedLength() {
+            return encoded.length();
+        }
+
+        /**
+         * Applies this change to saved plan data.
+         *
+         * @param timetableLines the timetable entries keyed by upper-cased module code
+         * @param exempted the exempted module codes
+         */
+        public void applyTo(Map<String, String> timetableLines, List<String> exempted) {
+            switch (type) {
+            case ADD:
+                String code = arguments.get(0).toUpperCase();
+                timetableLines.putIfAbsent(code, String.join("|", code, arguments.get(1), arguments.get(2)));
+                break;
+            case ADD_ALL:
+                for (String line : this.timetableLines) {
+                    timetableLines.putIfAbsent(SaveStorage.codeOf(line), line);
+                }
+                break;
+            case MOVE:
+                String movedCode = arguments.get(0).toUpperCase();
+                if (timetableLines.containsKey(movedCode)) {
+                    timetableLines.put(movedCode, String.join("|", movedCode, arguments.get(1), arguments.get(2)));
+                }
+                break;
+            case DELETE:
+                timetableLines.remove(arguments.get(0).toUpperCase());
+                break;
+            case CLEAR:
+                timetableLines.clear();
+                exempted.clear();
+                break;
+            case RESET:
+                timetableLines.clear();
+                for (String line : this.timetableLines) {
+                    timetableLines.put(SaveStorage.codeOf(line), line);
+                }
+                exempted.clear();
+                exempted.addAll(exemptedModules);
+                break;
+            default:
+                throw new AssertionError("Unknown journal record type: " + type);
+            }
+        }
+
+        private String encode() {
+            StringBuilder builder = new StringBuilder(SerialisationUtil.serialiseMessage(type));
+            if (type.equals(ADD_ALL)) {
+                builder.append(SerialisationUtil.serialiseList(timetableLines));
+            }
+            if (type.equals(RESET)) {
+                builder.append(SerialisationUtil.serialiseList(timetableLines));
+                builder.append(SerialisationUtil.serialiseList(exemptedModules));
+            }
+            for (String argument : arguments) {
+                builder.append(SerialisationUtil.serialiseMessage(argument));
+            }
+            return builder.toString();
+        }
+
+        /**
+         * Reads the record following the sequence number of a journal line.
+         *
+         * @param reader the reader positioned on the sequence number
+         * @return the record
+         * @throws CorruptedDataFileException if the record is incomplete or of an unknown type
+         */
+        private static Record read(SerialisedReader reader) throws CorruptedDataFileException {
+            String type = readField(reader);
+            Record record;
+            switch (type) {
+            case ADD:
+            case MOVE:
+                String code = readField(reader);
+                String year = readField(reader);
+                String term = readField(reader);
+                record = new Record(type, List.of(code, year, term), List.of(), List.of());
+                break;
+            case ADD_ALL:
+                record = new Record(ADD_ALL, List.of(), readNestedList(reader), List.of());
+                break;
+            case DELETE:
+                record = delete(readField(reader));
+                break;
+            case CLEAR:
+                record = clear();
+                break;
+            case RESET:
+                List<String> lines = readNestedList(reader);
+                List<String> exempted = readNestedList(reader);
+                record = new Record(RESET, List.of(), lines, exempted);
+                break;
+            default:
+                throw new CorruptedDataFileException("Unknown journal record type: " + type);
+            }
+            if (reader.hasNext()) {
+                throw new CorruptedDataFileException("Unexpected data after journal record");
+            }
+            return record;
+        }
+
+        private static String readField(SerialisedReader reader) throws CorruptedDataFileException {
+            reader.next();
+            return reader.fieldAsString();
+        }
+
+        private static List<String> readNestedList(SerialisedReader reader) throws CorruptedDataFileException {
+            reader.next();
+            SerialisedReader nested = reader.nested();
+            List<String> fields = new ArrayList<>();
+            while (nested.hasNext()) {
+                nested.next();
+                fields.add(nested.fieldAsString());
+            }
+            return List.copyOf(fields);
+        }
+    }
+}
@@ -6,11 +6,16 @@ import modhero.data.modules.Prerequisites;
 import modhero.data.timetable.Timetable;
 import modhero.exceptions.ModHeroException;
 import modhero.exceptions.ModuleAlreadyExistsException;
+import modhero.storage.AutoSaveService;
+import modhero.storage.SaveStorage;
 
 import java.util.*;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -24,6 +29,9 @@ public class AddCommandTest {
     private Map<String, Major> dummyMajorsData; // placeholder since not used in AddCommand
     private List<String> exemptedModules;
 
+    @TempDir
+    Path tempDir;
+
     // Helper method to quickly create a dummy module
     private Module createModule(String code) {
         return new Module(
@@ -44,6 +52,25 @@ public class AddCommandTest {
         exemptedModules = new ArrayList<>();
     }
 
+    @Test
+    void execute_journalsModuleInTheTermItWasAddedTo() {
+        allModulesData.put("CS1010", createModule("CS1010"));
+        String saveFile = tempDir.resolve("save.txt").toString();
+        try (AutoSaveService autoSaveService = new AutoSaveService(new SaveStorage(saveFile), 0, 1 << 20)) {
+            AddCommand command = new AddCommand("CS1010", 2, 1);
+            command.setData(timetable, allModulesData, dummyMajorsData, exemptedModules);
+            command.setAutoSaveService(autoSaveService);
+            command.execute();
+        }
+
+        SaveStorage saveStorage = new SaveStorage(saveFile);
+        saveStorage.setLoadData(allModulesData, new ArrayList<>());
+        Timetable reloaded = new Timetable();
+        saveStorage.load(reloaded);
+        saveStorage.closeJournal();
+        assertEquals(1, reloaded.getModules(1, 0).size());
+    }
+
     @Test
     void execute_successfullyAddsModuleFromLocalData() {
         Module module = createModule("CS1010");
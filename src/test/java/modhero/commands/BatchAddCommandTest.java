@@ -0,0 +1,83 @@
+package modhero.commands;
+
+import modhero.data.modules.Module;
+import modhero.data.modules.Prerequisites;
+import modhero.data.nusmods.ModuleRetriever;
+import modhero.data.timetable.PlanHistory;
+import modhero.data.timetable.Slot;
+import modhero.data.timetable.Timetable;
+import modhero.storage.ModuleCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BatchAddCommand}.
+ */
+public class BatchAddCommandTest {
+    private Timetable timetable;
+    private Map<String, Module> allModulesData;
+    private List<String> exemptedModules;
+    private PlanHistory planHistory;
+    private ModuleRetriever moduleRetriever;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        timetable = new Timetable();
+        allModulesData = new HashMap<>();
+        allModulesData.put("CS1010", new Module("CS1010", "Programming Methodology", 4, "core",
+                new Prerequisites()));
+        allModulesData.put("CS2040", new Module("CS2040", "Data Structures", 4, "core",
+                new Prerequisites(List.of(List.of("CS1010")))));
+        exemptedModules = new ArrayList<>();
+        planHistory = new PlanHistory(10);
+        planHistory.reset(timetable, exemptedModules);
+        moduleRetriever = new ModuleRetriever(new ModuleCache(tempDir.resolve("module_cache.txt").toString(),
+                10, 60_000));
+    }
+
+    @Test
+    void execute_addsModulesGivenAfterTheirDependentsAsOneChange() {
+        Map<String, Slot> slotsByCode = new LinkedHashMap<>();
+        slotsByCode.put("cs2040", new Slot(0, 1));
+        slotsByCode.put("cs1010", new Slot(0, 0));
+
+        CommandResult result = execute(new BatchAddCommand(slotsByCode, moduleRetriever));
+        assertEquals("CS2040 to Y1S2, CS1010 to Y1S1 added successfully!", result.getFeedbackToUser());
+        assertTrue(timetable.contains("CS1010"));
+        assertTrue(timetable.contains("CS2040"));
+
+        execute(new UndoCommand());
+        assertTrue(timetable.getAllModules().isEmpty());
+    }
+
+    @Test
+    void execute_blockedModule_addsNothing() {
+        Map<String, Slot> slotsByCode = new LinkedHashMap<>();
+        slotsByCode.put("CS1010", new Slot(0, 1));
+        slotsByCode.put("CS2040", new Slot(0, 0));
+
+        CommandResult result = execute(new BatchAddCommand(slotsByCode, moduleRetriever));
+        assertTrue(result.getFeedbackToUser().contains("CS2040"));
+        assertTrue(timetable.getAllModules().isEmpty());
+        assertEquals(0, planHistory.getUndoCount());
+    }
+
+    private CommandResult execute(Command command) {
+        command.setData(timetable, allModulesData, new HashMap<>(), exemptedModules);
+        command.setPlanHistory(planHistory);
+        return command.execute();
+    }
+}
@@ -0,0 +1,78 @@
+package modhero.commands;
+
+import modhero.data.modules.Module;
+import modhero.data.modules.Prerequisites;
+import modhero.data.timetable.PlanBranches;
+import modhero.data.timetable.Timetable;
+import modhero.storage.AutoSaveService;
+import modhero.storage.SaveStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ForkCommand}, {@link SwitchCommand} and {@link MergeCommand}.
+ */
+public class BranchCommandTest {
+    @TempDir
+    Path tempDir;
+
+    private Timetable timetable;
+    private Map<String, Module> allModulesData;
+    private List<String> exemptedModules;
+    private PlanBranches planBranches;
+
+    @BeforeEach
+    void setUp() {
+        timetable = new Timetable();
+        allModulesData = new HashMap<>();
+        allModulesData.put("CS1010", new Module("CS1010", "Programming Methodology", 4, "core", new Prerequisites()));
+        exemptedModules = new ArrayList<>();
+        planBranches = new PlanBranches("main", 10, 64);
+        planBranches.reset(timetable, exemptedModules);
+    }
+
+    @Test
+    void execute_changesOnBranchAreSavedOnlyOnceMerged() throws IOException {
+        Path journal = tempDir.resolve("save.txt" + SaveStorage.JOURNAL_SUFFIX);
+        try (AutoSaveService autoSaveService = new AutoSaveService(
+                new SaveStorage(tempDir.resolve("save.txt").toString()), 0, 1 << 20)) {
+            execute(new ForkCommand("whatif"), autoSaveService);
+            execute(new AddCommand("CS1010", 1, 1), autoSaveService);
+            autoSaveService.flush();
+            assertFalse(Files.exists(journal) && Files.readString(journal).contains("CS1010"));
+
+            execute(new SwitchCommand("main"), autoSaveService);
+            assertFalse(timetable.contains("CS1010"));
+
+            CommandResult result = execute(new MergeCommand("whatif"), autoSaveService);
+            assertEquals("Merged branch whatif into main.", result.getFeedbackToUser());
+            assertTrue(timetable.contains("CS1010"));
+        }
+        assertTrue(Files.readString(journal).contains("CS1010"));
+    }
+
+    @Test
+    void execute_unknownBranch_listsBranches() {
+        CommandResult result = execute(new SwitchCommand("nope"), null);
+        assertEquals("There is no branch named nope. Branches: main", result.getFeedbackToUser());
+    }
+
+    private CommandResult execute(Command command, AutoSaveService autoSaveService) {
+        command.setData(timetable, allModulesData, new HashMap<>(), exemptedModules);
+        command.setAutoSaveService(autoSaveService);
+        command.setPlanHistory(planBranches.getHistory());
+        command.setPlanBranches(planBranches);
+        return command.execute();
+    }
+}
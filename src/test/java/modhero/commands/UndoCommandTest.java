@@ -0,0 +1,60 @@
+package modhero.commands;
+
+import modhero.data.modules.Module;
+import modhero.data.modules.Prerequisites;
+import modhero.data.timetable.PlanHistory;
+import modhero.data.timetable.Timetable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link UndoCommand} and {@link RedoCommand}.
+ */
+public class UndoCommandTest {
+    private Timetable timetable;
+    private List<String> exemptedModules;
+    private PlanHistory planHistory;
+
+    @BeforeEach
+    void setUp() {
+        timetable = new Timetable();
+        timetable.addModuleDirect(0, 0, new Module("CS1010", "Programming Methodology", 4, "core",
+                new Prerequisites()));
+        exemptedModules = new ArrayList<>(List.of("MA1301"));
+        planHistory = new PlanHistory(10);
+        planHistory.reset(timetable, exemptedModules);
+    }
+
+    @Test
+    void execute_afterClear_restoresPlan() {
+        execute(new ClearCommand());
+        assertFalse(timetable.contains("CS1010"));
+
+        CommandResult result = execute(new UndoCommand());
+        assertTrue(result.getFeedbackToUser().contains("Undid"));
+        assertTrue(timetable.contains("CS1010"));
+        assertEquals(List.of("MA1301"), exemptedModules);
+
+        execute(new RedoCommand());
+        assertFalse(timetable.contains("CS1010"));
+        assertTrue(exemptedModules.isEmpty());
+    }
+
+    @Test
+    void execute_withoutChanges_reportsNothingToUndo() {
+        assertEquals("There is nothing to undo.", execute(new UndoCommand()).getFeedbackToUser());
+        assertEquals("There is nothing to redo.", execute(new RedoCommand()).getFeedbackToUser());
+    }
+
+    private CommandResult execute(Command command) {
+        command.setData(timetable, new HashMap<>(), new HashMap<>(), exemptedModules);
+        command.setPlanHistory(planHistory);
+        return command.execute();
+    }
+}
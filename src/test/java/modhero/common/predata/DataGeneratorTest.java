@@ -0,0 +1,167 @@
+package modhero.common.predata;
+
+import com.sun.net.httpserver.HttpServer;
+import modhero.common.util.DeserialisationUtil;
+import modhero.common.util.SerialisationWriter;
+import modhero.data.modules.Module;
+import modhero.data.modules.Prerequisites;
+import modhero.data.nusmods.NusmodsAPIClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link DataGenerator}.
+ */
+class DataGeneratorTest {
+    private static final String CS2113_JSON = "{\"moduleCode\":\"CS2113\",\"title\":\"Software Engineering\","
+            + "\"moduleCredit\":\"4\",\"preclusionRule\":\"CS2103T\",\"semesterData\":[{\"semester\":1}]}";
+
+    private static final String MODULE_JSON = "{\"moduleCode\":\"%s\",\"title\":\"Fresh %s\","
+            + "\"moduleCredit\":\"4\",\"semesterData\":[{\"semester\":1}]}";
+
+    private HttpServer server;
+    private NusmodsAPIClient client;
+    private final List<String> requestedCodes = new CopyOnWriteArrayList<>();
+    private final Set<String> failingCodes = ConcurrentHashMap.newKeySet();
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Stub NUSMods server: /<acadYear>/modules/<code>.json, failing with 404 for codes in failingCodes
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String code = path.substring(path.lastIndexOf('/') + 1).replace(".json", "");
+            requestedCodes.add(code);
+            byte[] body = String.format(MODULE_JSON, code, code).getBytes(StandardCharsets.UTF_8);
+            int status = failingCodes.contains(code) ? 404 : 200;
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        client = new NusmodsAPIClient("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void generateModulesTxtFromDump_writesOneLinePerModule() throws IOException {
+        Path dump = write("dump.json", "[" + CS2113_JSON + ",{\"moduleCode\":\"CS1010\",\"title\":"
+                + "\"Programming Methodology\",\"moduleCredit\":\"4\"}]");
+        Path modulesFile = tempDir.resolve("modules.txt");
+
+        assertEquals(2, DataGenerator.generateModulesTxtFromDump(dump, modulesFile));
+        List<String> lines = Files.readAllLines(modulesFile);
+        assertEquals(2, lines.size());
+        List<String> moduleArgs = DeserialisationUtil.deserialiseMessage(lines.get(0));
+        assertEquals("CS2113", moduleArgs.get(0));
+        assertEquals("CS2103T", moduleArgs.get(4));
+        assertFalse(Files.exists(tempDir.resolve("modules.txt.tmp")));
+    }
+
+    @Test
+    void generateModulesTxtFromDump_skipsIncompleteEntries() throws IOException {
+        Path dump = write("dump.json", "[{\"moduleCode\":\"CS0000\",\"title\":\"No Credit\"},"
+                + "{\"moduleCode\":\"CS9999\",\"title\":\"Bad Credit\",\"moduleCredit\":\"many\"}," + CS2113_JSON + "]");
+        Path modulesFile = tempDir.resolve("modules.txt");
+
+        assertEquals(1, DataGenerator.generateModulesTxtFromDump(dump, modulesFile));
+        assertEquals(1, Files.readAllLines(modulesFile).size());
+    }
+
+    @Test
+    void generateModulesTxtFromDump_malformedDump_leavesModulesFileUntouched() throws IOException {
+        Path dump = write("dump.json", "[" + CS2113_JSON + ",{\"moduleCode\":\"CS10");
+        Path modulesFile = write("modules.txt", "previous content\n");
+
+        assertThrows(IOException.class, () -> DataGenerator.generateModulesTxtFromDump(dump, modulesFile));
+        assertEquals("previous content\n", Files.readString(modulesFile));
+        assertFalse(Files.exists(tempDir.resolve("modules.txt.tmp")));
+    }
+
+    @Test
+    void updateModulesTxt_replacesChangedRecordsAndKeepsOtherLines() throws IOException {
+        String staleLine = toLine(new Module("CS2113", "Stale CS2113", 4, "core", "", new Prerequisites()));
+        String otherLine = toLine(new Module("CS9999", "Other", 4, "core", "", new Prerequisites()));
+        Path modulesFile = write("modules.txt", "not a module record" + System.lineSeparator()
+                + staleLine + System.lineSeparator() + otherLine + System.lineSeparator());
+
+        assertEquals(2, DataGenerator.updateModulesTxt(modulesFile, client, List.of("CS2113", "CS1010")));
+        List<String> lines = Files.readAllLines(modulesFile);
+        assertEquals(4, lines.size());
+        assertEquals("not a module record", lines.get(0));
+        assertEquals("Fresh CS2113", DeserialisationUtil.deserialiseMessage(lines.get(1)).get(1));
+        assertEquals(otherLine, lines.get(2));
+        assertEquals("CS1010", DeserialisationUtil.deserialiseMessage(lines.get(3)).get(0));
+        assertFalse(Files.exists(tempDir.resolve("modules.txt.checkpoint")));
+    }
+
+    @Test
+    void updateModulesTxt_unchangedRecords_leavesModulesFileUnwritten() throws IOException {
+        Path modulesFile = tempDir.resolve("modules.txt");
+        DataGenerator.updateModulesTxt(modulesFile, client, List.of("CS2113", "CS1010"));
+        String before = Files.readString(modulesFile);
+        FileTime written = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(modulesFile, written);
+
+        assertEquals(0, DataGenerator.updateModulesTxt(modulesFile, client, List.of("CS2113", "CS1010")));
+        assertEquals(before, Files.readString(modulesFile));
+        assertEquals(written, Files.getLastModifiedTime(modulesFile));
+    }
+
+    @Test
+    void updateModulesTxt_interruptedRun_resumesFromCheckpoint() throws IOException {
+        Path modulesFile = tempDir.resolve("modules.txt");
+        Path checkpointFile = tempDir.resolve("modules.txt.checkpoint");
+        failingCodes.add("CS1010");
+        assertEquals(1, DataGenerator.updateModulesTxt(modulesFile, client, List.of("CS2113", "CS1010")));
+        assertTrue(Files.exists(checkpointFile));
+
+        // A record cut off part way, as left by a run that was killed while writing
+        write("modules.txt.checkpoint", Files.readString(checkpointFile) + "6#CS10");
+        failingCodes.clear();
+        requestedCodes.clear();
+
+        assertEquals(1, DataGenerator.updateModulesTxt(modulesFile, client, List.of("CS2113", "CS1010")));
+        assertEquals(List.of("CS1010"), requestedCodes);
+        List<String> lines = Files.readAllLines(modulesFile);
+        assertEquals(2, lines.size());
+        assertEquals("CS1010", DeserialisationUtil.deserialiseMessage(lines.get(1)).get(0));
+        assertFalse(Files.exists(checkpointFile));
+    }
+
+    private static String toLine(Module module) throws IOException {
+        StringBuilder line = new StringBuilder();
+        module.writeFormatted(new SerialisationWriter(line));
+        return line.toString();
+    }
+
+    private Path write(String fileName, String content) throws IOException {
+        Path file = tempDir.resolve(fileName);
+        Files.writeString(file, content);
+        return file;
+    }
+}
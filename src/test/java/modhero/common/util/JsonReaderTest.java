@@ -0,0 +1,73 @@
+package modhero.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonReaderTest {
+
+    @Test
+    void readsNamesAndScalarValuesInOrder() throws IOException {
+        JsonReader reader = new JsonReader("{\"moduleCode\" : \"CS2113\", \"moduleCredit\":4, \"graded\":true}");
+        reader.beginObject();
+        assertEquals("moduleCode", reader.nextName());
+        assertEquals("CS2113", reader.nextString());
+        assertEquals("moduleCredit", reader.nextName());
+        assertEquals(JsonReader.Token.NUMBER, reader.peek());
+        assertEquals("4", reader.nextString());
+        assertEquals("graded", reader.nextName());
+        assertEquals("true", reader.nextString());
+        assertFalse(reader.hasNext());
+        reader.endObject();
+        assertEquals(JsonReader.Token.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    void nextStringHandlesEscapes() throws IOException {
+        JsonReader reader = new JsonReader("[\"a\\\"b\\\\c\\u0041\\n\"]");
+        reader.beginArray();
+        assertEquals("a\"b\\cA\n", reader.nextString());
+        reader.endArray();
+    }
+
+    @Test
+    void skipValueSkipsNestedStructures() throws IOException {
+        String json = "{\"semesterData\":[{\"timetable\":[1,{\"x\":\"]}\"}],\"exam\":null}],\"title\":\"Programming\"}";
+        JsonReader reader = new JsonReader(json);
+        reader.beginObject();
+        assertEquals("semesterData", reader.nextName());
+        reader.skipValue();
+        assertEquals("title", reader.nextName());
+        assertEquals("Programming", reader.nextString());
+        reader.endObject();
+    }
+
+    @Test
+    void readsNullLiteral() throws IOException {
+        JsonReader reader = new JsonReader("{\"prereqTree\":null}");
+        reader.beginObject();
+        reader.nextName();
+        assertEquals(JsonReader.Token.NULL, reader.peek());
+        reader.nextNull();
+        reader.endObject();
+    }
+
+    @Test
+    void throwsOnUnterminatedString() {
+        JsonReader reader = new JsonReader("{\"title\":\"Programming");
+        assertThrows(IOException.class, () -> {
+            reader.beginObject();
+            reader.nextName();
+            reader.nextString();
+        });
+    }
+
+    @Test
+    void throwsOnUnexpectedToken() throws IOException {
+        JsonReader reader = new JsonReader("[\"CS2113\"]");
+        reader.beginArray();
+        assertThrows(IOException.class, reader::beginObject);
+    }
+}
@@ -1,6 +1,7 @@
 package modhero.common.util;
 
 import modhero.data.modules.Module;
+import modhero.data.modules.PreclusionIndex;
 import modhero.data.modules.Prerequisites;
 import modhero.exceptions.ModulePreclusionConflictException;
 import org.junit.jupiter.api.Test;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -213,4 +215,49 @@ public class PreclusionUtilTest {
                 () -> PreclusionUtil.validatePreclusions(moduleToAdd, existingModules)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    public void validatePreclusions_codePrefixOfPreclusion_success() {
+        // CS1010 should not match a preclusion of CS1010E
+        Module moduleToAdd = createModuleWithPreclusion("CS1101S", "CS1010E, CS1010X");
+        List<Module> existingModules = new ArrayList<>();
+        existingModules.add(createModule("CS1010"));
+
+        assertDoesNotThrow(() ->
+                PreclusionUtil.validatePreclusions(moduleToAdd, existingModules)
+        );
+    }
+
+    @Test
+    public void validatePreclusions_reverseDirectionConflict_throwsException() {
+        Module moduleToAdd = createModule("CS2103");
+        List<Module> existingModules = new ArrayList<>();
+        existingModules.add(createModuleWithPreclusion("CS2103T", "CS2103"));
+
+        assertThrows(
+                ModulePreclusionConflictException.class,
+                () -> PreclusionUtil.validatePreclusions(moduleToAdd, existingModules)
+        );
+    }
+
+    @Test
+    public void parsePreclusionCodes_freeText_extractsWholeCodes() {
+        assertEquals(Set.of("CS2103", "CS2113T", "CS2103DE"),
+                PreclusionUtil.parsePreclusionCodes("If undertaking: cs2103, CS2113T or CS2103DE (not CS210)"));
+        assertTrue(PreclusionUtil.parsePreclusionCodes(null).isEmpty());
+    }
+
+    @Test
+    public void validatePreclusions_indexIsSymmetric_throwsException() {
+        PreclusionIndex index = new PreclusionIndex();
+        index.register(createModuleWithPreclusion("CS2103T", "CS2103"));
+
+        assertThrows(
+                ModulePreclusionConflictException.class,
+                () -> PreclusionUtil.validatePreclusions(createModule("CS2103"), index, Set.of("CS2103T"))
+        );
+        assertDoesNotThrow(() ->
+                PreclusionUtil.validatePreclusions(createModule("CS2103"), index, Set.of("CS2101"))
+        );
+    }
+}
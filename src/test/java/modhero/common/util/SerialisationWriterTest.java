@@ -0,0 +1,70 @@
+package modhero.common.util;
+
+import modhero.data.modules.Module;
+import modhero.data.modules.PrereqNode;
+import modhero.data.modules.Prerequisites;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SerialisationWriter}.
+ */
+class SerialisationWriterTest {
+    @Test
+    void writeMessage_matchesSerialisationUtil() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        new SerialisationWriter(builder).writeMessage("CS1010").writeMessage("").writeMessage(2025);
+        assertEquals(SerialisationUtil.serialiseMessage("CS1010") + SerialisationUtil.serialiseMessage("")
+                + SerialisationUtil.serialiseMessage("2025"), builder.toString());
+    }
+
+    @Test
+    void beginMessage_writesNestedMessage() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        SerialisationWriter writer = new SerialisationWriter(builder);
+        writer.beginMessage(SerialisationWriter.messageLength(6) + SerialisationWriter.messageLength(1))
+                .writeMessage("CS2113")
+                .writeMessage(2)
+                .endMessage();
+        assertEquals(SerialisationUtil.serialiseList(List.of("CS2113", "2")), builder.toString());
+    }
+
+    @Test
+    void endMessage_rejectsWrongContentLength() throws IOException {
+        SerialisationWriter writer = new SerialisationWriter(new StringBuilder());
+        writer.beginMessage(3).append("ab");
+        assertThrows(IllegalStateException.class, writer::endMessage);
+    }
+
+    @Test
+    void outputStream_encodesUtf8() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SerialisationWriter writer = new SerialisationWriter(bytes);
+        writer.writeMessage("Café").endLine();
+        writer.flush();
+        assertEquals("4#Café|" + System.lineSeparator(), bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void moduleFormattedString_matchesNestedSerialisation() {
+        Prerequisites prereqs = new Prerequisites(PrereqNode.or(List.of(
+                PrereqNode.leaf("CS2040C"),
+                PrereqNode.and(List.of(PrereqNode.leaf("CS2030"), PrereqNode.leaf("CS2%"))))));
+        Module module = new Module("CS2113", "Software Engineering & OOP", 4, "core", "CS2103T", prereqs);
+
+        String expected = SerialisationUtil.serialiseMessage("CS2113")
+                + SerialisationUtil.serialiseMessage("Software Engineering & OOP")
+                + SerialisationUtil.serialiseMessage("4")
+                + SerialisationUtil.serialiseMessage("core")
+                + SerialisationUtil.serialiseMessage("CS2103T")
+                + SerialisationUtil.serialiseMessage("or(CS2040C,and(CS2030,CS2%))");
+        assertEquals(expected, module.toFormatedString());
+        assertEquals(expected.length(), module.formattedLength());
+    }
+}
@@ -0,0 +1,112 @@
+package modhero.common.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares {@link SerialisedReader} with {@link DeserialisationUtil} on major-shaped records,
+ * which nest three levels deep. Run manually; it is not part of the test suite.
+ */
+public class SerialisedReaderBenchmark {
+    private static final int RECORDS = 2_000;
+    private static final int MODULES_PER_RECORD = 40;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    public static void main(String[] args) throws Exception {
+        List<String> records = buildRecords();
+        ByteBuffer encoded = ByteBuffer.wrap(String.join("", records).getBytes(StandardCharsets.UTF_8));
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runDeserialisationUtil(records);
+            runReader(records);
+            runByteReader(encoded);
+        }
+
+        report("DeserialisationUtil", () -> runDeserialisationUtil(records));
+        report("SerialisedReader (chars)", () -> runReader(records));
+        report("SerialisedReader (bytes)", () -> runByteReader(encoded));
+    }
+
+    private static List<String> buildRecords() {
+        List<String> records = new ArrayList<>();
+        for (int r = 0; r < RECORDS; r++) {
+            StringBuilder modules = new StringBuilder();
+            for (int m = 0; m < MODULES_PER_RECORD; m++) {
+                String triplet = SerialisationUtil.serialiseMessage("CS" + (1000 + m))
+                        + SerialisationUtil.serialiseMessage(String.valueOf(m % 4 + 1))
+                        + SerialisationUtil.serialiseMessage(String.valueOf(m % 2 + 1));
+                modules.append(SerialisationUtil.serialiseMessage(triplet));
+            }
+            records.add(SerialisationUtil.serialiseMessage("Major " + r)
+                    + SerialisationUtil.serialiseMessage("M" + r)
+                    + SerialisationUtil.serialiseMessage(modules.toString()));
+        }
+        return records;
+    }
+
+    private static long runDeserialisationUtil(List<String> records) {
+        long checksum = 0;
+        for (String record : records) {
+            List<String> majorTop = DeserialisationUtil.deserialiseMessage(record);
+            for (String moduleYT : DeserialisationUtil.deserialiseMessage(majorTop.get(2))) {
+                List<String> triplet = DeserialisationUtil.deserialiseMessage(moduleYT);
+                checksum += triplet.get(0).length() + Integer.parseInt(triplet.get(1))
+                        + Integer.parseInt(triplet.get(2));
+            }
+        }
+        return checksum;
+    }
+
+    private static long runReader(List<String> records) throws Exception {
+        long checksum = 0;
+        for (String record : records) {
+            checksum += readMajor(SerialisedReader.of(record));
+        }
+        return checksum;
+    }
+
+    private static long runByteReader(ByteBuffer encoded) throws Exception {
+        long checksum = 0;
+        SerialisedReader reader = SerialisedReader.of(encoded);
+        while (reader.hasNext()) {
+            checksum += readMajor(reader);
+        }
+        return checksum;
+    }
+
+    private static long readMajor(SerialisedReader reader) throws Exception {
+        long checksum = 0;
+        reader.next();
+        reader.next();
+        reader.next();
+        SerialisedReader moduleReader = reader.nested();
+        while (moduleReader.hasNext()) {
+            moduleReader.next();
+            SerialisedReader tripletReader = moduleReader.nested();
+            tripletReader.next();
+            checksum += tripletReader.fieldAsString().length();
+            tripletReader.next();
+            checksum += tripletReader.fieldAsInt();
+            tripletReader.next();
+            checksum += tripletReader.fieldAsInt();
+        }
+        return checksum;
+    }
+
+    private static void report(String name, Workload workload) throws Exception {
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            checksum += workload.run();
+        }
+        double millisPerRound = (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS;
+        System.out.printf("%-26s %8.2f ms/round (checksum %d)%n", name, millisPerRound, checksum);
+    }
+
+    private interface Workload {
+        long run() throws Exception;
+    }
+}
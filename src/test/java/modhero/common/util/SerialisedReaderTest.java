@@ -0,0 +1,83 @@
+package modhero.common.util;
+
+import modhero.exceptions.CorruptedDataFileException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerialisedReaderTest {
+    @Test
+    void readAll_matchesDeserialiseMessage() {
+        String serialised = SerialisationUtil.serialiseMessage("CS1010")
+                + SerialisationUtil.serialiseMessage("")
+                + SerialisationUtil.serialiseMessage("Software Engineering & OOP");
+        assertEquals(DeserialisationUtil.deserialiseMessage(serialised), SerialisedReader.readAll(serialised));
+    }
+
+    @Test
+    void readAll_returnsNullOnCorruption() {
+        assertNull(SerialisedReader.readAll("6CS1010|"));
+        assertNull(SerialisedReader.readAll("X#CS1010|"));
+        assertNull(SerialisedReader.readAll("6#CS10"));
+    }
+
+    @Test
+    void next_readsNestedFieldsInPlace() throws CorruptedDataFileException {
+        String triplet = SerialisationUtil.serialiseMessage("CS2113")
+                + SerialisationUtil.serialiseMessage("2")
+                + SerialisationUtil.serialiseMessage("1");
+        String serialised = SerialisationUtil.serialiseMessage("Computer Science")
+                + SerialisationUtil.serialiseMessage(SerialisationUtil.serialiseMessage(triplet));
+
+        SerialisedReader reader = SerialisedReader.of(serialised);
+        reader.next();
+        assertEquals("Computer Science", reader.field().toString());
+        reader.next();
+        SerialisedReader moduleReader = reader.nested();
+        moduleReader.next();
+        SerialisedReader tripletReader = moduleReader.nested();
+        tripletReader.next();
+        assertEquals("CS2113", tripletReader.fieldAsString());
+        tripletReader.next();
+        assertEquals(2, tripletReader.fieldAsInt());
+        tripletReader.next();
+        assertEquals(1, tripletReader.fieldAsInt());
+        assertFalse(tripletReader.hasNext());
+        assertFalse(moduleReader.hasNext());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    void next_countsCharsInUtf8Bytes() throws CorruptedDataFileException {
+        String serialised = SerialisationUtil.serialiseMessage("Café")
+                + SerialisationUtil.serialiseMessage("😀 ok")
+                + SerialisationUtil.serialiseMessage("42");
+        SerialisedReader reader = SerialisedReader.of(ByteBuffer.wrap(serialised.getBytes(StandardCharsets.UTF_8)));
+
+        List<String> fields = new ArrayList<>();
+        while (reader.hasNext()) {
+            reader.next();
+            fields.add(reader.fieldAsString());
+        }
+        assertEquals(List.of("Café", "😀 ok", "42"), fields);
+        assertEquals(42, reader.fieldAsInt());
+    }
+
+    @Test
+    void next_rejectsTruncatedBytes() {
+        SerialisedReader reader = SerialisedReader.of(ByteBuffer.wrap("6#CS10".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(CorruptedDataFileException.class, reader::next);
+    }
+
+    @Test
+    void fieldAsInt_rejectsNonNumbers() throws CorruptedDataFileException {
+        SerialisedReader reader = SerialisedReader.of(SerialisationUtil.serialiseMessage("2a"));
+        reader.next();
+        assertThrows(CorruptedDataFileException.class, reader::fieldAsInt);
+    }
+}
@@ -0,0 +1,128 @@
+package modhero.data;
+
+import modhero.data.modules.Module;
+import modhero.data.modules.Prerequisites;
+import modhero.data.timetable.PlanBranches;
+import modhero.data.timetable.PlanValidationCache;
+import modhero.data.timetable.Timetable;
+import modhero.exceptions.BranchAlreadyExistsException;
+import modhero.exceptions.BranchNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PlanBranches}.
+ */
+public class PlanBranchesTest {
+    private final Module cs1010 = new Module("CS1010", "CS1010", 4, "core", new Prerequisites());
+    private final Module cs1231 = new Module("CS1231", "CS1231", 4, "core", new Prerequisites());
+    private final Module cs2040 = new Module("CS2040", "CS2040", 4, "core",
+            new Prerequisites(List.of(List.of("CS1010"))));
+
+    private Timetable timetable;
+    private List<String> exemptedModules;
+    private PlanBranches branches;
+
+    @BeforeEach
+    void setUp() {
+        timetable = new Timetable();
+        timetable.addModuleDirect(0, 0, cs1010);
+        timetable.addModuleDirect(1, 0, cs2040);
+        exemptedModules = new ArrayList<>();
+        branches = new PlanBranches("main", 10, 64);
+        branches.reset(timetable, exemptedModules);
+    }
+
+    @Test
+    void switchTo_keepsChangesOnTheirBranch() throws Exception {
+        branches.fork("whatif", timetable, exemptedModules);
+        timetable.addModuleDirect(0, 1, cs1231);
+
+        branches.switchTo("main", timetable, exemptedModules);
+        assertFalse(timetable.contains("CS1231"));
+        assertTrue(branches.isOnMainBranch());
+
+        branches.switchTo("whatif", timetable, exemptedModules);
+        assertTrue(timetable.contains("CS1231"));
+    }
+
+    @Test
+    void forkAndSwitch_rejectUnknownOrDuplicateNames() throws Exception {
+        branches.fork("whatif", timetable, exemptedModules);
+        assertThrows(BranchAlreadyExistsException.class, () -> branches.fork("whatif", timetable, exemptedModules));
+        assertThrows(BranchNotFoundException.class, () -> branches.switchTo("other", timetable, exemptedModules));
+        assertEquals("whatif", branches.getCurrentName());
+    }
+
+    @Test
+    void merge_appliesChangesMadeOnOneBranchOnly() throws Exception {
+        branches.fork("whatif", timetable, exemptedModules);
+        timetable.deleteModule("CS2040", exemptedModules);
+        timetable.addModuleDirect(2, 0, cs2040);
+        branches.switchTo("main", timetable, exemptedModules);
+        timetable.addModuleDirect(0, 1, cs1231);
+
+        List<String> conflicts = branches.merge("whatif", timetable, exemptedModules);
+        assertTrue(conflicts.isEmpty());
+        assertEquals(2, timetable.getSlot("CS2040").getYear());
+        assertTrue(timetable.contains("CS1231"));
+        assertTrue(timetable.contains("CS1010"));
+    }
+
+    @Test
+    void merge_keepsCurrentBranchOnConflict() throws Exception {
+        branches.fork("whatif", timetable, exemptedModules);
+        timetable.deleteModule("CS2040", exemptedModules);
+        timetable.addModuleDirect(2, 0, cs2040);
+        branches.switchTo("main", timetable, exemptedModules);
+        timetable.deleteModule("CS2040", exemptedModules);
+        timetable.addModuleDirect(3, 0, cs2040);
+
+        List<String> conflicts = branches.merge("whatif", timetable, exemptedModules);
+        assertEquals(1, conflicts.size());
+        assertEquals(3, timetable.getSlot("CS2040").getYear());
+    }
+
+    @Test
+    void merge_twiceDoesNotReapplyChangesAlreadyMerged() throws Exception {
+        branches.fork("whatif", timetable, exemptedModules);
+        timetable.addModuleDirect(0, 1, cs1231);
+        branches.switchTo("main", timetable, exemptedModules);
+        assertTrue(branches.merge("whatif", timetable, exemptedModules).isEmpty());
+        assertTrue(timetable.contains("CS1231"));
+
+        timetable.deleteModule("CS1231", exemptedModules);
+        assertTrue(branches.merge("whatif", timetable, exemptedModules).isEmpty());
+        assertFalse(timetable.contains("CS1231"));
+    }
+
+    @Test
+    void validatePlan_reusesResultsOfUnchangedTerms() {
+        PlanValidationCache cache = new PlanValidationCache(64);
+        timetable.validatePlan(exemptedModules, cache);
+        int termCount = timetable.getYearCount() * timetable.getTermsPerYear();
+        assertEquals(termCount, cache.size());
+
+        // Only the last term and nothing before it changed
+        timetable.addModuleDirect(timetable.getYearCount() - 1, timetable.getTermsPerYear() - 1, cs1231);
+        assertEquals(timetable.validatePlan(exemptedModules), timetable.validatePlan(exemptedModules, cache));
+        assertEquals(termCount + 1, cache.size());
+    }
+
+    @Test
+    void validate_findsViolationsIntroducedOnBranch() throws Exception {
+        assertTrue(branches.validate(timetable, exemptedModules).isEmpty());
+        branches.fork("whatif", timetable, exemptedModules);
+        timetable.deleteModule("CS2040", exemptedModules);
+        timetable.addModuleDirect(0, 0, cs2040);
+
+        assertEquals(1, branches.validate(timetable, exemptedModules).size());
+        branches.switchTo("main", timetable, exemptedModules);
+        assertTrue(branches.validate(timetable, exemptedModules).isEmpty());
+    }
+}
@@ -0,0 +1,117 @@
+package modhero.data;
+
+import modhero.data.modules.Module;
+import modhero.data.modules.Prerequisites;
+import modhero.data.timetable.PlanHistory;
+import modhero.data.timetable.PlanVersion;
+import modhero.data.timetable.Timetable;
+import modhero.exceptions.ModHeroException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PlanHistory}.
+ */
+public class PlanHistoryTest {
+
+    private static Module module(String code) {
+        return new Module(code, code, 4, "core", new Prerequisites());
+    }
+
+    @Test
+    void undoAndRedo_restorePlanAndExemptedModules() {
+        Timetable timetable = new Timetable();
+        List<String> exemptedModules = new ArrayList<>(List.of("MA1301"));
+        PlanHistory history = new PlanHistory(10);
+        history.reset(timetable, exemptedModules);
+
+        timetable.addModuleDirect(0, 0, module("CS1010"));
+        history.commit(timetable, exemptedModules);
+        timetable.clearTimetable();
+        exemptedModules.clear();
+        history.commit(timetable, exemptedModules);
+
+        assertTrue(history.undo(timetable, exemptedModules));
+        assertTrue(timetable.contains("CS1010"));
+        assertEquals(List.of("MA1301"), exemptedModules);
+
+        assertTrue(history.redo(timetable, exemptedModules));
+        assertFalse(timetable.contains("CS1010"));
+        assertTrue(exemptedModules.isEmpty());
+        assertFalse(history.redo(timetable, exemptedModules));
+    }
+
+    @Test
+    void undo_restoresPrerequisiteChecks() {
+        Timetable timetable = new Timetable();
+        List<String> exemptedModules = new ArrayList<>();
+        PlanHistory history = new PlanHistory(10);
+        history.reset(timetable, exemptedModules);
+
+        timetable.addModuleDirect(0, 0, module("CS1010"));
+        timetable.addModuleDirect(1, 0, new Module("CS2040", "CS2040", 4, "core",
+                new Prerequisites(List.of(List.of("CS1010")))));
+        history.commit(timetable, exemptedModules);
+        timetable.clearTimetable();
+        history.commit(timetable, exemptedModules);
+
+        history.undo(timetable, exemptedModules);
+        assertEquals(1, timetable.getSlot("CS2040").getYear());
+        assertThrows(ModHeroException.class, () -> timetable.deleteModule("CS1010", exemptedModules));
+    }
+
+    @Test
+    void commit_afterUndoDiscardsRedo() {
+        Timetable timetable = new Timetable();
+        List<String> exemptedModules = new ArrayList<>();
+        PlanHistory history = new PlanHistory(10);
+        history.reset(timetable, exemptedModules);
+
+        timetable.addModuleDirect(0, 0, module("CS1010"));
+        history.commit(timetable, exemptedModules);
+        history.undo(timetable, exemptedModules);
+        timetable.addModuleDirect(0, 1, module("CS1231"));
+        history.commit(timetable, exemptedModules);
+
+        assertEquals(0, history.getRedoCount());
+        assertEquals(1, history.getUndoCount());
+    }
+
+    @Test
+    void commit_keepsOnlyMaxUndoSteps() {
+        Timetable timetable = new Timetable();
+        List<String> exemptedModules = new ArrayList<>();
+        PlanHistory history = new PlanHistory(3);
+        history.reset(timetable, exemptedModules);
+
+        for (int i = 0; i < 5; i++) {
+            timetable.addModuleDirect(0, 0, module("CS10" + i));
+            history.commit(timetable, exemptedModules);
+        }
+        assertEquals(3, history.getUndoCount());
+        while (history.undo(timetable, exemptedModules)) {
+            // Undo as far back as the history goes
+        }
+        assertEquals(2, timetable.getAllModules().size());
+    }
+
+    @Test
+    void toVersion_sharesUnchangedTermsAndExemptedModules() {
+        Timetable timetable = new Timetable();
+        List<String> exemptedModules = new ArrayList<>(List.of("MA1301"));
+        timetable.addModuleDirect(1, 1, module("CS2040"));
+        PlanVersion before = timetable.toVersion(exemptedModules, null);
+
+        timetable.addModuleDirect(0, 0, module("CS1010"));
+        PlanVersion after = timetable.toVersion(exemptedModules, before);
+
+        assertSame(before.getTerms().get(3), after.getTerms().get(3));
+        assertSame(before.getExemptedModules(), after.getExemptedModules());
+        assertNotSame(before.getTerms().get(0), after.getTerms().get(0));
+        assertTrue(before.getTerms().get(0).isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+package modhero.data;
+
+import modhero.data.modules.Module;
+import modhero.data.modules.Prerequisites;
+import modhero.data.timetable.TermGrid;
+import modhero.data.timetable.Timetable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TermGrid}.
+ */
+public class TermGridTest {
+
+    private static Module module(String code) {
+        return new Module(code, code, 4, "core", new Prerequisites());
+    }
+
+    @Test
+    void idsBefore_tracksAddAndRemove() {
+        TermGrid grid = new TermGrid(2, 2);
+        Module cs1010 = module("CS1010");
+        grid.add(grid.ordinalOf(0, 1), cs1010);
+
+        assertFalse(grid.idsBefore(0).contains("CS1010"));
+        assertFalse(grid.idsBefore(1).contains("CS1010"));
+        assertTrue(grid.idsBefore(2).contains("CS1010"));
+        assertTrue(grid.idsBefore(grid.getTermCount()).contains("CS1010"));
+
+        assertTrue(grid.remove(1, cs1010));
+        assertFalse(grid.idsBefore(grid.getTermCount()).contains("CS1010"));
+        assertFalse(grid.remove(1, cs1010));
+    }
+
+    @Test
+    void modulesBetween_isOrderedView() {
+        TermGrid grid = new TermGrid(2, 2);
+        Module first = module("CS1010");
+        Module second = module("CS2040");
+        Module third = module("CS3230");
+        grid.add(3, third);
+        grid.add(0, first);
+        grid.add(1, second);
+
+        List<Module> view = grid.modulesBetween(0, 2);
+        assertEquals(List.of(first, second), new ArrayList<>(view));
+        assertEquals(second, view.get(1));
+        assertEquals(List.of(first, second, third), new ArrayList<>(grid.allModules()));
+
+        grid.clear();
+        assertTrue(grid.allModules().isEmpty());
+        assertFalse(grid.idsBefore(grid.getTermCount()).contains("CS1010"));
+    }
+
+    @Test
+    void timetable_supportsSpecialTermsAndExtraYears() throws Exception {
+        Timetable timetable = new Timetable(5, 4);
+        Module cs1010 = module("CS1010");
+        timetable.addModule(5, 4, cs1010, new ArrayList<>());
+
+        assertEquals(List.of(cs1010), timetable.getModules(4, 3));
+        assertEquals(5, timetable.getYearCount());
+        assertEquals(4, timetable.getTermsPerYear());
+    }
+}
@@ -1,12 +1,24 @@
 package modhero.data;
 
 import modhero.data.modules.Module;
+import modhero.data.modules.Prerequisites;
+import modhero.data.timetable.Slot;
 import modhero.data.timetable.Timetable;
 
+import modhero.exceptions.ModuleAdditionBlockedException;
+import modhero.exceptions.ModuleAlreadyExistsException;
+import modhero.exceptions.ModuleDeletionBlockedException;
+import modhero.exceptions.ModuleMoveBlockedException;
+import modhero.exceptions.ModuleNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -16,6 +28,7 @@ import static org.junit.jupiter.api.Assertions.*;
 public class TimetableTest {
 
     private Timetable timetable;
+    private List<String> exemptedModules;
     private Module cs1010;
     private Module cs2040;
     private Module cs2100;
@@ -23,15 +36,16 @@ public class TimetableTest {
     @BeforeEach
     void setUp() {
         timetable = new Timetable(); // Use the no-argument constructor
-        cs1010 = new Module("CS1010", "Programming Methodology", 4, "core", List.of());
-        cs2040 = new Module("CS2040", "Data Structures", 4, "core", List.of("CS1010"));
-        cs2100 = new Module("CS2100", "Computer Organisation", 4, "core", List.of("CS1010"));
+        exemptedModules = new ArrayList<>();
+        cs1010 = new Module("CS1010", "Programming Methodology", 4, "core", new Prerequisites(List.of()));
+        cs2040 = new Module("CS2040", "Data Structures", 4, "core", new Prerequisites(List.of(List.of("CS1010"))));
+        cs2100 = new Module("CS2100", "Computer Organisation", 4, "core", new Prerequisites(List.of(List.of("CS1010"))));
     }
 
     @Test
     void testAddAndGetModules() {
-        timetable.addModule(0, 0, cs1010);
-        timetable.addModule(0, 1, cs2040);
+        timetable.addModuleDirect(0, 0, cs1010);
+        timetable.addModuleDirect(0, 1, cs2040);
 
         List<Module> term1Modules = timetable.getModules(0, 0);
         List<Module> term2Modules = timetable.getModules(0, 1);
@@ -43,32 +57,28 @@ public class TimetableTest {
     }
 
     @Test
-    void testRemoveModuleRemovesCorrectly() {
-        timetable.addModule(0, 0, cs1010);
-        timetable.addModule(0, 1, cs2040);
+    void testRemoveModuleRemovesCorrectly() throws Exception {
+        timetable.addModuleDirect(0, 0, cs1010);
+        timetable.addModuleDirect(0, 1, cs2040);
 
-        // Call removeModule with 0-based indexing
-        boolean removed = timetable.removeModule(0, 0, "CS1010");
-        assertTrue(removed, "Expected CS1010 to be removed");
+        timetable.deleteModule("CS2040", exemptedModules);
 
-        // CS1010 should be gone now
-        assertTrue(timetable.getModules(0, 0).isEmpty());
-        // CS2040 should still be there
-        assertFalse(timetable.getModules(0, 1).isEmpty());
+        // CS2040 should be gone now
+        assertTrue(timetable.getModules(0, 1).isEmpty());
+        // CS1010 should still be there
+        assertFalse(timetable.getModules(0, 0).isEmpty());
     }
 
     @Test
-    void testRemoveModuleNonExistentReturnsFalse() {
-        // Use 0-based indexing
-        boolean result = timetable.removeModule(0, 0, "NON_EXISTENT");
-        assertFalse(result, "Should return false when module does not exist");
+    void testRemoveModuleNonExistentThrows() {
+        assertThrows(ModuleNotFoundException.class, () -> timetable.deleteModule("NON_EXISTENT", exemptedModules));
     }
 
     @Test
     void testGetAllModulesAggregatesCorrectly() {
-        timetable.addModule(0, 0, cs1010);
-        timetable.addModule(0, 1, cs2040);
-        timetable.addModule(1, 0, cs2100);
+        timetable.addModuleDirect(0, 0, cs1010);
+        timetable.addModuleDirect(0, 1, cs2040);
+        timetable.addModuleDirect(1, 0, cs2100);
 
         List<Module> all = timetable.getAllModules();
         assertEquals(3, all.size());
@@ -79,14 +89,13 @@ public class TimetableTest {
 
     @Test
     void testClearTimetableRemovesEverything() {
-        timetable.addModule(0, 0, cs1010);
-        timetable.addModule(0, 1, cs2040);
+        timetable.addModuleDirect(0, 0, cs1010);
+        timetable.addModuleDirect(0, 1, cs2040);
 
         timetable.clearTimetable();
 
-        // Assuming NUM_YEARS and NUM_TERMS are 4
-        // A better test would be to check getAllModules
         assertEquals(0, timetable.getAllModules().size(), "Timetable should be empty after clear");
+        assertTrue(timetable.getDependents("CS1010").isEmpty());
     }
 
     @Test
@@ -94,4 +103,172 @@ public class TimetableTest {
         // A simpler way to test this
         assertEquals(0, timetable.getAllModules().size(), "Timetable should start empty");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDependentsTrackAddAndDelete() throws Exception {
+        timetable.addModuleDirect(0, 0, cs1010);
+        timetable.addModuleDirect(0, 1, cs2040);
+        timetable.addModuleDirect(1, 0, cs2100);
+        assertEquals(Set.of(cs2040, cs2100), timetable.getDependents("CS1010"));
+
+        timetable.deleteModule("CS2100", exemptedModules);
+        assertEquals(Set.of(cs2040), timetable.getDependents("CS1010"));
+    }
+
+    @Test
+    void testDeleteBlockedOnlyByLaterDependents() {
+        timetable.addModuleDirect(0, 1, cs1010);
+        timetable.addModuleDirect(1, 0, cs2040);
+
+        assertThrows(ModuleDeletionBlockedException.class, () -> timetable.deleteModule("CS1010", exemptedModules));
+        assertDoesNotThrow(() -> timetable.findModuleLocation("CS1010"));
+    }
+
+    @Test
+    void testWildcardDependentsAreFound() {
+        Module cs3230 = new Module("CS3230", "Algorithms", 4, "core", new Prerequisites(List.of(List.of("CS1%"))));
+        timetable.addModuleDirect(0, 0, cs1010);
+        timetable.addModuleDirect(1, 0, cs3230);
+
+        assertEquals(Set.of(cs3230), timetable.getDependents("CS1010"));
+        assertThrows(ModuleDeletionBlockedException.class, () -> timetable.deleteModule("CS1010", exemptedModules));
+    }
+
+    @Test
+    void testSlotIndexFollowsAddDeleteAndClear() throws Exception {
+        timetable.addModuleDirect(0, 0, cs1010);
+        timetable.addModuleDirect(0, 1, cs2040);
+        timetable.addModuleDirect(2, 1, cs2100);
+        assertIndexConsistent();
+        assertEquals(new Slot(2, 1), timetable.getSlot("cs2100"));
+
+        timetable.deleteModule("CS2100", exemptedModules);
+        assertFalse(timetable.contains("CS2100"));
+        assertIndexConsistent();
+
+        timetable.clearTimetable();
+        assertFalse(timetable.contains("CS1010"));
+        assertIndexConsistent();
+    }
+
+    @Test
+    void testSlotIndexStaysConsistentUnderRandomOperations() throws Exception {
+        Random random = new Random(2113);
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            codes.add("ZZ" + (2000 + i));
+        }
+
+        for (int step = 0; step < 500; step++) {
+            String code = codes.get(random.nextInt(codes.size()));
+            if (timetable.contains(code)) {
+                timetable.deleteModule(code, exemptedModules);
+            } else {
+                Module module = new Module(code, "Module " + code, 4, "core", new Prerequisites(List.of()));
+                timetable.addModule(random.nextInt(4) + 1, random.nextInt(2) + 1, module, exemptedModules);
+            }
+            assertIndexConsistent();
+            for (String otherCode : codes) {
+                boolean isInGrid = timetable.getAllModules().stream().anyMatch(m -> m.getCode().equals(otherCode));
+                assertEquals(isInGrid, timetable.contains(otherCode));
+            }
+        }
+    }
+
+    @Test
+    void testAddDuplicateIgnoresCase() {
+        timetable.addModuleDirect(0, 0, cs1010);
+        Module lowerCaseDuplicate = new Module("cs1010", "Programming Methodology", 4, "core", new Prerequisites());
+        assertThrows(ModuleAlreadyExistsException.class,
+                () -> timetable.addModule(2, 1, lowerCaseDuplicate, exemptedModules));
+    }
+
+    @Test
+    void testMoveModuleKeepsDependentsAfterIt() throws Exception {
+        timetable.addModuleDirect(0, 0, cs1010);
+        timetable.addModuleDirect(1, 0, cs2040);
+
+        assertTrue(timetable.moveModule("cs1010", 1, 2, exemptedModules));
+        assertEquals(List.of(cs1010), timetable.getModules(0, 1));
+        assertTrue(timetable.getModules(0, 0).isEmpty());
+        assertFalse(timetable.moveModule("CS1010", 1, 2, exemptedModules));
+        assertIndexConsistent();
+    }
+
+    @Test
+    void testMoveModuleBlockedByDependentLeavesPlanUnchanged() {
+        timetable.addModuleDirect(0, 0, cs1010);
+        timetable.addModuleDirect(0, 1, cs2040);
+
+        ModuleMoveBlockedException e = assertThrows(ModuleMoveBlockedException.class,
+                () -> timetable.moveModule("CS1010", 1, 2, exemptedModules));
+        assertTrue(e.getMessage().contains("CS2040"));
+        assertEquals(List.of(cs1010), timetable.getModules(0, 0));
+        assertTrue(timetable.getModules(0, 1).contains(cs2040));
+        assertIndexConsistent();
+    }
+
+    @Test
+    void testMoveModuleBeforeItsPrerequisitesFails() {
+        timetable.addModuleDirect(0, 1, cs1010);
+        timetable.addModuleDirect(1, 0, cs2040);
+
+        assertThrows(ModuleAdditionBlockedException.class,
+                () -> timetable.moveModule("CS2040", 1, 1, exemptedModules));
+        assertThrows(ModuleNotFoundException.class,
+                () -> timetable.moveModule("CS2100", 1, 1, exemptedModules));
+        assertEquals(List.of(cs2040), timetable.getModules(1, 0));
+        assertIndexConsistent();
+    }
+
+    @Test
+    void testAddModulesInPrerequisiteOrder() throws Exception {
+        Map<Module, Slot> placements = new LinkedHashMap<>();
+        placements.put(cs2040, new Slot(0, 1));
+        placements.put(cs2100, new Slot(1, 0));
+        placements.put(cs1010, new Slot(0, 0));
+
+        timetable.addModules(placements, exemptedModules);
+        assertEquals(List.of(cs1010), timetable.getModules(0, 0));
+        assertEquals(List.of(cs2040), timetable.getModules(0, 1));
+        assertEquals(List.of(cs2100), timetable.getModules(1, 0));
+        assertIndexConsistent();
+    }
+
+    @Test
+    void testAddModulesIsAllOrNothing() {
+        Map<Module, Slot> placements = new LinkedHashMap<>();
+        placements.put(cs1010, new Slot(0, 1));
+        placements.put(cs2040, new Slot(0, 1));
+
+        assertThrows(ModuleAdditionBlockedException.class, () -> timetable.addModules(placements, exemptedModules));
+        assertTrue(timetable.getAllModules().isEmpty());
+        assertIndexConsistent();
+    }
+
+    @Test
+    void validatePlan_reportsPlannedModuleExemptedInLowerCase() {
+        timetable.addModuleDirect(0, 0, cs1010);
+        exemptedModules.add("cs1010");
+
+        List<String> violations = timetable.validatePlan(exemptedModules);
+        assertEquals(1, violations.size());
+        assertTrue(violations.get(0).contains("CS1010"));
+    }
+
+    private void assertIndexConsistent() {
+        int moduleCount = 0;
+        for (int year = 0; year < 4; year++) {
+            for (int term = 0; term < 2; term++) {
+                for (Module module : timetable.getModules(year, term)) {
+                    assertEquals(new Slot(year, term), timetable.getSlot(module.getCode()));
+                    moduleCount++;
+                }
+            }
+        }
+        assertEquals(moduleCount, timetable.getAllModules().size());
+        for (Module module : timetable.getAllModules()) {
+            assertTrue(timetable.contains(module.getCode()));
+        }
+    }
+}
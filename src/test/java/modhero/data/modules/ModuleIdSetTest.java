@@ -0,0 +1,56 @@
+package modhero.data.modules;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModuleIdSetTest {
+
+    @Test
+    void addAndRemoveAcrossWordBoundaries() {
+        ModuleIdSet set = new ModuleIdSet();
+        set.add(3);
+        set.add(64);
+        set.add(200);
+        assertTrue(set.contains(3));
+        assertTrue(set.contains(64));
+        assertTrue(set.contains(200));
+        assertFalse(set.contains(65));
+
+        set.remove(64);
+        assertFalse(set.contains(64));
+        assertEquals(200, set.nextId(4));
+    }
+
+    @Test
+    void withoutLeavesOriginalUnchanged() {
+        ModuleIdSet set = new ModuleIdSet();
+        set.add(3);
+        set.add(130);
+
+        ModuleIdSet copy = set.without(130);
+        assertFalse(copy.contains(130));
+        assertTrue(copy.contains(3));
+        assertTrue(set.contains(130));
+    }
+
+    @Test
+    void coversAllUsesBothSets() {
+        int first = ModuleSymbolTable.intern("ZZ1001");
+        int second = ModuleSymbolTable.intern("ZZ1002");
+        long[] mask = ModuleIdSet.maskOf(new int[]{first, second});
+
+        ModuleIdSet completed = ModuleIdSet.of(List.of("ZZ1001"));
+        ModuleIdSet exempted = ModuleIdSet.of(List.of("ZZ1002"));
+        assertFalse(completed.coversAll(mask, null));
+        assertTrue(completed.coversAll(mask, exempted));
+    }
+
+    @Test
+    void symbolTableNormalisesCase() {
+        assertEquals(ModuleSymbolTable.intern("cs9001"), ModuleSymbolTable.intern("CS9001"));
+        assertEquals("CS9001", ModuleSymbolTable.codeOf(ModuleSymbolTable.idOf("cs9001")));
+    }
+}
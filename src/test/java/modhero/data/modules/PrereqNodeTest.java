@@ -0,0 +1,71 @@
+package modhero.data.modules;
+
+import modhero.exceptions.ParsePrerequisitesException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrereqNodeTest {
+
+    private PrereqNode orOf(String... codes) {
+        List<PrereqNode> leaves = new ArrayList<>();
+        for (String code : codes) {
+            leaves.add(PrereqNode.leaf(code));
+        }
+        return PrereqNode.or(leaves);
+    }
+
+    @Test
+    void identicalSubtreesAreShared() {
+        PrereqNode first = PrereqNode.and(List.of(orOf("CS2030", "CS2030S"), PrereqNode.leaf("CS2040S")));
+        PrereqNode second = PrereqNode.and(List.of(orOf("CS2030", "CS2030S"), PrereqNode.leaf("cs2040s")));
+        assertSame(first, second);
+    }
+
+    @Test
+    void encodeAndDecodeRoundTrip() throws ParsePrerequisitesException {
+        PrereqNode node = PrereqNode.or(List.of(
+                PrereqNode.leaf("CS2040C"),
+                PrereqNode.and(List.of(orOf("CS2030", "CS2030S"), PrereqNode.leaf("MA1%")))));
+        String encoded = node.encode();
+        assertEquals("or(CS2040C,and(or(CS2030,CS2030S),MA1%))", encoded);
+        assertSame(node, PrereqNode.decode(encoded));
+    }
+
+    @Test
+    void decodeRejectsMalformedEncoding() {
+        assertThrows(ParsePrerequisitesException.class, () -> PrereqNode.decode("and(CS1010"));
+        assertThrows(ParsePrerequisitesException.class, () -> PrereqNode.decode("xor(CS1010)"));
+    }
+
+    @Test
+    void nestedAndOfOrEvaluatesWithoutExpansion() {
+        List<PrereqNode> groups = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            groups.add(orOf("XA" + (1000 + i), "XB" + (1000 + i)));
+        }
+        PrereqNode node = PrereqNode.and(groups);
+
+        List<String> taken = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            taken.add((i % 2 == 0 ? "XA" : "XB") + (1000 + i));
+        }
+        assertTrue(node.isSatisfiedBy(ModuleIdSet.of(taken), new ModuleIdSet()));
+
+        taken.remove(0);
+        assertFalse(node.isSatisfiedBy(ModuleIdSet.of(taken), new ModuleIdSet()));
+    }
+
+    @Test
+    void toOptionsExpandsInOrder() {
+        PrereqNode node = PrereqNode.and(List.of(orOf("CS2030", "CS2030S"), orOf("CS2040", "CS2040S")));
+        assertEquals(List.of(
+                List.of("CS2030", "CS2040"),
+                List.of("CS2030", "CS2040S"),
+                List.of("CS2030S", "CS2040"),
+                List.of("CS2030S", "CS2040S")), node.toOptions());
+    }
+}
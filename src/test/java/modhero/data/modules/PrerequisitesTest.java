@@ -32,6 +32,21 @@ class PrerequisitesTest {
         List<List<String>> input = List.of(List.of("CS2113"), List.of("CS2040C","CS2040"));
         Prerequisites prerequisites = new Prerequisites(input);
         System.out.println(input);
-        assertEquals("9#6#CS2113||19#7#CS2040C|6#CS2040||",prerequisites.toFormatedString());
+        assertEquals("or(CS2113,and(CS2040C,CS2040))",prerequisites.toFormatedString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void isSatisfiedByMatchesAnyCompletedOption() {
+        Prerequisites prerequisites = new Prerequisites(List.of(List.of("CS2030", "CS2040"), List.of("CS2113")));
+        ModuleIdSet exempted = new ModuleIdSet();
+        assertTrue(prerequisites.isSatisfiedBy(ModuleIdSet.of(List.of("CS2030", "CS2040")), exempted));
+        assertTrue(prerequisites.isSatisfiedBy(ModuleIdSet.of(List.of("CS2113")), exempted));
+        assertFalse(prerequisites.isSatisfiedBy(ModuleIdSet.of(List.of("CS2030")), exempted));
+    }
+
+    @Test
+    void isSatisfiedByCountsExemptedModules() {
+        Prerequisites prerequisites = new Prerequisites(List.of(List.of("MA1301", "CS1010")));
+        assertTrue(prerequisites.isSatisfiedBy(ModuleIdSet.of(List.of("CS1010")), ModuleIdSet.of(List.of("MA1301"))));
+    }
+}
@@ -1,13 +1,29 @@
 package modhero.data.nusmods;
 
 import modhero.data.modules.Module;
+import modhero.data.modules.Prerequisites;
+import modhero.storage.ModuleCache;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class ModuleRetrieverTest {
-    private final ModuleRetriever retriever = new ModuleRetriever();
+    @TempDir
+    Path tempDir;
+
+    private ModuleRetriever retriever;
+
+    @BeforeEach
+    void setUp() {
+        retriever = new ModuleRetriever(new ModuleCache(tempDir.resolve("module_cache.txt").toString(), 10, 60_000));
+    }
 
     @Test
     void getModuleWithInvalidCodeYieldsNullOrEmptyFields() {
@@ -22,4 +38,15 @@ class ModuleRetrieverTest {
         assertEquals(4, module.getMc());
         assertNotNull(module.getPrerequisites());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getModulesAsyncReturnsCachedModules() {
+        ModuleCache cache = new ModuleCache(tempDir.resolve("module_cache.txt").toString(), 10, 60_000);
+        cache.put("2025-2026", new Module("MA1301", "Math", 4, "core", "", new Prerequisites()));
+        ModuleRetriever cachedRetriever = new ModuleRetriever(cache);
+
+        Map<String, Module> modules = cachedRetriever.getModulesAsync("2025-2026", List.of("MA1301"), 5_000).join();
+        assertEquals("MA1301", modules.get("MA1301").getCode());
+        assertNotNull(cachedRetriever.getCachedModule("2025-2026", "MA1301"));
+    }
+}
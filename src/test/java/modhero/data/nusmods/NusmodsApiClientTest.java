@@ -1,11 +1,82 @@
 // NusmodsApiClientTest.java
 package modhero.data.nusmods;
 
+import com.sun.net.httpserver.HttpServer;
+import modhero.storage.ResponseCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class NusmodsAPIClientTest {
-    private final NusmodsAPIClient client = new NusmodsAPIClient();
+    private static final String MODULE_JSON = "{\"acadYear\":\"2024/2025\",\"moduleCode\":\"%s\"}";
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private NusmodsAPIClient client;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger notModifiedCount = new AtomicInteger();
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Stub NUSMods server: /<acadYear>/modules/<code>.json, with XXXX as an unknown module
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newFixedThreadPool(32);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String path = exchange.getRequestURI().getPath();
+            String code = path.substring(path.lastIndexOf('/') + 1).replace(".json", "");
+            byte[] body = String.format(MODULE_JSON, code).getBytes(StandardCharsets.UTF_8);
+            int status = code.equals("XXXX") ? 404 : 200;
+            String eTag = "\"" + code + "-v1\"";
+            exchange.getResponseHeaders().add("ETag", eTag);
+            inFlight.decrementAndGet();
+            if (eTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModifiedCount.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        client = new NusmodsAPIClient("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
 
     @Test
     void testFetchModuleDataSafelyValidModule() {
@@ -20,4 +91,53 @@ class NusmodsAPIClientTest {
     void fetchModuleDataSafelyReturnsNullOnInvalidAddress() {
         assertNull(client.fetchModuleDataSafely("invalid", "XXXX"));
     }
+
+    @Test
+    void fetchAllReturnsOneFuturePerDistinctCode() {
+        Map<String, CompletableFuture<String>> fetches =
+                client.fetchAll("2024-2025", List.of("CS2113", "CS2040C", "CS2113"));
+        assertEquals(List.of("CS2113", "CS2040C"), List.copyOf(fetches.keySet()));
+        assertTrue(fetches.get("CS2040C").join().contains("CS2040C"));
+    }
+
+    @Test
+    void fetchAllFailsOnlyTheUnknownModule() {
+        Map<String, CompletableFuture<String>> fetches = client.fetchAll("2024-2025", List.of("XXXX", "CS2113"));
+        assertThrows(CompletionException.class, () -> fetches.get("XXXX").join());
+        assertTrue(fetches.get("CS2113").join().contains("CS2113"));
+    }
+
+    @Test
+    void fetchAllBoundsConcurrentRequests() {
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 3 * NusmodsAPIClient.MAX_CONCURRENT_REQUESTS; i++) {
+            codes.add("CS" + (1000 + i));
+        }
+        Map<String, CompletableFuture<String>> fetches = client.fetchAll("2024-2025", codes);
+        CompletableFuture.allOf(fetches.values().toArray(new CompletableFuture<?>[0])).join();
+        assertTrue(maxInFlight.get() <= NusmodsAPIClient.MAX_CONCURRENT_REQUESTS);
+    }
+
+    @Test
+    void fetchWithoutResponseCacheIsNeverUnchanged() {
+        client.fetchModuleAsync("2024-2025", "CS2113").join();
+        assertFalse(client.fetchModuleAsync("2024-2025", "CS2113").join().isUnchanged());
+        assertEquals(0, notModifiedCount.get());
+    }
+
+    @Test
+    void fetchWithResponseCacheRevalidatesAndReusesBody() {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        ResponseCache responseCache = new ResponseCache(tempDir.toString());
+        NusmodsAPIClient cachingClient = new NusmodsAPIClient(baseUrl, responseCache);
+
+        NusmodsResponse first = cachingClient.fetchModuleAsync("2024-2025", "CS2113").join();
+        assertFalse(first.isUnchanged());
+
+        NusmodsResponse second = cachingClient.fetchModuleAsync("2024-2025", "CS2113").join();
+        assertTrue(second.isUnchanged());
+        assertEquals(first.getBody(), second.getBody());
+        assertEquals(1, notModifiedCount.get());
+        assertEquals(first.getBody(), cachingClient.fetchModuleDataSafely("2024-2025", "CS2113"));
+    }
 }
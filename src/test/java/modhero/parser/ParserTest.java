@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 // Import all the command classes to check their types
+import modhero.commands.AddCommand;
+import modhero.commands.BatchAddCommand;
 import modhero.commands.ClearCommand;
 import modhero.commands.Command;
 import modhero.commands.DeleteCommand;
@@ -136,4 +138,29 @@ public class ParserTest {
         Command result = parser.parseCommand("delete");
         assertInstanceOf(IncorrectCommand.class, result);
     }
+
+    // --- Add Command Tests ---
+
+    @Test
+    void parse_addCommandSingle_returnsAddCommand() {
+        assertInstanceOf(AddCommand.class, parser.parseCommand("add CS2040 to Y1S2"));
+    }
+
+    @Test
+    void parse_addCommandMultiple_returnsBatchAddCommand() {
+        assertInstanceOf(BatchAddCommand.class, parser.parseCommand("add CS3230 CS3203 to Y3S1 CS4231 to Y3S2"));
+    }
+
+    @Test
+    void parse_addCommandMissingSlot_returnsIncorrectCommand() {
+        assertInstanceOf(IncorrectCommand.class, parser.parseCommand("add CS3230 to Y3S1 CS4231"));
+        assertInstanceOf(IncorrectCommand.class, parser.parseCommand("add CS3230 to Y3S1 CS3230 to Y3S2"));
+    }
+
+    @Test
+    void parse_addCommandOutsideDegree_returnsIncorrectCommand() {
+        assertInstanceOf(IncorrectCommand.class, parser.parseCommand("add CS2040 to Y5S1"));
+        assertInstanceOf(IncorrectCommand.class, parser.parseCommand("add CS2040 CS2100 to Y1S0"));
+        assertInstanceOf(IncorrectCommand.class, parser.parseCommand("move CS2040 to Y0S1"));
+    }
 }
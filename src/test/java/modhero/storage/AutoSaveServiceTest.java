@@ -0,0 +1,91 @@
+package modhero.storage;
+
+import modhero.data.modules.Module;
+import modhero.data.modules.Prerequisites;
+import modhero.data.timetable.Timetable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link AutoSaveService}.
+ */
+class AutoSaveServiceTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void record_appendsToJournalWithoutRewritingSnapshot() throws IOException {
+        Path saveFile = tempDir.resolve("save.txt");
+        Timetable timetable = timetableWith("CS2113");
+        try (AutoSaveService service = new AutoSaveService(new SaveStorage(saveFile.toString()), 60_000, 1 << 20)) {
+            service.record(TimetableJournal.Record.add("CS2113", 0, 0), timetable, new ArrayList<>());
+            service.flush();
+
+            assertFalse(Files.exists(saveFile));
+            assertTrue(Files.readString(tempDir.resolve("save.txt" + SaveStorage.JOURNAL_SUFFIX)).contains("CS2113"));
+        }
+    }
+
+    @Test
+    void record_burstOfChangesReloadsAsLatestState() {
+        Path saveFile = tempDir.resolve("save.txt");
+        Timetable timetable = timetableWith("CS2113");
+        try (AutoSaveService service = new AutoSaveService(new SaveStorage(saveFile.toString()), 60_000, 1 << 20)) {
+            service.record(TimetableJournal.Record.add("CS2113", 0, 0), timetable, new ArrayList<>());
+            service.record(TimetableJournal.Record.delete("CS2113"), timetable, new ArrayList<>());
+            service.record(TimetableJournal.Record.add("CS2040C", 1, 1), timetable, new ArrayList<>());
+        }
+
+        Timetable reloaded = load(saveFile);
+        assertEquals(1, reloaded.getAllModules().size());
+        assertTrue(reloaded.contains("CS2040C"));
+    }
+
+    @Test
+    void record_pastThresholdCompactsJournalIntoSnapshot() throws IOException {
+        Path saveFile = tempDir.resolve("save.txt");
+        Timetable timetable = timetableWith("CS2113");
+        try (AutoSaveService service = new AutoSaveService(new SaveStorage(saveFile.toString()), 60_000, 1)) {
+            service.record(TimetableJournal.Record.add("CS2113", 0, 0), timetable, new ArrayList<>(List.of("MA1301")));
+            service.flush();
+
+            String saved = Files.readString(saveFile);
+            assertTrue(saved.contains("CS2113"));
+            assertTrue(saved.contains("MA1301"));
+            assertEquals(0, Files.size(tempDir.resolve("save.txt" + SaveStorage.JOURNAL_SUFFIX)));
+        }
+        assertTrue(load(saveFile).contains("CS2113"));
+    }
+
+    private static Timetable load(Path saveFile) {
+        Map<String, Module> allModulesData = new HashMap<>();
+        allModulesData.put("CS2113", module("CS2113"));
+        allModulesData.put("CS2040C", module("CS2040C"));
+        SaveStorage storage = new SaveStorage(saveFile.toString());
+        storage.setLoadData(allModulesData, new ArrayList<>());
+        Timetable timetable = new Timetable();
+        storage.load(timetable);
+        storage.closeJournal();
+        return timetable;
+    }
+
+    private static Timetable timetableWith(String code) {
+        Timetable timetable = new Timetable();
+        timetable.addModuleDirect(0, 0, module(code));
+        return timetable;
+    }
+
+    private static Module module(String code) {
+        return new Module(code, code, 4, "core", "", new Prerequisites());
+    }
+}
@@ -0,0 +1,144 @@
+package modhero.storage;
+
+import modhero.common.util.SerialisationUtil;
+import modhero.data.modules.Module;
+import modhero.data.modules.PreclusionIndex;
+import modhero.data.modules.PrereqNode;
+import modhero.data.modules.Prerequisites;
+import modhero.exceptions.CorruptedDataFileException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryModuleCatalogTest {
+    @TempDir
+    Path tempDir;
+
+    private List<Module> sampleModules() {
+        Prerequisites cs2113Prereqs = new Prerequisites(PrereqNode.or(List.of(
+                PrereqNode.leaf("CS2040C"),
+                PrereqNode.and(List.of(PrereqNode.leaf("CS2030"), PrereqNode.leaf("CS2040S"))))));
+        return List.of(
+                new Module("CS2113", "Software Engineering & OOP", 4, "core", "CS2103T", cs2113Prereqs),
+                new Module("CS1010", "Programming Methodology", 4, "core", "", new Prerequisites()),
+                new Module("MA1521", "Calculus for Computing", 4, "core", "MA1102R", new Prerequisites()));
+    }
+
+    @Test
+    void writeThenOpenLooksUpModulesByCode() throws IOException, CorruptedDataFileException {
+        Path catalogFile = tempDir.resolve("modules.bin");
+        BinaryModuleCatalog.write(sampleModules(), catalogFile);
+
+        BinaryModuleCatalog catalog = BinaryModuleCatalog.open(catalogFile);
+        assertEquals(3, catalog.size());
+        assertEquals("CS1010", catalog.codeAt(0));
+
+        Module module = catalog.get("CS2113");
+        assertEquals("Software Engineering & OOP", module.getName());
+        assertEquals(4, module.getMc());
+        assertEquals("core", module.getType());
+        assertEquals("CS2103T", module.getPreclude());
+        assertEquals("or(CS2040C,and(CS2030,CS2040S))", module.getPrerequisites().toFormatedString());
+        assertSame(module, catalog.get("CS2113"));
+
+        assertTrue(catalog.get("CS1010").getPrerequisites().isEmpty());
+        assertNull(catalog.get("CS9999"));
+        assertNull(catalog.get("AA0000"));
+    }
+
+    @Test
+    void writeReplacesOpenCatalogWithoutLeavingTempFiles() throws IOException, CorruptedDataFileException {
+        Path catalogFile = tempDir.resolve("modules.bin");
+        BinaryModuleCatalog.write(sampleModules(), catalogFile);
+        BinaryModuleCatalog previous = BinaryModuleCatalog.open(catalogFile);
+
+        BinaryModuleCatalog.write(sampleModules().subList(0, 1), catalogFile);
+        assertEquals(3, previous.size());
+        assertEquals(1, BinaryModuleCatalog.open(catalogFile).size());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of(catalogFile), files.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void openRejectsFileWithoutHeader() throws IOException {
+        Path catalogFile = tempDir.resolve("modules.bin");
+        Files.writeString(catalogFile, "not a catalog");
+        assertThrows(CorruptedDataFileException.class, () -> BinaryModuleCatalog.open(catalogFile));
+    }
+
+    @Test
+    void compileReadsModulesTextFile() throws IOException, CorruptedDataFileException {
+        Path modulesFile = tempDir.resolve("modules.txt");
+        StringBuilder content = new StringBuilder();
+        for (Module module : sampleModules()) {
+            content.append(module.toFormatedString()).append(System.lineSeparator());
+        }
+        content.append(SerialisationUtil.serialiseMessage("broken")).append(System.lineSeparator());
+        Files.writeString(modulesFile, content.toString());
+
+        Path catalogFile = tempDir.resolve("modules.bin");
+        assertEquals(3, BinaryModuleCatalog.compile(modulesFile, catalogFile));
+        assertEquals("Calculus for Computing", BinaryModuleCatalog.open(catalogFile).get("MA1521").getName());
+    }
+
+    @Test
+    void moduleStoragePrefersCatalog() throws IOException, CorruptedDataFileException {
+        Path catalogFile = tempDir.resolve("modules.bin");
+        BinaryModuleCatalog.write(sampleModules(), catalogFile);
+
+        Map<String, Module> allModulesData = new HashMap<>();
+        new ModuleStorage(tempDir.resolve("missing.txt").toString(), catalogFile.toString()).load(allModulesData);
+        assertEquals(3, allModulesData.size());
+        assertEquals("CS2113", allModulesData.get("CS2113").getCode());
+        assertNull(allModulesData.get("Programming Methodology"));
+    }
+
+    @Test
+    void catalogViewDecodesOnlyLookedUpModules() throws IOException, CorruptedDataFileException {
+        Path catalogFile = tempDir.resolve("modules.bin");
+        BinaryModuleCatalog.write(sampleModules(), catalogFile);
+
+        ModuleCatalogView allModulesData = new ModuleCatalogView();
+        new ModuleStorage(tempDir.resolve("missing.txt").toString(), catalogFile.toString()).load(allModulesData);
+        assertEquals(3, allModulesData.size());
+        assertTrue(allModulesData.containsKey("MA1521"));
+        assertEquals("Programming Methodology", allModulesData.get("CS1010").getName());
+        assertEquals("CS2113", allModulesData.getByTitle("Software Engineering & OOP").getCode());
+        assertNull(allModulesData.get("Programming Methodology"));
+
+        Module extra = new Module("CS9999", "Extra", 4, "core", "", new Prerequisites());
+        allModulesData.put("CS9999", extra);
+        assertEquals(4, allModulesData.size());
+        assertSame(extra, allModulesData.getByTitle("Extra"));
+        assertEquals(List.of("CS1010", "CS2113", "MA1521", "CS9999"), List.copyOf(allModulesData.keySet()));
+
+    }
+
+    @Test
+    void catalogViewRegistersPreclusionsOfLookedUpModules() throws IOException, CorruptedDataFileException {
+        Path catalogFile = tempDir.resolve("modules.bin");
+        BinaryModuleCatalog.write(sampleModules(), catalogFile);
+        ModuleCatalogView allModulesData = new ModuleCatalogView();
+        new ModuleStorage(tempDir.resolve("missing.txt").toString(), catalogFile.toString()).load(allModulesData);
+
+        PreclusionIndex preclusionIndex = new PreclusionIndex();
+        allModulesData.setPreclusionIndex(preclusionIndex);
+        assertTrue(preclusionIndex.getConflicts("CS2103T").isEmpty());
+
+        allModulesData.get("CS2113");
+        assertEquals(Set.of("CS2113"), preclusionIndex.getConflicts("CS2103T"));
+        assertTrue(preclusionIndex.getConflicts("MA1102R").isEmpty());
+    }
+}
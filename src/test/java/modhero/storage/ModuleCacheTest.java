@@ -0,0 +1,134 @@
+package modhero.storage;
+
+import modhero.data.modules.Module;
+import modhero.data.modules.PrereqNode;
+import modhero.data.modules.Prerequisites;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModuleCacheTest {
+    private static final String ACAD_YEAR = "2025-2026";
+    private static final long TTL_MILLIS = 60_000;
+    private static final Instant NOW = Instant.parse("2025-08-01T00:00:00Z");
+
+    @TempDir
+    Path tempDir;
+
+    private ModuleCache newCache(int maxEntries, Instant now) {
+        String filePath = tempDir.resolve("module_cache.txt").toString();
+        return new ModuleCache(filePath, maxEntries, TTL_MILLIS, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private Module newModule(String code) {
+        Prerequisites prerequisites = new Prerequisites(PrereqNode.or(List.of(
+                PrereqNode.leaf("CS2040C"), PrereqNode.leaf("CS2040S"))));
+        return new Module(code, "Module " + code, 4, "core", "CS2103T", prerequisites);
+    }
+
+    @Test
+    void getReturnsNullWhenNotCached() {
+        assertNull(newCache(10, NOW).get(ACAD_YEAR, "CS2113"));
+    }
+
+    @Test
+    void putThenGetFromNewInstanceReadsFromDisk() {
+        newCache(10, NOW).put(ACAD_YEAR, newModule("CS2113"));
+
+        Module module = newCache(10, NOW).get(ACAD_YEAR, "cs2113");
+        assertNotNull(module);
+        assertEquals("CS2113", module.getCode());
+        assertEquals("Module CS2113", module.getName());
+        assertEquals(4, module.getMc());
+        assertEquals("CS2103T", module.getPreclude());
+        assertEquals(List.of(List.of("CS2040C"), List.of("CS2040S")), module.getPrerequisites().getPrereq());
+    }
+
+    @Test
+    void entriesAreKeyedByAcademicYear() {
+        ModuleCache cache = newCache(10, NOW);
+        cache.put(ACAD_YEAR, newModule("CS2113"));
+        assertNull(cache.get("2024-2025", "CS2113"));
+    }
+
+    @Test
+    void expiredEntriesAreNotReturned() {
+        newCache(10, NOW).put(ACAD_YEAR, newModule("CS2113"));
+
+        ModuleCache later = newCache(10, NOW.plusMillis(TTL_MILLIS));
+        assertNull(later.get(ACAD_YEAR, "CS2113"));
+        assertEquals(0, later.size());
+    }
+
+    @Test
+    void expiredGetDoesNotRewriteFile() throws IOException {
+        MutableClock clock = new MutableClock(NOW);
+        Path cacheFile = tempDir.resolve("module_cache.txt");
+        ModuleCache cache = new ModuleCache(cacheFile.toString(), 10, TTL_MILLIS, clock);
+        cache.put(ACAD_YEAR, newModule("CS2113"));
+        String before = Files.readString(cacheFile);
+
+        clock.now = NOW.plusMillis(TTL_MILLIS);
+        assertNull(cache.get(ACAD_YEAR, "CS2113"));
+        assertEquals(0, cache.size());
+        assertEquals(before, Files.readString(cacheFile));
+    }
+
+    @Test
+    void putAllCachesEveryModule() {
+        newCache(10, NOW).putAll(ACAD_YEAR, List.of(newModule("CS2113"), newModule("CS2040C")));
+
+        ModuleCache cache = newCache(10, NOW);
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(ACAD_YEAR, "CS2113"));
+        assertNotNull(cache.get(ACAD_YEAR, "CS2040C"));
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedWhenFull() {
+        ModuleCache cache = newCache(2, NOW);
+        cache.put(ACAD_YEAR, newModule("CS2113"));
+        cache.put(ACAD_YEAR, newModule("CS2040C"));
+        cache.get(ACAD_YEAR, "CS2113");
+        cache.put(ACAD_YEAR, newModule("CS3230"));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(ACAD_YEAR, "CS2113"));
+        assertNull(cache.get(ACAD_YEAR, "CS2040C"));
+        assertNotNull(cache.get(ACAD_YEAR, "CS3230"));
+    }
+
+    /** A clock whose time can be moved forward between calls. */
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -3,19 +3,22 @@ package modhero.storage;
 import modhero.common.util.SerialisationUtil;
 import modhero.data.major.Major;
 import modhero.data.modules.Module;
+import modhero.data.modules.PreclusionIndex;
 import modhero.exceptions.CorruptedDataFileException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
-import java.io.File;
 import java.io.IOException;
+import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -30,23 +33,22 @@ public class ModuleStorageTest {
     @TempDir
     Path tempDir;
 
-    private File tempFile;
+    private Path fixtureFile;
     private ModuleStorage moduleStorage;
     private SerialisationUtil serialisationUtil;
 
     @BeforeEach
-    void setUp() throws IOException {
-        // We still use a specific temp file for most save/load tests
-        tempFile = File.createTempFile("modhero_test", ".txt");
-        moduleStorage = new ModuleStorage(tempFile.getAbsolutePath());
+    void setUp() throws IOException, URISyntaxException {
+        // Text module data is read from the classpath, so each fixture is written beside the test resources
+        Path resourceRoot = Paths.get(getClass().getResource("/modules.txt").toURI()).getParent();
+        fixtureFile = Files.createTempFile(resourceRoot, "modhero_test", ".txt");
+        moduleStorage = new ModuleStorage(fixtureFile.getFileName().toString());
         serialisationUtil = new SerialisationUtil();
     }
 
     @AfterEach
-    void tearDown() {
-        if (tempFile != null && tempFile.exists()) {
-            tempFile.delete();
-        }
+    void tearDown() throws IOException {
+        Files.deleteIfExists(fixtureFile);
     }
 
     // --- Tests for loadAllModulesData() ---
@@ -55,38 +57,36 @@ public class ModuleStorageTest {
     void loadFromTextFileAllModulesData_success() throws IOException {
         // A. Create the mock file content
         // Line 1: CS2040, prereq CS1010
-        String prereq1 = serialisationUtil.serialiseMessage("CS1010");
-        List<String> module1Args = List.of("CS2040", "Data Structures", "4", "core", prereq1);
-        String line1 = serialisationUtil.serialiseList(module1Args);
+        List<String> module1Args = List.of("CS2040", "Data Structures", "4", "core", "", "CS1010");
+        String line1 = toLine(module1Args);
 
         // Line 2: CS1010, no prereq
-        String noPrereq = serialisationUtil.serialiseMessage("");
-        List<String> module2Args = List.of("CS1010", "Programming", "4", "core", noPrereq);
-        String line2 = serialisationUtil.serialiseList(module2Args);
+        List<String> module2Args = List.of("CS1010", "Programming", "4", "core", "", "");
+        String line2 = toLine(module2Args);
 
         // B. Save the content to the file
-        moduleStorage.saveToTextFile(line1 + "\n" + line2);
+        writeFixture(line1 + "\n" + line2);
 
         // C. Run the method and assert
-        Map<String, Module> allModulesData = new HashMap<>();
+        ModuleCatalogView allModulesData = new ModuleCatalogView();
         assertDoesNotThrow(() -> moduleStorage.load(allModulesData));
 
-        // Should have 4 entries: 2 modules added by code and by name
-        assertEquals(4, allModulesData.size());
+        // Should have 2 entries: modules are keyed by code only
+        assertEquals(2, allModulesData.size());
 
         Module cs2040 = allModulesData.get("CS2040");
         assertNotNull(cs2040);
         assertEquals("Data Structures", cs2040.getName());
         assertEquals(4, cs2040.getMc());
-        assertEquals(List.of("CS1010"), cs2040.getPrerequisites());
+        assertEquals("CS1010", cs2040.getPrerequisites().toFormatedString());
 
-        // Check that it was also added by name
-        assertEquals(cs2040, allModulesData.get("Data Structures"));
+        // Check that it can be found by name through the title index
+        assertEquals(cs2040, allModulesData.getByTitle("Data Structures"));
     }
 
     @Test
-    void loadFromTextFileAllModulesData_throwsCorruptedDataFileException() {
-        moduleStorage.saveToTextFile("This is not valid serialised data");
+    void loadFromTextFileAllModulesData_throwsCorruptedDataFileException() throws IOException {
+        writeFixture("This is not valid serialised data");
 
         Map<String, Module> map = new HashMap<>();
         // This test correctly asserts that the *expected* exception is thrown
@@ -96,11 +96,11 @@ public class ModuleStorageTest {
     }
 
     @Test
-    void loadFromTextFileAllModulesData_skipsOnWrongArgumentCount() {
+    void loadFromTextFileAllModulesData_skipsOnWrongArgumentCount() throws IOException {
         // Create a line with only 3 arguments instead of 5
         List<String> moduleArgs = List.of("CS1010", "Programming", "4");
-        String line1 = serialisationUtil.serialiseList(moduleArgs);
-        moduleStorage.saveToTextFile(line1);
+        String line1 = toLine(moduleArgs);
+        writeFixture(line1);
 
         Map<String, Module> map = new HashMap<>();
         // The method should log a warning and 'break', not throw an exception
@@ -110,12 +110,11 @@ public class ModuleStorageTest {
     }
 
     @Test
-    void loadFromTextFileAllModulesData_skipsOnInvalidModuleCredit() {
+    void loadFromTextFileAllModulesData_skipsOnInvalidModuleCredit() throws IOException {
         // Create a line where MC is "four", not "4"
-        String noPrereq = serialisationUtil.serialiseMessage("");
-        List<String> moduleArgs = List.of("CS1010", "Programming", "four", "core", noPrereq);
-        String line1 = serialisationUtil.serialiseList(moduleArgs);
-        moduleStorage.saveToTextFile(line1);
+        List<String> moduleArgs = List.of("CS1010", "Programming", "four", "core", "", "");
+        String line1 = toLine(moduleArgs);
+        writeFixture(line1);
 
         Map<String, Module> map = new HashMap<>();
         // The method catches NumberFormatException and logs, not throws
@@ -124,4 +123,36 @@ public class ModuleStorageTest {
         assertTrue(map.isEmpty(), "Module with invalid MC should be skipped");
     }
     //@@ mendax1234
+
+    @Test
+    void loadCatalogView_withoutCatalog_fallsBackToTextData() throws Exception {
+        String cs2113Line = toLine(List.of("CS2113", "Software Engineering", "4", "core", "CS2103T", "CS2040C"));
+        String cs2040cLine = toLine(List.of("CS2040C", "Data Structures", "4", "core", "", ""));
+        writeFixture(cs2113Line + "\n" + cs2040cLine);
+        ModuleStorage storage = new ModuleStorage(fixtureFile.getFileName().toString(),
+                tempDir.resolve("missing.bin").toString());
+
+        ModuleCatalogView allModulesData = new ModuleCatalogView();
+        storage.load(allModulesData);
+        assertEquals(2, allModulesData.size());
+        assertTrue(allModulesData.containsKey("CS2040C"));
+        assertEquals("CS2040C", allModulesData.get("CS2113").getPrerequisites().toFormatedString());
+        assertEquals("CS2040C", allModulesData.getByTitle("Data Structures").getCode());
+
+        PreclusionIndex preclusionIndex = new PreclusionIndex();
+        allModulesData.setPreclusionIndex(preclusionIndex);
+        assertEquals(Set.of("CS2113"), preclusionIndex.getConflicts("CS2103T"));
+    }
+
+    private String toLine(List<String> moduleArgs) {
+        StringBuilder line = new StringBuilder();
+        for (String moduleArg : moduleArgs) {
+            line.append(serialisationUtil.serialiseMessage(moduleArg));
+        }
+        return line.toString();
+    }
+
+    private void writeFixture(String content) throws IOException {
+        Files.writeString(fixtureFile, content);
+    }
 }
@@ -0,0 +1,52 @@
+package modhero.storage;
+
+import modhero.storage.ResponseCache.CachedResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void getReturnsNullWhenMissing() {
+        assertNull(new ResponseCache(tempDir.toString()).get("2025-2026_CS2113"));
+    }
+
+    @Test
+    void putThenGetRoundTripsValidatorsAndBody() {
+        String body = "{\"moduleCode\":\"CS2113\",\n\"title\":\"Software Engineering\"}";
+        new ResponseCache(tempDir.toString()).put("2025-2026_CS2113", "\"abc\"", "", body);
+
+        CachedResponse cached = new ResponseCache(tempDir.toString()).get("2025-2026_CS2113");
+        assertEquals("\"abc\"", cached.getETag());
+        assertEquals("", cached.getLastModified());
+        assertEquals(body, cached.getBody());
+        assertEquals(ResponseCache.hash(body), cached.getBodyHash());
+    }
+
+    @Test
+    void putReplacesEntryWithoutLeavingTempFiles() throws IOException {
+        ResponseCache cache = new ResponseCache(tempDir.toString());
+        cache.put("2025-2026_CS2113", "\"v1\"", "", "old");
+        cache.put("2025-2026_CS2113", "\"v2\"", "", "new");
+
+        assertEquals("new", cache.get("2025-2026_CS2113").getBody());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void hashDiffersForDifferentBodies() {
+        assertEquals(ResponseCache.hash("a"), ResponseCache.hash("a"));
+        assertNotEquals(ResponseCache.hash("a"), ResponseCache.hash("b"));
+    }
+}
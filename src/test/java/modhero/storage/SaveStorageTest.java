@@ -3,12 +3,18 @@ package modhero.storage;
 import modhero.common.Constants;
 import modhero.data.modules.Module;
 import modhero.data.modules.Prerequisites;
+import modhero.data.nusmods.ModuleRetriever;
 import modhero.data.timetable.Timetable;
 import modhero.exceptions.CorruptedDataFileException;
 import modhero.exceptions.ModHeroException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -17,11 +23,14 @@ import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
 
 class SaveStorageTest {
+    @TempDir
+    Path tempDir;
 
     private SaveStorage saveStorage;
     private Map<String, Module> allModulesData;
     private List<String> exemptedModules;
     private Timetable timetable;
+    private ModuleRetriever moduleRetriever;
 
     @BeforeEach
     void setUp() throws CorruptedDataFileException {
@@ -30,8 +39,11 @@ class SaveStorageTest {
         ModuleStorage moduleStorage = new ModuleStorage(Constants.FilePathConstants.MODULES_FILE_PATH);
         moduleStorage.load(allModulesData);
         exemptedModules = new ArrayList<>();
+        moduleRetriever = new ModuleRetriever(new ModuleCache(tempDir.resolve("module_cache.txt").toString(),
+                10, 60_000));
         saveStorage = new SaveStorage(Constants.FilePathConstants.TIMETABLE_FILE_PATH);
         saveStorage.setLoadData(allModulesData, exemptedModules);
+        saveStorage.setModuleRetriever(moduleRetriever);
     }
 
     @Test
@@ -71,4 +83,157 @@ class SaveStorageTest {
         saveStorage.load(newTimetable);
         assertEquals(timetable.getAllModules().size(), newTimetable.getAllModules().size());
     }
+
+    @Test
+    void loadOutOfOrderLines_keepsEveryModule() {
+        allModulesData.put("CS1010", new Module("CS1010", "Programming", 4, "core", "", new Prerequisites()));
+        allModulesData.put("CS2040", new Module("CS2040", "Data Structures", 4, "core", "",
+                new Prerequisites(List.of(List.of("CS1010")))));
+        saveStorage.saveToTextFile(SaveStorage.TIMETABLE_STARTLINE + "\nCS2040|2|1\nCS1010|1|1");
+
+        Timetable newTimetable = new Timetable();
+        saveStorage.load(newTimetable);
+        assertEquals(2, newTimetable.getAllModules().size());
+        assertTrue(saveStorage.getLoadViolations().isEmpty());
+    }
+
+    @Test
+    void loadPlanBreakingPrerequisites_reportsViolationWithoutDroppingModules() {
+        allModulesData.put("CS1010", new Module("CS1010", "Programming", 4, "core", "", new Prerequisites()));
+        allModulesData.put("CS2040", new Module("CS2040", "Data Structures", 4, "core", "",
+                new Prerequisites(List.of(List.of("CS1010")))));
+        saveStorage.saveToTextFile(SaveStorage.TIMETABLE_STARTLINE + "\nCS2040|1|1\nCS1010|2|1\nCS1010|3|1");
+
+        Timetable newTimetable = new Timetable();
+        saveStorage.load(newTimetable);
+        assertEquals(2, newTimetable.getAllModules().size());
+        assertEquals(2, saveStorage.getLoadViolations().size());
+    }
+
+    @Test
+    void loadCorruptedSaveFile_fallsBackToBackup() throws IOException {
+        Path saveFile = tempDir.resolve("save.txt");
+        SaveStorage storage = new SaveStorage(saveFile.toString());
+        storage.setLoadData(allModulesData, exemptedModules);
+        storage.setModuleRetriever(moduleRetriever);
+        storage.save(timetable, List.of("MA1301"));
+        storage.save(timetable, List.of("PC1201"));
+        assertTrue(Files.exists(tempDir.resolve("save.txt.bak")));
+
+        Files.writeString(saveFile, "garbage");
+        storage.load(new Timetable());
+        assertEquals(List.of("MA1301"), exemptedModules);
+        assertEquals(1, storage.getLoadViolations().size());
+    }
+
+    @Test
+    void loadWithJournal_replaysChangesAfterSnapshot() {
+        SaveStorage storage = journalledStorage();
+        timetable.addModuleDirect(0, 0, allModulesData.get("CS1010"));
+        storage.save(timetable, exemptedModules);
+        storage.appendToJournal(1, TimetableJournal.Record.add("CS2040", 1, 0));
+        storage.appendToJournal(2, TimetableJournal.Record.delete("CS1010"));
+        storage.appendToJournal(3, TimetableJournal.Record.add("CS1010", 0, 0));
+        storage.closeJournal();
+
+        SaveStorage reloaded = journalledStorage();
+        Timetable newTimetable = new Timetable();
+        reloaded.load(newTimetable);
+        assertTrue(newTimetable.contains("CS1010"));
+        assertTrue(newTimetable.contains("CS2040"));
+        assertEquals(3, reloaded.getJournalSequence());
+        assertTrue(reloaded.getLoadViolations().isEmpty());
+    }
+
+    @Test
+    void loadWithJournal_replaysMove() {
+        SaveStorage storage = journalledStorage();
+        timetable.addModuleDirect(0, 0, allModulesData.get("CS1010"));
+        storage.save(timetable, exemptedModules);
+        storage.appendToJournal(1, TimetableJournal.Record.move("CS1010", 0, 1));
+        storage.appendToJournal(2, TimetableJournal.Record.move("CS2040", 1, 0));
+        storage.closeJournal();
+
+        Timetable newTimetable = new Timetable();
+        journalledStorage().load(newTimetable);
+        assertEquals("CS1010", newTimetable.getModules(0, 1).get(0).getCode());
+        assertTrue(newTimetable.getModules(0, 0).isEmpty());
+        assertFalse(newTimetable.contains("CS2040"));
+    }
+
+    @Test
+    void loadWithJournal_replaysBatchAdd() {
+        SaveStorage storage = journalledStorage();
+        storage.save(timetable, exemptedModules);
+        timetable.addModuleDirect(0, 0, allModulesData.get("CS1010"));
+        timetable.addModuleDirect(1, 0, allModulesData.get("CS2040"));
+        storage.appendToJournal(1, TimetableJournal.Record.addAll(timetable, List.of("CS2040", "CS1010")));
+        storage.closeJournal();
+
+        Timetable newTimetable = new Timetable();
+        journalledStorage().load(newTimetable);
+        assertEquals("CS1010", newTimetable.getModules(0, 0).get(0).getCode());
+        assertEquals("CS2040", newTimetable.getModules(1, 0).get(0).getCode());
+    }
+
+    @Test
+    void loadWithJournal_replaysReset() {
+        SaveStorage storage = journalledStorage();
+        storage.save(timetable, exemptedModules);
+        timetable.addModuleDirect(0, 0, allModulesData.get("CS1010"));
+        storage.appendToJournal(1, TimetableJournal.Record.reset(timetable, List.of("MA1301")));
+        storage.closeJournal();
+
+        Timetable newTimetable = new Timetable();
+        journalledStorage().load(newTimetable);
+        assertTrue(newTimetable.contains("CS1010"));
+        assertEquals(List.of("MA1301"), exemptedModules);
+    }
+
+    @Test
+    void loadWithJournal_skipsChangesAlreadyInSnapshot() throws IOException {
+        Path saveFile = tempDir.resolve("save.txt");
+        TimetableJournal journal = new TimetableJournal(saveFile + SaveStorage.JOURNAL_SUFFIX);
+        journal.append(1, TimetableJournal.Record.add("CS2040", 1, 0));
+        journal.close();
+        // As left by a crash after saving the snapshot but before clearing the journal
+        Files.writeString(saveFile, SaveStorage.TIMETABLE_STARTLINE + "\nCS1010|1|1\n"
+                + SaveStorage.JOURNAL_SEQUENCE_STARTLINE + "\n1\n");
+
+        SaveStorage storage = journalledStorage();
+        Timetable newTimetable = new Timetable();
+        storage.load(newTimetable);
+        assertEquals(1, newTimetable.getAllModules().size());
+        assertFalse(newTimetable.contains("CS2040"));
+    }
+
+    @Test
+    void loadWithJournal_skipsLineCutShortByCrash() throws IOException {
+        Path journalFile = tempDir.resolve("save.txt" + SaveStorage.JOURNAL_SUFFIX);
+        SaveStorage storage = journalledStorage();
+        storage.appendToJournal(1, TimetableJournal.Record.add("CS1010", 0, 0));
+        storage.closeJournal();
+        Files.writeString(journalFile, "1#2|3#add|6#CS", StandardOpenOption.APPEND);
+        SaveStorage restarted = journalledStorage();
+        restarted.load(new Timetable());
+        restarted.appendToJournal(3, TimetableJournal.Record.add("CS2040", 1, 0));
+        restarted.closeJournal();
+
+        SaveStorage reloaded = journalledStorage();
+        Timetable newTimetable = new Timetable();
+        reloaded.load(newTimetable);
+        assertTrue(newTimetable.contains("CS1010"));
+        assertTrue(newTimetable.contains("CS2040"));
+        assertEquals(1, reloaded.getLoadViolations().size());
+    }
+
+    private SaveStorage journalledStorage() {
+        allModulesData.put("CS1010", new Module("CS1010", "Programming", 4, "core", "", new Prerequisites()));
+        allModulesData.put("CS2040", new Module("CS2040", "Data Structures", 4, "core", "",
+                new Prerequisites(List.of(List.of("CS1010")))));
+        SaveStorage storage = new SaveStorage(tempDir.resolve("save.txt").toString());
+        storage.setLoadData(allModulesData, exemptedModules);
+        storage.setModuleRetriever(moduleRetriever);
+        return storage;
+    }
 }